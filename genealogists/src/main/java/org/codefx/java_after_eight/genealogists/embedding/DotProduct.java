@@ -0,0 +1,21 @@
+package org.codefx.java_after_eight.genealogists.embedding;
+
+/**
+ * Computes dot products with the fastest implementation for the running JVM. On Java 17 and later, the multi-release
+ * JAR replaces this class with one that uses the Vector API if it's available (see {@code src/main/java17}).
+ */
+final class DotProduct {
+
+	private DotProduct() {
+		// private constructor to prevent accidental instantiation of utility class
+	}
+
+	/**
+	 * Computes the dot product of the two vectors of the given length that start at
+	 * the specified offsets in {@code vectors}.
+	 */
+	static float of(float[] vectors, int offset1, int offset2, int length) {
+		return ScalarDotProduct.of(vectors, offset1, offset2, length);
+	}
+
+}
@@ -0,0 +1,111 @@
+package org.codefx.java_after_eight.genealogists.embedding;
+
+import org.codefx.java_after_eight.genealogist.RelationType;
+import org.codefx.java_after_eight.genealogist.SelectiveGenealogist;
+import org.codefx.java_after_eight.genealogist.TypedRelation;
+import org.codefx.java_after_eight.post.Post;
+import org.codefx.java_after_eight.post.PostIds;
+
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.stream.IntStream;
+import java.util.stream.Stream;
+
+import static java.lang.Math.round;
+import static java.util.Objects.requireNonNull;
+
+/**
+ * Scores posts by the cosine similarity of their embeddings. Only each post's nearest neighbors in an
+ * {@link HnswIndex} are candidates, so all other pairs are never inferred and score 0.
+ */
+public class EmbeddingGenealogist implements SelectiveGenealogist {
+
+	private static final RelationType TYPE = RelationType.of("embedding");
+
+	private static final int MAX_NEIGHBORS = 16;
+	private static final int EF_CONSTRUCTION = 100;
+	private static final long SEED = 42;
+	private static final int NO_NEIGHBOR = -1;
+
+	private final PostIds posts;
+	private final int candidatesPerPost;
+	// post `p`'s most similar posts (by ID) and their scores take the indices
+	// [p * candidatesPerPost; (p + 1) * candidatesPerPost), unused ones are `NO_NEIGHBOR`
+	private final int[] neighbors;
+	private final byte[] scores;
+
+	EmbeddingGenealogist(PostIds posts, int candidatesPerPost, int[] neighbors, byte[] scores) {
+		this.posts = requireNonNull(posts);
+		this.candidatesPerPost = candidatesPerPost;
+		this.neighbors = requireNonNull(neighbors);
+		this.scores = requireNonNull(scores);
+		if (neighbors.length != posts.size() * candidatesPerPost || scores.length != neighbors.length)
+			throw new IllegalArgumentException("There must be room for the same number of candidates per post.");
+	}
+
+	static EmbeddingGenealogist create(Collection<Post> posts, Embeddings embeddings, int candidatesPerPost) {
+		// the index's nodes are the posts' IDs
+		PostIds ids = PostIds.of(posts);
+		int dimension = embeddings.dimension();
+		float[] vectors = new float[ids.size() * dimension];
+		int[] nodes = new int[ids.size()];
+		int nodeCount = 0;
+		for (int node = 0; node < ids.size(); node++)
+			if (embeddings.copyNormalized(ids.post(node).slug(), vectors, node * dimension))
+				nodes[nodeCount++] = node;
+		nodes = Arrays.copyOf(nodes, nodeCount);
+
+		HnswIndex index = HnswIndex.build(vectors, dimension, nodes, MAX_NEIGHBORS, EF_CONSTRUCTION, SEED);
+		int[] neighbors = new int[ids.size() * candidatesPerPost];
+		byte[] scores = new byte[neighbors.length];
+		Arrays.fill(neighbors, NO_NEIGHBOR);
+		for (int node : nodes) {
+			int[] nearest = index.nearestNeighbors(node, candidatesPerPost, EF_CONSTRUCTION);
+			for (int rank = 0; rank < nearest.length; rank++) {
+				neighbors[node * candidatesPerPost + rank] = nearest[rank];
+				scores[node * candidatesPerPost + rank] = toScore(index.similarity(node, nearest[rank]));
+			}
+		}
+		return new EmbeddingGenealogist(ids, candidatesPerPost, neighbors, scores);
+	}
+
+	private static byte toScore(float cosineSimilarity) {
+		// negative similarities are as good as no relation at all
+		return (byte) round(Math.min(100, Math.max(0, cosineSimilarity * 100)));
+	}
+
+	@Override
+	public RelationType type() {
+		return TYPE;
+	}
+
+	@Override
+	public Stream<Post> candidates(Post post) {
+		// posts that weren't procured (e.g. drafts) have no embedding in the index
+		if (!posts.contains(post))
+			return Stream.empty();
+		int start = posts.idOf(post) * candidatesPerPost;
+		return IntStream.range(start, start + candidatesPerPost)
+				.map(index -> neighbors[index])
+				.filter(neighbor -> neighbor != NO_NEIGHBOR)
+				.mapToObj(posts::post);
+	}
+
+	@Override
+	public TypedRelation infer(Post post1, Post post2) {
+		return new TypedRelation(post1, post2, TYPE, scoreOf(post1, post2));
+	}
+
+	private long scoreOf(Post post1, Post post2) {
+		if (!posts.contains(post1) || !posts.contains(post2))
+			return 0;
+		int start = posts.idOf(post1) * candidatesPerPost;
+		int post2Id = posts.idOf(post2);
+		// there are only a few candidates per post, so a linear search is fastest
+		for (int index = start; index < start + candidatesPerPost; index++)
+			if (neighbors[index] == post2Id)
+				return scores[index];
+		return 0;
+	}
+
+}
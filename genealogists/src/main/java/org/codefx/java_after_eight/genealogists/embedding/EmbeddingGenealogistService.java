@@ -0,0 +1,32 @@
+package org.codefx.java_after_eight.genealogists.embedding;
+
+import org.codefx.java_after_eight.genealogist.Genealogist;
+import org.codefx.java_after_eight.genealogist.GenealogistService;
+import org.codefx.java_after_eight.post.Post;
+
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.Collection;
+
+/**
+ * Creates an {@link EmbeddingGenealogist} from the embedding file that is configured with the system property
+ * {@value EMBEDDINGS_FILE_PROPERTY} (defaults to {@value DEFAULT_EMBEDDINGS_FILE} in the working directory).
+ * The number of candidates that are scored per post can be configured with {@value CANDIDATES_PROPERTY}.
+ */
+public class EmbeddingGenealogistService implements GenealogistService {
+
+	private static final String EMBEDDINGS_FILE_PROPERTY = "genealogists.embeddings.file";
+	private static final String DEFAULT_EMBEDDINGS_FILE = "embeddings.bin";
+	private static final String CANDIDATES_PROPERTY = "genealogists.embeddings.candidates";
+	private static final int DEFAULT_CANDIDATES = 10;
+
+	@Override
+	public Genealogist procure(Collection<Post> posts) {
+		Path file = Paths.get(System.getProperty(EMBEDDINGS_FILE_PROPERTY, DEFAULT_EMBEDDINGS_FILE));
+		int candidates = Integer.getInteger(CANDIDATES_PROPERTY, DEFAULT_CANDIDATES);
+		if (candidates < 1)
+			throw new IllegalArgumentException("Number of candidates must be greater zero: " + candidates);
+		return EmbeddingGenealogist.create(posts, Embeddings.map(file), candidates);
+	}
+
+}
@@ -0,0 +1,103 @@
+package org.codefx.java_after_eight.genealogists.embedding;
+
+import org.codefx.java_after_eight.post.Slug;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.FloatBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.HashMap;
+import java.util.Map;
+
+import static java.lang.String.format;
+
+/**
+ * Memory-mapped view of an embedding file, which has the following (big-endian) layout:
+ *
+ * <pre>
+ * int      number of vectors (n)
+ * int      dimension of each vector (d)
+ * n times  short length of the slug in bytes, followed by the UTF-8 encoded slug
+ * n*d      floats, the vectors in the same order as the slugs
+ * </pre>
+ */
+class Embeddings {
+
+	private final int dimension;
+	private final Map<Slug, Integer> indices;
+	private final FloatBuffer vectors;
+
+	private Embeddings(int dimension, Map<Slug, Integer> indices, FloatBuffer vectors) {
+		this.dimension = dimension;
+		this.indices = indices;
+		this.vectors = vectors;
+	}
+
+	static Embeddings map(Path file) {
+		try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+			// the mapping stays valid after the channel is closed
+			ByteBuffer buffer = channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size());
+			return read(buffer);
+		} catch (IOException ex) {
+			throw new UncheckedIOException(ex);
+		} catch (RuntimeException ex) {
+			throw new IllegalArgumentException("Reading embeddings failed: " + file, ex);
+		}
+	}
+
+	private static Embeddings read(ByteBuffer buffer) {
+		int count = buffer.getInt();
+		int dimension = buffer.getInt();
+		if (count < 0 || dimension < 1)
+			throw new IllegalArgumentException(format("Invalid header: %d vectors of dimension %d", count, dimension));
+
+		Map<Slug, Integer> indices = new HashMap<>();
+		for (int index = 0; index < count; index++) {
+			byte[] slug = new byte[buffer.getShort() & 0xFFFF];
+			buffer.get(slug);
+			indices.put(Slug.of(new String(slug, StandardCharsets.UTF_8)), index);
+		}
+
+		FloatBuffer vectors = buffer.slice().asFloatBuffer();
+		if (vectors.remaining() < (long) count * dimension)
+			throw new IllegalArgumentException(format(
+					"Expected %d floats for %d vectors, but only %d are left.",
+					(long) count * dimension, count, vectors.remaining()));
+		return new Embeddings(dimension, indices, vectors);
+	}
+
+	public int dimension() {
+		return dimension;
+	}
+
+	/**
+	 * Copies the vector for the specified slug into {@code target} (starting at {@code offset})
+	 * and normalizes it to unit length, so that dot products become cosine similarities.
+	 *
+	 * @return whether there is a vector for the slug
+	 */
+	public boolean copyNormalized(Slug slug, float[] target, int offset) {
+		Integer index = indices.get(slug);
+		if (index == null)
+			return false;
+
+		double squaredLength = 0;
+		for (int i = 0; i < dimension; i++) {
+			float value = vectors.get(index * dimension + i);
+			target[offset + i] = value;
+			squaredLength += value * value;
+		}
+		if (squaredLength == 0)
+			return false;
+
+		float length = (float) Math.sqrt(squaredLength);
+		for (int i = 0; i < dimension; i++)
+			target[offset + i] /= length;
+		return true;
+	}
+
+}
@@ -0,0 +1,219 @@
+package org.codefx.java_after_eight.genealogists.embedding;
+
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.PriorityQueue;
+import java.util.Random;
+
+/**
+ * A hierarchical navigable small world graph (HNSW, see https://arxiv.org/abs/1603.09320)
+ * over unit-length vectors, where similarity is the dot product.
+ *
+ * <p>Nodes are identified by their index into the flat {@code vectors} array
+ * (node {@code n} starts at {@code n * dimension}). This class is not thread-safe.
+ */
+final class HnswIndex {
+
+	private static final int MAX_LEVEL = 16;
+
+	private final float[] vectors;
+	private final int dimension;
+	private final int maxNeighbors;
+	private final int efConstruction;
+	private final double levelMultiplier;
+	private final Random random;
+
+	// neighbors[node][level] holds the number of neighbors at index 0, followed by the neighbors
+	private final int[][][] neighbors;
+	private final int[] visited;
+	private int visitMark;
+
+	private int entryPoint = -1;
+	private int topLevel = -1;
+
+	private HnswIndex(float[] vectors, int dimension, int maxNeighbors, int efConstruction, long seed) {
+		this.vectors = vectors;
+		this.dimension = dimension;
+		this.maxNeighbors = maxNeighbors;
+		this.efConstruction = efConstruction;
+		this.levelMultiplier = 1 / Math.log(maxNeighbors);
+		this.random = new Random(seed);
+
+		int size = vectors.length / dimension;
+		this.neighbors = new int[size][][];
+		this.visited = new int[size];
+	}
+
+	/**
+	 * @param nodes the nodes to insert; all other nodes are not part of the index
+	 */
+	static HnswIndex build(float[] vectors, int dimension, int[] nodes, int maxNeighbors, int efConstruction, long seed) {
+		if (maxNeighbors < 2)
+			throw new IllegalArgumentException("Maximum number of neighbors must be at least 2: " + maxNeighbors);
+		HnswIndex index = new HnswIndex(vectors, dimension, maxNeighbors, efConstruction, seed);
+		for (int node : nodes)
+			index.insert(node);
+		return index;
+	}
+
+	float similarity(int node1, int node2) {
+		return DotProduct.of(vectors, node1 * dimension, node2 * dimension, dimension);
+	}
+
+	/**
+	 * @return up to {@code count} nodes that are most similar to {@code node} (excluding itself), most similar first
+	 */
+	int[] nearestNeighbors(int node, int count, int ef) {
+		if (entryPoint == -1)
+			return new int[0];
+
+		int closest = entryPoint;
+		for (int level = topLevel; level > 0; level--)
+			closest = greedySearch(node, closest, level);
+		Candidate[] candidates = searchLevel(node, closest, Math.max(ef, count + 1), 0);
+
+		return Arrays.stream(candidates)
+				.mapToInt(candidate -> candidate.node)
+				.filter(candidate -> candidate != node)
+				.limit(count)
+				.toArray();
+	}
+
+	private void insert(int node) {
+		int level = randomLevel();
+		neighbors[node] = new int[level + 1][];
+		for (int l = 0; l <= level; l++)
+			neighbors[node][l] = new int[capacity(l) + 1];
+
+		if (entryPoint == -1) {
+			entryPoint = node;
+			topLevel = level;
+			return;
+		}
+
+		int closest = entryPoint;
+		for (int l = topLevel; l > level; l--)
+			closest = greedySearch(node, closest, l);
+		for (int l = Math.min(level, topLevel); l >= 0; l--) {
+			Candidate[] candidates = searchLevel(node, closest, efConstruction, l);
+			int connections = Math.min(maxNeighbors, candidates.length);
+			for (int i = 0; i < connections; i++) {
+				addNeighbor(node, candidates[i].node, l);
+				addNeighbor(candidates[i].node, node, l);
+			}
+			closest = candidates[0].node;
+		}
+
+		if (level > topLevel) {
+			entryPoint = node;
+			topLevel = level;
+		}
+	}
+
+	private int randomLevel() {
+		double level = -Math.log(1 - random.nextDouble()) * levelMultiplier;
+		return (int) Math.min(level, MAX_LEVEL);
+	}
+
+	private int capacity(int level) {
+		// as recommended in the paper, the bottom level has twice as many connections
+		return level == 0 ? 2 * maxNeighbors : maxNeighbors;
+	}
+
+	private void addNeighbor(int node, int neighbor, int level) {
+		int[] links = neighbors[node][level];
+		int count = links[0];
+		if (count < links.length - 1) {
+			links[count + 1] = neighbor;
+			links[0]++;
+			return;
+		}
+
+		// the list is full - replace the least similar neighbor if the new one is more similar
+		int leastSimilarIndex = -1;
+		float leastSimilarity = similarity(node, neighbor);
+		for (int i = 1; i <= count; i++) {
+			float similarity = similarity(node, links[i]);
+			if (similarity < leastSimilarity) {
+				leastSimilarity = similarity;
+				leastSimilarIndex = i;
+			}
+		}
+		if (leastSimilarIndex != -1)
+			links[leastSimilarIndex] = neighbor;
+	}
+
+	private int greedySearch(int query, int entry, int level) {
+		int closest = entry;
+		float closestSimilarity = similarity(query, entry);
+		boolean improved = true;
+		while (improved) {
+			improved = false;
+			int[] links = neighbors[closest][level];
+			for (int i = 1; i <= links[0]; i++) {
+				float similarity = similarity(query, links[i]);
+				if (similarity > closestSimilarity) {
+					closestSimilarity = similarity;
+					closest = links[i];
+					improved = true;
+				}
+			}
+		}
+		return closest;
+	}
+
+	/**
+	 * @return the {@code ef} nodes closest to {@code query} found on the given level, most similar first
+	 */
+	private Candidate[] searchLevel(int query, int entry, int ef, int level) {
+		visitMark++;
+		Comparator<Candidate> bySimilarity = Comparator.comparingDouble(candidate -> candidate.similarity);
+		PriorityQueue<Candidate> toVisit = new PriorityQueue<>(bySimilarity.reversed());
+		PriorityQueue<Candidate> found = new PriorityQueue<>(bySimilarity);
+
+		Candidate start = new Candidate(entry, similarity(query, entry));
+		visited[entry] = visitMark;
+		toVisit.add(start);
+		found.add(start);
+
+		while (!toVisit.isEmpty()) {
+			Candidate current = toVisit.poll();
+			if (current.similarity < found.peek().similarity && found.size() >= ef)
+				break;
+
+			int[] links = neighbors[current.node][level];
+			for (int i = 1; i <= links[0]; i++) {
+				int neighbor = links[i];
+				if (visited[neighbor] == visitMark)
+					continue;
+				visited[neighbor] = visitMark;
+
+				float similarity = similarity(query, neighbor);
+				if (found.size() < ef || similarity > found.peek().similarity) {
+					Candidate candidate = new Candidate(neighbor, similarity);
+					toVisit.add(candidate);
+					found.add(candidate);
+					if (found.size() > ef)
+						found.poll();
+				}
+			}
+		}
+
+		Candidate[] result = found.toArray(new Candidate[0]);
+		Arrays.sort(result, bySimilarity.reversed());
+		return result;
+	}
+
+	private static class Candidate {
+
+		final int node;
+		final float similarity;
+
+		Candidate(int node, float similarity) {
+			this.node = node;
+			this.similarity = similarity;
+		}
+
+	}
+
+}
@@ -0,0 +1,33 @@
+package org.codefx.java_after_eight.genealogists.embedding;
+
+final class ScalarDotProduct {
+
+	private ScalarDotProduct() {
+		// private constructor to prevent accidental instantiation of utility class
+	}
+
+	/**
+	 * Computes the dot product of the two vectors of the given length that start at
+	 * the specified offsets in {@code vectors}.
+	 */
+	static float of(float[] vectors, int offset1, int offset2, int length) {
+		// four independent accumulators break the dependency chain between iterations,
+		// so the loop can be pipelined (and unrolled/vectorized by the JIT)
+		float sum0 = 0;
+		float sum1 = 0;
+		float sum2 = 0;
+		float sum3 = 0;
+		int i = 0;
+		int upperBound = length & ~3;
+		for (; i < upperBound; i += 4) {
+			sum0 += vectors[offset1 + i] * vectors[offset2 + i];
+			sum1 += vectors[offset1 + i + 1] * vectors[offset2 + i + 1];
+			sum2 += vectors[offset1 + i + 2] * vectors[offset2 + i + 2];
+			sum3 += vectors[offset1 + i + 3] * vectors[offset2 + i + 3];
+		}
+		for (; i < length; i++)
+			sum0 += vectors[offset1 + i] * vectors[offset2 + i];
+		return (sum0 + sum1) + (sum2 + sum3);
+	}
+
+}
@@ -0,0 +1,49 @@
+package org.codefx.java_after_eight.genealogists.link;
+
+import org.codefx.java_after_eight.genealogist.Genealogist;
+import org.codefx.java_after_eight.genealogist.RelationType;
+import org.codefx.java_after_eight.genealogist.TypedRelation;
+import org.codefx.java_after_eight.post.Post;
+
+import static java.lang.Math.round;
+import static java.util.Objects.requireNonNull;
+
+public class LinkGenealogist implements Genealogist {
+
+	private static final RelationType TYPE = RelationType.of("link");
+
+	// being cited together is a weaker signal than a direct link, so it can't reach the full score
+	private static final double MAX_CO_CITATION_SCORE = 80;
+
+	private final LinkGraph graph;
+
+	LinkGenealogist(LinkGraph graph) {
+		this.graph = requireNonNull(graph);
+	}
+
+	@Override
+	public RelationType type() {
+		return TYPE;
+	}
+
+	@Override
+	public TypedRelation infer(Post post1, Post post2) {
+		long score = determineScore(graph.idOf(post1), graph.idOf(post2));
+		return new TypedRelation(post1, post2, TYPE, score);
+	}
+
+	private long determineScore(int post1, int post2) {
+		if (post1 == -1 || post2 == -1)
+			return 0;
+		if (graph.links(post1, post2) || graph.links(post2, post1))
+			return 100;
+
+		int coCitations = graph.coCitations(post1, post2);
+		if (coCitations == 0)
+			return 0;
+		// Salton's cosine: shared citations relative to the geometric mean of the citation counts
+		double similarity = coCitations / Math.sqrt((double) graph.inDegree(post1) * graph.inDegree(post2));
+		return round(MAX_CO_CITATION_SCORE * similarity);
+	}
+
+}
@@ -0,0 +1,16 @@
+package org.codefx.java_after_eight.genealogists.link;
+
+import org.codefx.java_after_eight.genealogist.Genealogist;
+import org.codefx.java_after_eight.genealogist.GenealogistService;
+import org.codefx.java_after_eight.post.Post;
+
+import java.util.Collection;
+
+public class LinkGenealogistService implements GenealogistService {
+
+	@Override
+	public Genealogist procure(Collection<Post> posts) {
+		return new LinkGenealogist(LinkGraph.from(posts));
+	}
+
+}
@@ -0,0 +1,165 @@
+package org.codefx.java_after_eight.genealogists.link;
+
+import org.codefx.java_after_eight.post.Article;
+import org.codefx.java_after_eight.post.Post;
+import org.codefx.java_after_eight.post.Slug;
+
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+import java.util.stream.Stream;
+
+/**
+ * The links between posts as two adjacency lists in compressed sparse row (CSR) format:
+ * the outgoing links of post {@code p} are {@code outTargets[outOffsets[p] ... outOffsets[p + 1]]}
+ * (and analogously for incoming links). Each row is sorted and free of duplicates,
+ * so intersections can be computed by merging.
+ */
+class LinkGraph {
+
+	private static final Pattern MARKDOWN_LINK = Pattern.compile("\\]\\(([^)\\s]+)\\)");
+	private static final List<String> OWN_HOSTS = Arrays.asList(
+			"https://nipafx.dev/", "https://blog.codefx.org/", "http://blog.codefx.org/", "https://codefx.org/");
+
+	private final Map<Slug, Integer> ids;
+	private final int[] outOffsets;
+	private final int[] outTargets;
+	private final int[] inOffsets;
+	private final int[] inTargets;
+
+	private LinkGraph(Map<Slug, Integer> ids, int[] outOffsets, int[] outTargets, int[] inOffsets, int[] inTargets) {
+		this.ids = ids;
+		this.outOffsets = outOffsets;
+		this.outTargets = outTargets;
+		this.inOffsets = inOffsets;
+		this.inTargets = inTargets;
+	}
+
+	static LinkGraph from(Collection<Post> posts) {
+		Map<Slug, Integer> ids = new HashMap<>();
+		for (Post post : posts)
+			ids.putIfAbsent(post.slug(), ids.size());
+
+		int[][] links = new int[ids.size()][];
+		for (Post post : posts)
+			links[ids.get(post.slug())] = linkedPosts(post, ids);
+
+		int[][] csr = toCsr(links);
+		int[][] transposedCsr = toCsr(transpose(links));
+		return new LinkGraph(ids, csr[0], csr[1], transposedCsr[0], transposedCsr[1]);
+	}
+
+	private static int[] linkedPosts(Post post, Map<Slug, Integer> ids) {
+		if (!(post instanceof Article))
+			return new int[0];
+
+		int self = ids.get(post.slug());
+		return ((Article) post).content().get()
+				.flatMap(line -> {
+					Matcher matcher = MARKDOWN_LINK.matcher(line);
+					Stream.Builder<String> targets = Stream.builder();
+					while (matcher.find())
+						targets.add(matcher.group(1));
+					return targets.build();
+				})
+				.map(LinkGraph::slugOf)
+				.filter(Optional::isPresent)
+				.map(slug -> ids.get(slug.get()))
+				.filter(id -> id != null && id != self)
+				.mapToInt(Integer::intValue)
+				.sorted()
+				.distinct()
+				.toArray();
+	}
+
+	private static Optional<Slug> slugOf(String linkTarget) {
+		String target = linkTarget;
+		for (String host : OWN_HOSTS)
+			if (target.startsWith(host))
+				target = target.substring(host.length());
+		// absolute links to other sites, mail addresses, tags, etc.
+		if (target.contains(":"))
+			return Optional.empty();
+
+		int anchor = target.indexOf('#');
+		if (anchor >= 0)
+			target = target.substring(0, anchor);
+		while (target.startsWith("/"))
+			target = target.substring(1);
+		while (target.endsWith("/"))
+			target = target.substring(0, target.length() - 1);
+		return target.isEmpty() || target.contains("/")
+				? Optional.empty()
+				: Optional.of(Slug.of(target));
+	}
+
+	private static int[][] transpose(int[][] rows) {
+		int[] counts = new int[rows.length];
+		for (int[] row : rows)
+			for (int column : row)
+				counts[column]++;
+		int[][] transposed = new int[rows.length][];
+		for (int i = 0; i < rows.length; i++)
+			transposed[i] = new int[counts[i]];
+		int[] filled = new int[rows.length];
+		// iterating rows in ascending order keeps the transposed rows sorted
+		for (int row = 0; row < rows.length; row++)
+			for (int column : rows[row])
+				transposed[column][filled[column]++] = row;
+		return transposed;
+	}
+
+	private static int[][] toCsr(int[][] rows) {
+		int[] offsets = new int[rows.length + 1];
+		for (int i = 0; i < rows.length; i++)
+			offsets[i + 1] = offsets[i] + rows[i].length;
+		int[] targets = new int[offsets[rows.length]];
+		for (int i = 0; i < rows.length; i++)
+			System.arraycopy(rows[i], 0, targets, offsets[i], rows[i].length);
+		return new int[][] { offsets, targets };
+	}
+
+	/**
+	 * @return the post's ID or -1 if the post is unknown
+	 */
+	int idOf(Post post) {
+		return ids.getOrDefault(post.slug(), -1);
+	}
+
+	boolean links(int from, int to) {
+		return Arrays.binarySearch(outTargets, outOffsets[from], outOffsets[from + 1], to) >= 0;
+	}
+
+	int inDegree(int post) {
+		return inOffsets[post + 1] - inOffsets[post];
+	}
+
+	/**
+	 * @return the number of posts that link to both posts
+	 */
+	int coCitations(int post1, int post2) {
+		int i = inOffsets[post1];
+		int iEnd = inOffsets[post1 + 1];
+		int j = inOffsets[post2];
+		int jEnd = inOffsets[post2 + 1];
+		int shared = 0;
+		while (i < iEnd && j < jEnd) {
+			int difference = inTargets[i] - inTargets[j];
+			if (difference == 0) {
+				shared++;
+				i++;
+				j++;
+			} else if (difference < 0)
+				i++;
+			else
+				j++;
+		}
+		return shared;
+	}
+
+}
@@ -4,25 +4,53 @@ import org.codefx.java_after_eight.genealogist.Genealogist;
 import org.codefx.java_after_eight.genealogist.RelationType;
 import org.codefx.java_after_eight.genealogist.TypedRelation;
 import org.codefx.java_after_eight.post.Post;
+import org.codefx.java_after_eight.post.PostIds;
 
-import java.util.Random;
-
-import static java.util.Objects.requireNonNull;
+import java.util.Collection;
 
+/**
+ * Scores pairs of posts randomly, but each pair's score is derived from a hash of the seed and both posts'
+ * IDs (like {@link java.util.SplittableRandom} derives its values), so there's no shared state to contend for
+ * and the scores are the same for the same seed and posts, regardless of how many threads infer them.
+ */
 public class RandomGenealogist implements Genealogist {
 
-	private static final RelationType TYPE = new RelationType("random");
+	private static final RelationType TYPE = RelationType.of("random");
+	private static final long GOLDEN_GAMMA = 0x9e3779b97f4a7c15L;
+
+	private final long seed;
+	private final PostIds posts;
 
-	private final Random random;
+	public RandomGenealogist(long seed, Collection<Post> posts) {
+		this.seed = seed;
+		this.posts = PostIds.of(posts);
+	}
 
-	public RandomGenealogist(Random random) {
-		this.random = requireNonNull(random);
+	@Override
+	public RelationType type() {
+		return TYPE;
 	}
 
 	@Override
 	public TypedRelation infer(Post post1, Post post2) {
-		long score = random.nextLong();
+		long hash = mix64(mix64(seed + GOLDEN_GAMMA * idOf(post1)) + GOLDEN_GAMMA * idOf(post2));
+		long score = Math.floorMod(hash, 101L);
 		return new TypedRelation(post1, post2, TYPE, score);
 	}
 
+	private long idOf(Post post) {
+		// posts that weren't procured (e.g. drafts) are identified by their slug's hash, which is made negative,
+		// so it doesn't collide with IDs
+		return posts.contains(post)
+				? posts.idOf(post)
+				: -1 - (post.slug().value().hashCode() & 0xffffffffL);
+	}
+
+	// the finalizer of `SplittableRandom`
+	private static long mix64(long z) {
+		z = (z ^ (z >>> 30)) * 0xbf58476d1ce4e5b9L;
+		z = (z ^ (z >>> 27)) * 0x94d049bb133111ebL;
+		return z ^ (z >>> 31);
+	}
+
 }
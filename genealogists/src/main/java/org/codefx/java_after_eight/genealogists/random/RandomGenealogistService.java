@@ -5,14 +5,20 @@ import org.codefx.java_after_eight.genealogist.GenealogistService;
 import org.codefx.java_after_eight.post.Post;
 
 import java.util.Collection;
-import java.util.Random;
 
+/**
+ * Creates a {@link RandomGenealogist} with the seed that is configured with the system property
+ * {@value SEED_PROPERTY} (defaults to {@value DEFAULT_SEED}).
+ */
 public class RandomGenealogistService implements GenealogistService {
 
+	private static final String SEED_PROPERTY = "genealogists.random.seed";
+	private static final long DEFAULT_SEED = 0;
+
 	@Override
 	public Genealogist procure(Collection<Post> posts) {
-		Random random = new Random();
-		return new RandomGenealogist(random);
+		long seed = Long.getLong(SEED_PROPERTY, DEFAULT_SEED);
+		return new RandomGenealogist(seed, posts);
 	}
 
-}
\ No newline at end of file
+}
@@ -0,0 +1,57 @@
+package org.codefx.java_after_eight.genealogists.recency;
+
+import org.codefx.java_after_eight.post.Post;
+
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.stream.Stream;
+
+import static java.util.Comparator.comparing;
+
+/**
+ * Posts sorted by date, so the posts within a date range can be found with a binary search.
+ */
+class DateIndex {
+
+	private final Post[] posts;
+	// the posts' dates as epoch days, in the same order as `posts`
+	private final int[] days;
+
+	private DateIndex(Post[] posts, int[] days) {
+		this.posts = posts;
+		this.days = days;
+	}
+
+	static DateIndex from(Collection<Post> posts) {
+		Post[] sortedPosts = posts.stream()
+				.sorted(comparing(Post::date))
+				.toArray(Post[]::new);
+		int[] days = Stream.of(sortedPosts)
+				.mapToInt(post -> (int) post.date().toEpochDay())
+				.toArray();
+		return new DateIndex(sortedPosts, days);
+	}
+
+	/**
+	 * @return the posts with an epoch day in the interval [{@code fromDay}; {@code toDay}] (none if it's empty)
+	 */
+	Stream<Post> postsBetween(int fromDay, int toDay) {
+		if (fromDay > toDay)
+			return Stream.empty();
+		return Arrays.stream(posts, firstIndexNotBefore(fromDay), firstIndexNotBefore(toDay + 1));
+	}
+
+	private int firstIndexNotBefore(int day) {
+		int low = 0;
+		int high = days.length;
+		while (low < high) {
+			int middle = (low + high) >>> 1;
+			if (days[middle] < day)
+				low = middle + 1;
+			else
+				high = middle;
+		}
+		return low;
+	}
+
+}
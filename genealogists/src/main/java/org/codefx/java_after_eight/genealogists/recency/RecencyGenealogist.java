@@ -0,0 +1,56 @@
+package org.codefx.java_after_eight.genealogists.recency;
+
+import org.codefx.java_after_eight.genealogist.RelationType;
+import org.codefx.java_after_eight.genealogist.SelectiveGenealogist;
+import org.codefx.java_after_eight.genealogist.TypedRelation;
+import org.codefx.java_after_eight.post.Post;
+
+import java.util.stream.Stream;
+
+import static java.lang.Math.abs;
+import static java.lang.Math.round;
+import static java.util.Objects.requireNonNull;
+
+/**
+ * Scores posts by how close their dates are: the score halves with every {@code halfLife} days
+ * between them and posts that are more than {@code window} days apart score 0.
+ */
+public class RecencyGenealogist implements SelectiveGenealogist {
+
+	private static final RelationType TYPE = RelationType.of("recency");
+
+	private final DateIndex index;
+	private final int window;
+	private final double halfLife;
+
+	RecencyGenealogist(DateIndex index, int window, double halfLife) {
+		this.index = requireNonNull(index);
+		this.window = window;
+		this.halfLife = halfLife;
+		if (window < 0)
+			throw new IllegalArgumentException("Window must not be negative: " + window);
+		if (halfLife <= 0)
+			throw new IllegalArgumentException("Half-life must be greater zero: " + halfLife);
+	}
+
+	@Override
+	public RelationType type() {
+		return TYPE;
+	}
+
+	@Override
+	public Stream<Post> candidates(Post post) {
+		int day = (int) post.date().toEpochDay();
+		return index.postsBetween(day - window, day + window);
+	}
+
+	@Override
+	public TypedRelation infer(Post post1, Post post2) {
+		long daysApart = abs(post1.date().toEpochDay() - post2.date().toEpochDay());
+		long score = daysApart > window
+				? 0
+				: round(100 * Math.pow(0.5, daysApart / halfLife));
+		return new TypedRelation(post1, post2, TYPE, score);
+	}
+
+}
@@ -0,0 +1,27 @@
+package org.codefx.java_after_eight.genealogists.recency;
+
+import org.codefx.java_after_eight.genealogist.Genealogist;
+import org.codefx.java_after_eight.genealogist.GenealogistService;
+import org.codefx.java_after_eight.post.Post;
+
+import java.util.Collection;
+
+/**
+ * Creates a {@link RecencyGenealogist} - the window and half-life (both in days) can be configured
+ * with the system properties {@value WINDOW_PROPERTY} and {@value HALF_LIFE_PROPERTY}.
+ */
+public class RecencyGenealogistService implements GenealogistService {
+
+	private static final String WINDOW_PROPERTY = "genealogists.recency.window";
+	private static final int DEFAULT_WINDOW = 365;
+	private static final String HALF_LIFE_PROPERTY = "genealogists.recency.half-life";
+	private static final double DEFAULT_HALF_LIFE = 90;
+
+	@Override
+	public Genealogist procure(Collection<Post> posts) {
+		int window = Integer.getInteger(WINDOW_PROPERTY, DEFAULT_WINDOW);
+		double halfLife = Double.parseDouble(System.getProperty(HALF_LIFE_PROPERTY, String.valueOf(DEFAULT_HALF_LIFE)));
+		return new RecencyGenealogist(DateIndex.from(posts), window, halfLife);
+	}
+
+}
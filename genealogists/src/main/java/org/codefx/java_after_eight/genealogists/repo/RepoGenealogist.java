@@ -3,17 +3,20 @@ package org.codefx.java_after_eight.genealogists.repo;
 import org.codefx.java_after_eight.genealogist.Genealogist;
 import org.codefx.java_after_eight.genealogist.RelationType;
 import org.codefx.java_after_eight.genealogist.TypedRelation;
-import org.codefx.java_after_eight.post.Article;
 import org.codefx.java_after_eight.post.Post;
 import org.codefx.java_after_eight.post.Repository;
-import org.codefx.java_after_eight.post.Video;
 
 import java.util.Objects;
 import java.util.Optional;
 
 public class RepoGenealogist implements Genealogist {
 
-	private static final RelationType TYPE = new RelationType("repo");
+	private static final RelationType TYPE = RelationType.of("repo");
+
+	@Override
+	public RelationType type() {
+		return TYPE;
+	}
 
 	@Override
 	public TypedRelation infer(Post post1, Post post2) {
@@ -22,8 +25,8 @@ public class RepoGenealogist implements Genealogist {
 	}
 
 	private long determineScore(Post post1, Post post2) {
-		Optional<Repository> repo1 = getRepository(post1);
-		Optional<Repository> repo2 = getRepository(post2);
+		Optional<Repository> repo1 = post1.repository();
+		Optional<Repository> repo2 = post2.repository();
 
 		if (repo1.isPresent() != repo2.isPresent())
 			return 0;
@@ -33,12 +36,4 @@ public class RepoGenealogist implements Genealogist {
 		return Objects.equals(repo1, repo2) ? 100 : 50;
 	}
 
-	private Optional<Repository> getRepository(Post post) {
-		if (post instanceof Article)
-			return ((Article) post).repository();
-		if (post instanceof Video)
-			return ((Video) post).repository();
-		return Optional.empty();
-	}
-
 }
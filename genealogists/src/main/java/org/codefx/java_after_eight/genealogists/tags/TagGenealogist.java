@@ -13,7 +13,12 @@ import static java.util.stream.Collectors.toSet;
 
 public class TagGenealogist implements Genealogist {
 
-	private static final RelationType TYPE = new RelationType("tag");
+	private static final RelationType TYPE = RelationType.of("tag");
+
+	@Override
+	public RelationType type() {
+		return TYPE;
+	}
 
 	@Override
 	public TypedRelation infer(Post post1, Post post2) {
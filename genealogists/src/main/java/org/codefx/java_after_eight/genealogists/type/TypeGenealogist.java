@@ -4,26 +4,32 @@ import org.codefx.java_after_eight.genealogist.Genealogist;
 import org.codefx.java_after_eight.genealogist.RelationType;
 import org.codefx.java_after_eight.genealogist.TypedRelation;
 import org.codefx.java_after_eight.post.Post;
+import org.codefx.java_after_eight.post.PostKind;
 
 public class TypeGenealogist implements Genealogist {
 
-	private static final RelationType TYPE = new RelationType("type");
+	private static final RelationType TYPE = RelationType.of("type");
+
+	// indexed by kind ordinal - kinds that were created later (or are missing) score 0
+	private static final long[] SCORES = scores();
+
+	private static long[] scores() {
+		long[] scores = new long[PostKind.registeredKinds()];
+		scores[PostKind.ARTICLE.ordinal()] = 50;
+		scores[PostKind.VIDEO.ordinal()] = 90;
+		scores[PostKind.TALK.ordinal()] = 20;
+		return scores;
+	}
 
 	@Override
-	public TypedRelation infer(Post post1, Post post2) {
-		long score = 0;
-		switch (post2.getClass().getSimpleName()) {
-			case "Article":
-				score = 50;
-				break;
-			case "Video":
-				score = 90;
-				break;
-			case "Talk":
-				score = 20;
-				break;
-		}
+	public RelationType type() {
+		return TYPE;
+	}
 
+	@Override
+	public TypedRelation infer(Post post1, Post post2) {
+		int kind = post2.kind().ordinal();
+		long score = kind < SCORES.length ? SCORES[kind] : 0;
 		return new TypedRelation(post1, post2, TYPE, score);
 	}
 
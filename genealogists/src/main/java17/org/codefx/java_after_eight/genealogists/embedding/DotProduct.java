@@ -0,0 +1,37 @@
+package org.codefx.java_after_eight.genealogists.embedding;
+
+/**
+ * Computes dot products with the fastest implementation for the running JVM: the Vector API is an incubator module,
+ * so it's only used if it was added with {@code --add-modules jdk.incubator.vector}.
+ */
+final class DotProduct {
+
+	private static final String VECTOR_MODULE = "jdk.incubator.vector";
+	// constant after class initialization, so the JIT removes the branch in `of`
+	private static final boolean VECTORIZED = isVectorized();
+
+	private DotProduct() {
+		// private constructor to prevent accidental instantiation of utility class
+	}
+
+	private static boolean isVectorized() {
+		if (ModuleLayer.boot().findModule(VECTOR_MODULE).isEmpty())
+			return false;
+		try {
+			return VectorDotProduct.isSupported();
+		} catch (LinkageError error) {
+			return false;
+		}
+	}
+
+	/**
+	 * Computes the dot product of the two vectors of the given length that start at
+	 * the specified offsets in {@code vectors}.
+	 */
+	static float of(float[] vectors, int offset1, int offset2, int length) {
+		return VECTORIZED
+				? VectorDotProduct.of(vectors, offset1, offset2, length)
+				: ScalarDotProduct.of(vectors, offset1, offset2, length);
+	}
+
+}
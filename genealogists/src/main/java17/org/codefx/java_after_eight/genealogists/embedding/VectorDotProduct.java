@@ -0,0 +1,42 @@
+package org.codefx.java_after_eight.genealogists.embedding;
+
+import jdk.incubator.vector.FloatVector;
+import jdk.incubator.vector.VectorOperators;
+import jdk.incubator.vector.VectorSpecies;
+
+/**
+ * Computes dot products with explicit SIMD instructions. Lanes accumulate independently and are only added up
+ * at the end, so results can differ from {@link ScalarDotProduct} in the last bits (like the scalar version's
+ * four accumulators differ from a simple loop).
+ */
+final class VectorDotProduct {
+
+	private static final VectorSpecies<Float> FLOATS = FloatVector.SPECIES_PREFERRED;
+
+	private VectorDotProduct() {
+		// private constructor to prevent accidental instantiation of utility class
+	}
+
+	/**
+	 * @return whether vectors have more than one lane (otherwise, the scalar loop is at least as fast)
+	 */
+	static boolean isSupported() {
+		return FLOATS.length() > 1;
+	}
+
+	static float of(float[] vectors, int offset1, int offset2, int length) {
+		FloatVector sums = FloatVector.zero(FLOATS);
+		int i = 0;
+		int upperBound = FLOATS.loopBound(length);
+		for (; i < upperBound; i += FLOATS.length()) {
+			FloatVector vector1 = FloatVector.fromArray(FLOATS, vectors, offset1 + i);
+			FloatVector vector2 = FloatVector.fromArray(FLOATS, vectors, offset2 + i);
+			sums = vector1.fma(vector2, sums);
+		}
+		float sum = sums.reduceLanes(VectorOperators.ADD);
+		for (; i < length; i++)
+			sum += vectors[offset1 + i] * vectors[offset2 + i];
+		return sum;
+	}
+
+}
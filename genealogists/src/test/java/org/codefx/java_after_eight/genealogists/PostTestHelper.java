@@ -0,0 +1,31 @@
+package org.codefx.java_after_eight.genealogists;
+
+import org.codefx.java_after_eight.post.Article;
+import org.codefx.java_after_eight.post.Description;
+import org.codefx.java_after_eight.post.Post;
+import org.codefx.java_after_eight.post.Slug;
+import org.codefx.java_after_eight.post.Tag;
+import org.codefx.java_after_eight.post.Title;
+
+import java.time.LocalDate;
+import java.util.Optional;
+import java.util.stream.Stream;
+
+public class PostTestHelper {
+
+	public static Post createWithSlug(String slug) {
+		return create(slug, LocalDate.of(2020, 1, 1));
+	}
+
+	public static Post create(String slug, LocalDate date, String... content) {
+		return new Article(
+				new Title("Title"),
+				Tag.from("[Tag]"),
+				date,
+				new Description("description"),
+				Slug.of(slug),
+				Optional.empty(),
+				() -> Stream.of(content));
+	}
+
+}
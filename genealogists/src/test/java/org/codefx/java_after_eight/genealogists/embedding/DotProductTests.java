@@ -0,0 +1,77 @@
+package org.codefx.java_after_eight.genealogists.embedding;
+
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.MethodSource;
+
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.stream.Stream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.within;
+
+class DotProductTests {
+
+	interface Variant {
+
+		float of(float[] vectors, int offset1, int offset2, int length);
+
+	}
+
+	/**
+	 * The Java 8 variant and, if the Java 17 classes and the Vector API are available (as they are in the
+	 * Maven build), the vectorized variant from {@code src/main/java17}.
+	 */
+	static Stream<Variant> variants() {
+		List<Variant> variants = new ArrayList<>();
+		variants.add(ScalarDotProduct::of);
+		try {
+			Method of = Class
+					.forName("org.codefx.java_after_eight.genealogists.embedding.VectorDotProduct")
+					.getDeclaredMethod("of", float[].class, int.class, int.class, int.class);
+			variants.add((vectors, offset1, offset2, length) -> invoke(of, vectors, offset1, offset2, length));
+		} catch (ReflectiveOperationException | LinkageError ex) {
+			// the test runs outside of the Maven build, so only the Java 8 variant can be tested
+		}
+		return variants.stream();
+	}
+
+	private static float invoke(Method of, float[] vectors, int offset1, int offset2, int length) {
+		try {
+			return (float) of.invoke(null, vectors, offset1, offset2, length);
+		} catch (IllegalAccessException | InvocationTargetException ex) {
+			throw new IllegalStateException(ex);
+		}
+	}
+
+	@ParameterizedTest
+	@MethodSource("variants")
+	void emptyVectors_zero(Variant dotProduct) {
+		assertThat(dotProduct.of(new float[] { 1, 2 }, 0, 1, 0)).isZero();
+	}
+
+	@ParameterizedTest
+	@MethodSource("variants")
+	void randomVectors_sameAsSimpleLoop(Variant dotProduct) {
+		Random random = new Random(0);
+		// cover lengths below, at, and above the vector sizes with all possible remainders and unaligned offsets
+		for (int length = 1; length < 70; length++)
+			for (int offset = 0; offset < 3; offset++) {
+				float[] vectors = new float[offset + 2 * length];
+				for (int i = 0; i < vectors.length; i++)
+					vectors[i] = (float) random.nextGaussian();
+
+				float expected = 0;
+				for (int i = 0; i < length; i++)
+					expected += vectors[offset + i] * vectors[offset + length + i];
+
+				// the summation order differs, so the results only match up to rounding errors
+				assertThat(dotProduct.of(vectors, offset, offset + length, length))
+						.isCloseTo(expected, within(1e-4f * length));
+			}
+	}
+
+}
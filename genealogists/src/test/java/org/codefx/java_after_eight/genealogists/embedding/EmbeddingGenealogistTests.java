@@ -0,0 +1,90 @@
+package org.codefx.java_after_eight.genealogists.embedding;
+
+import org.codefx.java_after_eight.genealogists.PostTestHelper;
+import org.codefx.java_after_eight.post.Post;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Arrays;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class EmbeddingGenealogistTests {
+
+	// `a` is most similar to `b` (0.8), `b` to `a`, `c` to `b` (0.6), and `d` to `c` (0.0);
+	// `e` has no embedding
+	private final Post a = PostTestHelper.createWithSlug("embedding-a");
+	private final Post b = PostTestHelper.createWithSlug("embedding-b");
+	private final Post c = PostTestHelper.createWithSlug("embedding-c");
+	private final Post d = PostTestHelper.createWithSlug("embedding-d");
+	private final Post e = PostTestHelper.createWithSlug("embedding-e");
+
+	private EmbeddingGenealogist genealogist;
+
+	@BeforeEach
+	void createGenealogist(@TempDir Path folder) throws IOException {
+		Path file = folder.resolve("embeddings.bin");
+		try (OutputStream fileOut = Files.newOutputStream(file);
+				DataOutputStream out = new DataOutputStream(fileOut)) {
+			String[] slugs = { "embedding-a", "embedding-b", "embedding-c", "embedding-d" };
+			// the vectors don't need to be normalized
+			float[] vectors = { 2, 0, 0.8f, 0.6f, 0, 3, -1, 0 };
+			out.writeInt(slugs.length);
+			out.writeInt(2);
+			for (String slug : slugs) {
+				byte[] bytes = slug.getBytes(StandardCharsets.UTF_8);
+				out.writeShort(bytes.length);
+				out.write(bytes);
+			}
+			for (float value : vectors)
+				out.writeFloat(value);
+		}
+		genealogist = EmbeddingGenealogist.create(Arrays.asList(e, d, c, b, a), Embeddings.map(file), 1);
+	}
+
+	@Test
+	void candidates_nearestNeighbors() {
+		assertThat(genealogist.candidates(a)).containsExactly(b);
+		assertThat(genealogist.candidates(b)).containsExactly(a);
+		assertThat(genealogist.candidates(c)).containsExactly(b);
+		assertThat(genealogist.candidates(d)).containsExactly(c);
+	}
+
+	@Test
+	void candidate_scoreIsSimilarity() {
+		assertThat(genealogist.infer(a, b).score()).isEqualTo(80);
+		assertThat(genealogist.infer(c, b).score()).isEqualTo(60);
+		assertThat(genealogist.infer(d, c).score()).isZero();
+	}
+
+	@Test
+	void noCandidate_zero() {
+		// `b` and `c` are similar, but `c` isn't among `b`'s nearest neighbors
+		assertThat(genealogist.infer(b, c).score()).isZero();
+		assertThat(genealogist.infer(a, d).score()).isZero();
+	}
+
+	@Test
+	void noEmbedding_noCandidatesAndZero() {
+		assertThat(genealogist.candidates(e)).isEmpty();
+		assertThat(genealogist.infer(e, a).score()).isZero();
+		assertThat(genealogist.infer(a, e).score()).isZero();
+	}
+
+	@Test
+	void unknownPost_noCandidatesAndZero() {
+		Post unknown = PostTestHelper.createWithSlug("embedding-unknown");
+
+		assertThat(genealogist.candidates(unknown)).isEmpty();
+		assertThat(genealogist.infer(unknown, a).score()).isZero();
+		assertThat(genealogist.infer(a, unknown).score()).isZero();
+	}
+
+}
@@ -0,0 +1,106 @@
+package org.codefx.java_after_eight.genealogists.embedding;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.Random;
+import java.util.stream.IntStream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class HnswIndexTests {
+
+	private static final int SIZE = 500;
+	private static final int DIMENSION = 16;
+	private static final int NEIGHBORS = 10;
+
+	private final float[] vectors = randomUnitVectors(SIZE, DIMENSION, 42);
+	private final int[] allNodes = IntStream.range(0, SIZE).toArray();
+
+	private static float[] randomUnitVectors(int size, int dimension, long seed) {
+		Random random = new Random(seed);
+		float[] vectors = new float[size * dimension];
+		for (int node = 0; node < size; node++) {
+			double length = 0;
+			for (int i = 0; i < dimension; i++) {
+				float value = (float) random.nextGaussian();
+				vectors[node * dimension + i] = value;
+				length += value * value;
+			}
+			for (int i = 0; i < dimension; i++)
+				vectors[node * dimension + i] /= (float) Math.sqrt(length);
+		}
+		return vectors;
+	}
+
+	@Test
+	void emptyIndex_noNeighbors() {
+		HnswIndex index = HnswIndex.build(vectors, DIMENSION, new int[0], 8, 50, 0);
+
+		assertThat(index.nearestNeighbors(0, NEIGHBORS, 50)).isEmpty();
+	}
+
+	@Test
+	void nearestNeighbors_excludeNodeAndSortedBySimilarity() {
+		HnswIndex index = HnswIndex.build(vectors, DIMENSION, allNodes, 8, 50, 0);
+
+		int[] neighbors = index.nearestNeighbors(7, NEIGHBORS, 50);
+
+		assertThat(neighbors).hasSize(NEIGHBORS).doesNotContain(7);
+		for (int i = 1; i < neighbors.length; i++)
+			assertThat(index.similarity(7, neighbors[i - 1])).isGreaterThanOrEqualTo(index.similarity(7, neighbors[i]));
+	}
+
+	@Test
+	void someNodesInserted_onlyTheyAreNeighbors() {
+		int[] evenNodes = IntStream.range(0, SIZE).filter(node -> node % 2 == 0).toArray();
+		HnswIndex index = HnswIndex.build(vectors, DIMENSION, evenNodes, 8, 50, 0);
+
+		// nodes that aren't part of the index can still be queried
+		int[] neighbors = index.nearestNeighbors(1, NEIGHBORS, 50);
+
+		assertThat(neighbors).hasSize(NEIGHBORS);
+		assertThat(Arrays.stream(neighbors)).allMatch(node -> node % 2 == 0);
+	}
+
+	@Test
+	void sameSeed_sameNeighbors() {
+		HnswIndex index = HnswIndex.build(vectors, DIMENSION, allNodes, 8, 50, 1234);
+		HnswIndex otherIndex = HnswIndex.build(vectors, DIMENSION, allNodes, 8, 50, 1234);
+
+		for (int node = 0; node < SIZE; node += 25)
+			assertThat(index.nearestNeighbors(node, NEIGHBORS, 50))
+					.containsExactly(otherIndex.nearestNeighbors(node, NEIGHBORS, 50));
+	}
+
+	@Test
+	void nearestNeighbors_highRecallComparedToExactSearch() {
+		HnswIndex index = HnswIndex.build(vectors, DIMENSION, allNodes, 8, 100, 0);
+
+		int found = 0;
+		for (int node = 0; node < SIZE; node++) {
+			int[] approximate = index.nearestNeighbors(node, NEIGHBORS, 50);
+			int[] exact = exactNearestNeighbors(index, node);
+			found += (int) Arrays.stream(approximate).filter(neighbor -> contains(exact, neighbor)).count();
+		}
+		double recall = found / (double) (SIZE * NEIGHBORS);
+
+		assertThat(recall).isGreaterThanOrEqualTo(0.95);
+	}
+
+	private int[] exactNearestNeighbors(HnswIndex index, int node) {
+		return IntStream.range(0, SIZE)
+				.filter(other -> other != node)
+				.boxed()
+				.sorted(Comparator.comparingDouble(other -> -index.similarity(node, other)))
+				.limit(NEIGHBORS)
+				.mapToInt(Integer::intValue)
+				.toArray();
+	}
+
+	private static boolean contains(int[] nodes, int node) {
+		return Arrays.stream(nodes).anyMatch(candidate -> candidate == node);
+	}
+
+}
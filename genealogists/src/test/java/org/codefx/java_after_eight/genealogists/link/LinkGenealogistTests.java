@@ -0,0 +1,57 @@
+package org.codefx.java_after_eight.genealogists.link;
+
+import org.codefx.java_after_eight.genealogists.PostTestHelper;
+import org.codefx.java_after_eight.post.Post;
+import org.junit.jupiter.api.Test;
+
+import java.time.LocalDate;
+import java.util.Arrays;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class LinkGenealogistTests {
+
+	private static final LocalDate DATE = LocalDate.of(2020, 1, 1);
+
+	// `a` and `b` both cite `c` and `d`, only `a` cites `e`, and nobody cites `f`
+	private final Post a = PostTestHelper.create("genealogist-a", DATE,
+			"[c](/genealogist-c) [d](/genealogist-d) [e](/genealogist-e)");
+	private final Post b = PostTestHelper.create("genealogist-b", DATE, "[c](/genealogist-c) [d](/genealogist-d)");
+	private final Post c = PostTestHelper.createWithSlug("genealogist-c");
+	private final Post d = PostTestHelper.createWithSlug("genealogist-d");
+	private final Post e = PostTestHelper.createWithSlug("genealogist-e");
+	private final Post f = PostTestHelper.createWithSlug("genealogist-f");
+
+	private final LinkGenealogist genealogist = new LinkGenealogist(LinkGraph.from(Arrays.asList(a, b, c, d, e, f)));
+
+	@Test
+	void directLink_fullScoreInBothDirections() {
+		assertThat(genealogist.infer(a, c).score()).isEqualTo(100);
+		assertThat(genealogist.infer(c, a).score()).isEqualTo(100);
+	}
+
+	@Test
+	void alwaysCitedTogether_maximumCoCitationScore() {
+		// 2 shared citations / sqrt(2 * 2) citations = 1
+		assertThat(genealogist.infer(c, d).score()).isEqualTo(80);
+		assertThat(genealogist.infer(d, c).score()).isEqualTo(80);
+	}
+
+	@Test
+	void sometimesCitedTogether_coCitationScoreRelativeToCitations() {
+		// 1 shared citation / sqrt(2 * 1) citations = 0.707...
+		assertThat(genealogist.infer(c, e).score()).isEqualTo(57);
+	}
+
+	@Test
+	void neitherLinkedNorCitedTogether_zero() {
+		assertThat(genealogist.infer(a, b).score()).isZero();
+		assertThat(genealogist.infer(c, f).score()).isZero();
+	}
+
+	@Test
+	void unknownPost_zero() {
+		assertThat(genealogist.infer(c, PostTestHelper.createWithSlug("genealogist-unknown")).score()).isZero();
+	}
+
+}
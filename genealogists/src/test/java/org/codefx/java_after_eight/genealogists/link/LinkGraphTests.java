@@ -0,0 +1,72 @@
+package org.codefx.java_after_eight.genealogists.link;
+
+import org.codefx.java_after_eight.genealogists.PostTestHelper;
+import org.codefx.java_after_eight.post.Post;
+import org.junit.jupiter.api.Test;
+
+import java.time.LocalDate;
+import java.util.Arrays;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class LinkGraphTests {
+
+	private static final LocalDate DATE = LocalDate.of(2020, 1, 1);
+
+	@Test
+	void linksToOwnPosts_linked() {
+		Post a = PostTestHelper.create("link-a", DATE,
+				"See [b](https://nipafx.dev/link-b/) and [c](/link-c#section), ",
+				"as well as [b again](https://blog.codefx.org/link-b).");
+		Post b = PostTestHelper.createWithSlug("link-b");
+		Post c = PostTestHelper.createWithSlug("link-c");
+
+		LinkGraph graph = LinkGraph.from(Arrays.asList(a, b, c));
+
+		assertThat(graph.links(graph.idOf(a), graph.idOf(b))).isTrue();
+		assertThat(graph.links(graph.idOf(a), graph.idOf(c))).isTrue();
+		assertThat(graph.links(graph.idOf(b), graph.idOf(a))).isFalse();
+		// the duplicate link is counted once
+		assertThat(graph.inDegree(graph.idOf(b))).isEqualTo(1);
+	}
+
+	@Test
+	void linksToOtherTargets_ignored() {
+		Post a = PostTestHelper.create("other-a", DATE,
+				"[external](https://example.com/other-b) [mail](mailto:other-b) [nested](/tags/other-b) "
+						+ "[unknown](/other-x) [self](/other-a)");
+		Post b = PostTestHelper.createWithSlug("other-b");
+
+		LinkGraph graph = LinkGraph.from(Arrays.asList(a, b));
+
+		assertThat(graph.links(graph.idOf(a), graph.idOf(b))).isFalse();
+		assertThat(graph.links(graph.idOf(a), graph.idOf(a))).isFalse();
+		assertThat(graph.inDegree(graph.idOf(a))).isZero();
+		assertThat(graph.inDegree(graph.idOf(b))).isZero();
+	}
+
+	@Test
+	void postsCitedTogether_coCitationsCounted() {
+		Post a = PostTestHelper.create("cited-a", DATE, "[c](/cited-c) [d](/cited-d) [e](/cited-e)");
+		Post b = PostTestHelper.create("cited-b", DATE, "[c](/cited-c) [d](/cited-d)");
+		Post c = PostTestHelper.createWithSlug("cited-c");
+		Post d = PostTestHelper.createWithSlug("cited-d");
+		Post e = PostTestHelper.createWithSlug("cited-e");
+
+		LinkGraph graph = LinkGraph.from(Arrays.asList(a, b, c, d, e));
+
+		assertThat(graph.inDegree(graph.idOf(c))).isEqualTo(2);
+		assertThat(graph.coCitations(graph.idOf(c), graph.idOf(d))).isEqualTo(2);
+		assertThat(graph.coCitations(graph.idOf(d), graph.idOf(c))).isEqualTo(2);
+		assertThat(graph.coCitations(graph.idOf(c), graph.idOf(e))).isEqualTo(1);
+		assertThat(graph.coCitations(graph.idOf(a), graph.idOf(b))).isZero();
+	}
+
+	@Test
+	void unknownPost_noId() {
+		LinkGraph graph = LinkGraph.from(Arrays.asList(PostTestHelper.createWithSlug("known")));
+
+		assertThat(graph.idOf(PostTestHelper.createWithSlug("unknown"))).isEqualTo(-1);
+	}
+
+}
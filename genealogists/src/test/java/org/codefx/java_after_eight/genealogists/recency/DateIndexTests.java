@@ -0,0 +1,56 @@
+package org.codefx.java_after_eight.genealogists.recency;
+
+import org.codefx.java_after_eight.genealogists.PostTestHelper;
+import org.codefx.java_after_eight.post.Post;
+import org.junit.jupiter.api.Test;
+
+import java.time.LocalDate;
+import java.util.Arrays;
+import java.util.Collections;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class DateIndexTests {
+
+	private final Post january = PostTestHelper.create("index-january", LocalDate.of(2020, 1, 15));
+	private final Post february = PostTestHelper.create("index-february", LocalDate.of(2020, 2, 15));
+	private final Post otherFebruary = PostTestHelper.create("index-other-february", LocalDate.of(2020, 2, 15));
+	private final Post march = PostTestHelper.create("index-march", LocalDate.of(2020, 3, 15));
+
+	private final DateIndex index = DateIndex.from(Arrays.asList(march, february, january, otherFebruary));
+
+	private static int day(int month, int dayOfMonth) {
+		return (int) LocalDate.of(2020, month, dayOfMonth).toEpochDay();
+	}
+
+	@Test
+	void intervalAroundSomePosts_thosePostsSortedByDate() {
+		assertThat(index.postsBetween(day(1, 1), day(2, 28)))
+				.containsExactlyInAnyOrder(january, february, otherFebruary)
+				.endsWith(otherFebruary)
+				.startsWith(january);
+	}
+
+	@Test
+	void intervalBoundsOnPostDates_boundsInclusive() {
+		assertThat(index.postsBetween(day(1, 15), day(3, 15))).containsExactlyInAnyOrder(january, february, otherFebruary, march);
+		assertThat(index.postsBetween(day(2, 15), day(2, 15))).containsExactlyInAnyOrder(february, otherFebruary);
+	}
+
+	@Test
+	void intervalWithoutPosts_noPosts() {
+		assertThat(index.postsBetween(day(1, 16), day(2, 14))).isEmpty();
+		assertThat(index.postsBetween(day(3, 16), day(12, 31))).isEmpty();
+	}
+
+	@Test
+	void emptyInterval_noPosts() {
+		assertThat(index.postsBetween(day(3, 15), day(1, 15))).isEmpty();
+	}
+
+	@Test
+	void noPosts_noPosts() {
+		assertThat(DateIndex.from(Collections.emptyList()).postsBetween(day(1, 1), day(12, 31))).isEmpty();
+	}
+
+}
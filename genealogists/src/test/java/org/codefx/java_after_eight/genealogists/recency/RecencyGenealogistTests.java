@@ -0,0 +1,81 @@
+package org.codefx.java_after_eight.genealogists.recency;
+
+import org.codefx.java_after_eight.genealogist.Genealogist;
+import org.codefx.java_after_eight.genealogists.PostTestHelper;
+import org.codefx.java_after_eight.post.Post;
+import org.junit.jupiter.api.Test;
+
+import java.time.LocalDate;
+import java.util.Arrays;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class RecencyGenealogistTests {
+
+	private static final LocalDate DATE = LocalDate.of(2020, 6, 1);
+
+	private final Post post = PostTestHelper.create("recency-post", DATE);
+	private final Post sameDay = PostTestHelper.create("recency-same-day", DATE);
+	private final Post tenDaysLater = PostTestHelper.create("recency-ten-days-later", DATE.plusDays(10));
+	private final Post twentyDaysEarlier = PostTestHelper.create("recency-twenty-days-earlier", DATE.minusDays(20));
+	private final Post thirtyOneDaysLater = PostTestHelper.create("recency-thirty-one-days-later", DATE.plusDays(31));
+	private final List<Post> posts = Arrays.asList(post, sameDay, tenDaysLater, twentyDaysEarlier, thirtyOneDaysLater);
+
+	// window of 30 days, half-life of 10 days
+	private final RecencyGenealogist genealogist = new RecencyGenealogist(DateIndex.from(posts), 30, 10);
+
+	@Test
+	void sameDay_fullScore() {
+		assertThat(genealogist.infer(post, sameDay).score()).isEqualTo(100);
+	}
+
+	@Test
+	void daysApart_scoreHalvesWithEveryHalfLife() {
+		assertThat(genealogist.infer(post, tenDaysLater).score()).isEqualTo(50);
+		assertThat(genealogist.infer(post, twentyDaysEarlier).score()).isEqualTo(25);
+		assertThat(genealogist.infer(twentyDaysEarlier, post).score()).isEqualTo(25);
+	}
+
+	@Test
+	void outsideWindow_zero() {
+		assertThat(genealogist.infer(post, thirtyOneDaysLater).score()).isZero();
+	}
+
+	@Test
+	void candidates_postsWithinWindow() {
+		assertThat(genealogist.candidates(post)).containsExactlyInAnyOrder(post, sameDay, tenDaysLater, twentyDaysEarlier);
+		assertThat(genealogist.candidates(thirtyOneDaysLater)).containsExactlyInAnyOrder(thirtyOneDaysLater, tenDaysLater);
+	}
+
+	@Test
+	void candidates_includeAllPostsWithScoreGreaterZero() {
+		for (Post post1 : posts)
+			for (Post post2 : posts)
+				if (genealogist.infer(post1, post2).score() > 0)
+					assertThat(genealogist.candidates(post1)).contains(post2);
+	}
+
+	@Test
+	void invalidWindowOrHalfLife_exception() {
+		assertThatThrownBy(() -> new RecencyGenealogist(DateIndex.from(posts), -1, 10))
+				.isInstanceOf(IllegalArgumentException.class);
+		assertThatThrownBy(() -> new RecencyGenealogist(DateIndex.from(posts), 30, 0))
+				.isInstanceOf(IllegalArgumentException.class);
+	}
+
+	@Test
+	void fractionalHalfLifeProperty_used() {
+		System.setProperty("genealogists.recency.half-life", "2.5");
+		try {
+			Genealogist genealogist = new RecencyGenealogistService().procure(posts);
+
+			// 10 days are 4 half-lives of 2.5 days
+			assertThat(genealogist.infer(post, tenDaysLater).score()).isEqualTo(6);
+		} finally {
+			System.clearProperty("genealogists.recency.half-life");
+		}
+	}
+
+}
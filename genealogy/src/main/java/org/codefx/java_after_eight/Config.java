@@ -1,23 +1,89 @@
 package org.codefx.java_after_eight;
 
+import org.codefx.java_after_eight.genealogy.GenealogistBudget;
+import org.codefx.java_after_eight.post.Slug;
+
 import java.io.IOException;
 import java.io.UncheckedIOException;
 import java.nio.file.Files;
 import java.nio.file.Path;
 import java.nio.file.Paths;
+import java.time.Duration;
+import java.time.temporal.ChronoUnit;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
 import java.util.Optional;
+import java.util.Set;
 import java.util.concurrent.CompletableFuture;
+import java.util.stream.Stream;
+
+import static java.util.stream.Collectors.joining;
+import static java.util.stream.Collectors.toList;
+import static java.util.stream.Collectors.toMap;
 
 public class Config {
 
 	private static final String CONFIG_FILE_NAME = "recommendations.config";
+	private static final String OPTION_PREFIX = "--";
+	private static final String STANDARD_IN = "-";
+	// all options that are read below, so misspelled ones (e.g. `--slug=...`) aren't silently ignored
+	private static final Set<String> OPTIONS = Collections.unmodifiableSet(new HashSet<>(Arrays.asList(
+			"page-rank", "weights", "score-matrices", "rerank", "tune", "tune-candidates",
+			"memory-budget", "spill-folder", "rows", "merge",
+			"genealogist-host", "genealogist-hosts", "genealogist-host-timeout",
+			"genealogist-call-budget", "genealogist-budget", "deadline", "slugs", "draft", "priority",
+			"metrics", "metrics-json", "benchmark", "warmup", "iterations", "baseline")));
 
 	private final Path articleFolder;
 	private final Path talkFolder;
 	private final Path videoFolder;
 	private final Optional<Path> outputFile;
+	private final boolean pageRank;
+	private final Optional<Path> weightsFile;
+	private final Optional<Path> scoreMatrixFolder;
+	private final boolean reRank;
+	private final Optional<Path> groundTruthFile;
+	private final int tuningCandidates;
+	private final Optional<Long> memoryBudget;
+	private final Path spillFolder;
+	private final Optional<String> rows;
+	private final List<Path> shardFiles;
+	private final Optional<String> genealogistHostClassPath;
+	private final int genealogistHosts;
+	private final Duration genealogistHostTimeout;
+	private final GenealogistBudget genealogistBudget;
+	private final Optional<Duration> deadline;
+	private final Optional<Path> priorityFile;
+	private final Optional<List<Slug>> slugs;
+	private final Optional<String> draft;
+	private final Optional<Path> metricsFile;
+	private final Optional<Path> metricsReportFile;
+	private final boolean benchmark;
+	private final int warmupIterations;
+	private final int measuredIterations;
+	private final Optional<Path> baselineFile;
+
+	private Config(String[] args) {
+		// options look like `--name` or `--name=value`, everything else is a positional argument
+		String[] raw = Stream.of(args)
+				.filter(arg -> !arg.startsWith(OPTION_PREFIX))
+				.toArray(String[]::new);
+		Map<String, String> options = Stream.of(args)
+				.filter(arg -> arg.startsWith(OPTION_PREFIX))
+				.map(arg -> arg.substring(OPTION_PREFIX.length()).split("=", 2))
+				.collect(toMap(option -> option[0], option -> option.length == 2 ? option[1] : "", (first, second) -> second));
+
+		String unknownOptions = options.keySet().stream()
+				.filter(option -> !OPTIONS.contains(option))
+				.sorted()
+				.map(option -> OPTION_PREFIX + option)
+				.collect(joining(", "));
+		if (!unknownOptions.isEmpty())
+			throw new IllegalArgumentException("Unknown option(s): " + unknownOptions);
 
-	private Config(String[] raw) {
 		if (raw.length == 0)
 			throw new IllegalArgumentException("No article path defined.");
 
@@ -35,6 +101,109 @@ public class Config {
 			if (notWritable)
 				throw new IllegalArgumentException("Output path is not writable: " + this.outputFile.get());
 		});
+
+		this.pageRank = options.containsKey("page-rank");
+		this.weightsFile = Optional.ofNullable(options.get("weights")).map(Paths::get);
+		this.weightsFile.ifPresent(file -> {
+			if (!Files.isReadable(file))
+				throw new IllegalArgumentException("Weights file is not readable: " + file);
+		});
+		this.scoreMatrixFolder = Optional.ofNullable(options.get("score-matrices")).map(Paths::get);
+		this.reRank = options.containsKey("rerank");
+		if (reRank && !scoreMatrixFolder.isPresent())
+			throw new IllegalArgumentException("Re-ranking requires a score matrix folder (--score-matrices=...).");
+		this.groundTruthFile = Optional.ofNullable(options.get("tune")).map(Paths::get);
+		if (groundTruthFile.isPresent() && !scoreMatrixFolder.isPresent())
+			throw new IllegalArgumentException("Tuning requires a score matrix folder (--score-matrices=...).");
+		this.tuningCandidates = Integer.parseInt(options.getOrDefault("tune-candidates", "1000"));
+		this.memoryBudget = Optional.ofNullable(options.get("memory-budget")).map(Config::parseBytes);
+		if (memoryBudget.isPresent() && pageRank)
+			throw new IllegalArgumentException("Page rank needs all relations in memory and can't be used with a memory budget.");
+		this.spillFolder = Paths.get(options.getOrDefault("spill-folder", System.getProperty("java.io.tmpdir")));
+		if (memoryBudget.isPresent() && !Files.isDirectory(spillFolder))
+			throw new IllegalArgumentException("Spill folder is no directory: " + spillFolder);
+		this.rows = Optional.ofNullable(options.get("rows"));
+		if (rows.isPresent() && (pageRank || scoreMatrixFolder.isPresent()))
+			throw new IllegalArgumentException("Computing rows can't be combined with page rank or score matrices.");
+		this.shardFiles = Optional.ofNullable(options.get("merge"))
+				.map(files -> Stream.of(files.split(",")).map(Paths::get).collect(toList()))
+				.orElse(Collections.emptyList());
+		shardFiles.forEach(file -> {
+			if (!Files.isReadable(file))
+				throw new IllegalArgumentException("Shard file is not readable: " + file);
+		});
+		this.genealogistHostClassPath = Optional.ofNullable(options.get("genealogist-host"));
+		this.genealogistHosts = Integer.parseInt(options.getOrDefault("genealogist-hosts", "2"));
+		if (genealogistHosts < 1)
+			throw new IllegalArgumentException("Number of genealogist hosts must be greater zero: " + genealogistHosts);
+		this.genealogistHostTimeout = parseDuration("genealogist-host-timeout", options.getOrDefault("genealogist-host-timeout", "60s"));
+		if (genealogistHostTimeout.isNegative() || genealogistHostTimeout.isZero())
+			throw new IllegalArgumentException("Genealogist host timeout must be greater zero.");
+		this.genealogistBudget = new GenealogistBudget(
+				Optional.ofNullable(options.get("genealogist-call-budget"))
+						.map(budget -> parseDuration("genealogist-call-budget", budget)),
+				Optional.ofNullable(options.get("genealogist-budget"))
+						.map(budget -> parseDuration("genealogist-budget", budget)));
+		this.deadline = Optional.ofNullable(options.get("deadline")).map(duration -> parseDuration("deadline", duration));
+		boolean needsAllRelations = pageRank || memoryBudget.isPresent() || scoreMatrixFolder.isPresent() || rows.isPresent();
+		if (deadline.isPresent() && needsAllRelations)
+			throw new IllegalArgumentException(
+					"A deadline can't be combined with page rank, a memory budget, score matrices, or rows.");
+		this.slugs = Optional.ofNullable(options.get("slugs"))
+				.map(slugs -> Stream.of(slugs.split(","))
+						.map(String::trim)
+						.filter(slug -> !slug.isEmpty())
+						.map(Slug::of)
+						.collect(toList()));
+		if (slugs.isPresent() && (needsAllRelations || deadline.isPresent()))
+			throw new IllegalArgumentException(
+					"Slugs can't be combined with page rank, a memory budget, score matrices, rows, or a deadline.");
+		// with slugs, the shards are updated with their recommendations
+		if (slugs.isPresent())
+			shardFiles.forEach(file -> {
+				if (!Files.isWritable(file))
+					throw new IllegalArgumentException("Shard file is not writable: " + file);
+			});
+		// recommendations for some posts would replace those for all posts
+		if (slugs.isPresent() && shardFiles.isEmpty() && this.outputFile.map(Files::exists).orElse(false))
+			throw new IllegalArgumentException("Slugs would overwrite the existing output file "
+					+ this.outputFile.get() + " - update the shards of all posts with --merge or choose another output file.");
+		this.draft = Optional.ofNullable(options.get("draft"));
+		boolean selectsPosts = slugs.isPresent() || rows.isPresent() || deadline.isPresent();
+		if (draft.isPresent() && (selectsPosts || scoreMatrixFolder.isPresent() || pageRank))
+			throw new IllegalArgumentException(
+					"A draft can't be combined with slugs, rows, a deadline, score matrices, or page rank.");
+		// hosts only know the posts they loaded themselves, so they can't relate drafts
+		if (draft.isPresent() && genealogistHostClassPath.isPresent())
+			throw new IllegalArgumentException("A draft can't be combined with genealogist hosts.");
+		draft
+				.filter(file -> !file.equals(STANDARD_IN))
+				.map(Paths::get)
+				.ifPresent(file -> {
+					if (!Files.isReadable(file))
+						throw new IllegalArgumentException("Draft is not readable: " + file);
+				});
+		this.priorityFile = Optional.ofNullable(options.get("priority")).map(Paths::get);
+		priorityFile.ifPresent(file -> {
+			if (!deadline.isPresent())
+				throw new IllegalArgumentException("A priority list requires a deadline (--deadline=...).");
+			if (!Files.isReadable(file))
+				throw new IllegalArgumentException("Priority file is not readable: " + file);
+		});
+		this.metricsFile = Optional.ofNullable(options.get("metrics")).map(Paths::get);
+		this.metricsReportFile = Optional.ofNullable(options.get("metrics-json")).map(Paths::get);
+		this.benchmark = options.containsKey("benchmark");
+		if (benchmark && (draft.isPresent() || genealogistHostClassPath.isPresent()))
+			throw new IllegalArgumentException("A benchmark can't be combined with drafts or genealogist hosts.");
+		this.warmupIterations = Integer.parseInt(options.getOrDefault("warmup", "5"));
+		this.measuredIterations = Integer.parseInt(options.getOrDefault("iterations", "10"));
+		this.baselineFile = Optional.ofNullable(options.get("baseline")).map(Paths::get);
+		baselineFile.ifPresent(file -> {
+			if (!benchmark)
+				throw new IllegalArgumentException("A baseline requires a benchmark (--benchmark).");
+			if (!Files.isReadable(file))
+				throw new IllegalArgumentException("Baseline file is not readable: " + file);
+		});
 	}
 
 	private static Path readFolder(String raw) {
@@ -46,6 +215,38 @@ public class Config {
 		return folder;
 	}
 
+	private static long parseBytes(String raw) {
+		// accepts sizes like `512`, `64k`, `256m`, or `2g`
+		String size = raw.trim().toLowerCase();
+		if (size.isEmpty())
+			throw new IllegalArgumentException("Memory budget must not be empty.");
+		char unit = size.charAt(size.length() - 1);
+		int shift = unit == 'k' ? 10 : unit == 'm' ? 20 : unit == 'g' ? 30 : 0;
+		String number = shift == 0 ? size : size.substring(0, size.length() - 1);
+		try {
+			return Long.parseLong(number) << shift;
+		} catch (NumberFormatException ex) {
+			throw new IllegalArgumentException("Memory budget is no size: " + raw, ex);
+		}
+	}
+
+	private static Duration parseDuration(String option, String raw) {
+		// accepts durations like `500ms`, `30s`, `10m`, or `1h`
+		String duration = raw.trim().toLowerCase();
+		String[] units = { "ms", "s", "m", "h" };
+		ChronoUnit[] chronoUnits = { ChronoUnit.MILLIS, ChronoUnit.SECONDS, ChronoUnit.MINUTES, ChronoUnit.HOURS };
+		for (int unit = 0; unit < units.length; unit++)
+			if (duration.endsWith(units[unit])) {
+				String amount = duration.substring(0, duration.length() - units[unit].length());
+				try {
+					return Duration.of(Long.parseLong(amount), chronoUnits[unit]);
+				} catch (NumberFormatException ex) {
+					throw new IllegalArgumentException(OPTION_PREFIX + option + " is no duration: " + raw, ex);
+				}
+			}
+		throw new IllegalArgumentException(OPTION_PREFIX + option + " needs a unit (ms, s, m, or h): " + raw);
+	}
+
 	public Path articleFolder() {
 		return articleFolder;
 	}
@@ -62,6 +263,156 @@ public class Config {
 		return outputFile;
 	}
 
+	public boolean pageRank() {
+		return pageRank;
+	}
+
+	public Optional<Path> weightsFile() {
+		return weightsFile;
+	}
+
+	public Optional<Path> scoreMatrixFolder() {
+		return scoreMatrixFolder;
+	}
+
+	/**
+	 * @return whether to compute relations from stored score matrices instead of inferring them
+	 */
+	public boolean reRank() {
+		return reRank;
+	}
+
+	/**
+	 * @return the file with curated recommendations to tune weights against (if tuning is requested)
+	 */
+	public Optional<Path> groundTruthFile() {
+		return groundTruthFile;
+	}
+
+	public int tuningCandidates() {
+		return tuningCandidates;
+	}
+
+	/**
+	 * @return the number of bytes relations may occupy before they are spilled to disk (if out-of-core ranking is requested)
+	 */
+	public Optional<Long> memoryBudget() {
+		return memoryBudget;
+	}
+
+	public Path spillFolder() {
+		return spillFolder;
+	}
+
+	/**
+	 * @return the rows (in the form {@code from:to}) to compute a shard for (if sharding is requested)
+	 */
+	public Optional<String> rows() {
+		return rows;
+	}
+
+	/**
+	 * @return the shard files to merge (empty if merging isn't requested)
+	 */
+	public List<Path> shardFiles() {
+		return shardFiles;
+	}
+
+	/**
+	 * @return the class path from which to load genealogists into separate host processes (if requested)
+	 */
+	public Optional<String> genealogistHostClassPath() {
+		return genealogistHostClassPath;
+	}
+
+	public int genealogistHosts() {
+		return genealogistHosts;
+	}
+
+	/**
+	 * @return how long to wait for a genealogist host to answer a request before it is killed
+	 */
+	public Duration genealogistHostTimeout() {
+		return genealogistHostTimeout;
+	}
+
+	public GenealogistBudget genealogistBudget() {
+		return genealogistBudget;
+	}
+
+	/**
+	 * @return the wall-clock budget after which the remaining posts get approximate recommendations (if requested)
+	 */
+	public Optional<Duration> deadline() {
+		return deadline;
+	}
+
+	/**
+	 * @return the file with the slugs of the posts to recommend first (by default, newest posts go first)
+	 */
+	public Optional<Path> priorityFile() {
+		return priorityFile;
+	}
+
+	/**
+	 * @return the slugs of the only posts to compute recommendations for (if requested)
+	 */
+	public Optional<List<Slug>> slugs() {
+		return slugs;
+	}
+
+	/**
+	 * @return the draft file to recommend posts for (if requested)
+	 */
+	public Optional<Path> draftFile() {
+		return draft
+				.filter(file -> !file.equals(STANDARD_IN))
+				.map(Paths::get);
+	}
+
+	/**
+	 * @return whether to read the paths of drafts to recommend posts for from standard in (one per line)
+	 */
+	public boolean draftsFromStandardIn() {
+		return draft.map(STANDARD_IN::equals).orElse(false);
+	}
+
+	/**
+	 * @return the file to write metrics to in the Prometheus text format (if requested)
+	 */
+	public Optional<Path> metricsFile() {
+		return metricsFile;
+	}
+
+	/**
+	 * @return the file to write metrics to as a JSON run report (if requested)
+	 */
+	public Optional<Path> metricsReportFile() {
+		return metricsReportFile;
+	}
+
+	/**
+	 * @return whether to run the pipeline repeatedly and report its performance
+	 */
+	public boolean benchmark() {
+		return benchmark;
+	}
+
+	public int warmupIterations() {
+		return warmupIterations;
+	}
+
+	public int measuredIterations() {
+		return measuredIterations;
+	}
+
+	/**
+	 * @return the file with the limits the benchmark must not exceed (if gating is requested)
+	 */
+	public Optional<Path> baselineFile() {
+		return baselineFile;
+	}
+
 	public static CompletableFuture<Config> create(String[] args) {
 		CompletableFuture<String[]> rawConfig = args.length > 0
 				? CompletableFuture.completedFuture(args)
@@ -0,0 +1,51 @@
+package org.codefx.java_after_eight;
+
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+
+import static java.util.Objects.requireNonNull;
+
+/**
+ * A pool of canonical instances of a value type that wraps a string. Each instance gets a dense ID
+ * (in the order the instances were created), so per-instance data can be kept in arrays instead of maps.
+ *
+ * <p>Instances are never removed from the pool.
+ */
+public final class Interner<T> {
+
+	private final ConcurrentMap<String, T> instances = new ConcurrentHashMap<>();
+	private final Factory<T> factory;
+
+	public Interner(Factory<T> factory) {
+		this.factory = requireNonNull(factory);
+	}
+
+	/**
+	 * @param value the string the instance wraps
+	 * @return the canonical instance for the specified value, which is created if it doesn't exist yet
+	 */
+	public T intern(String value) {
+		requireNonNull(value);
+		T instance = instances.get(value);
+		return instance != null ? instance : create(value);
+	}
+
+	private synchronized T create(String value) {
+		// creation is synchronized, so IDs are handed out without gaps
+		return instances.computeIfAbsent(value, __ -> factory.create(value, instances.size()));
+	}
+
+	/**
+	 * @return the number of instances that were created so far, which is an upper bound for their IDs
+	 */
+	public int size() {
+		return instances.size();
+	}
+
+	public interface Factory<T> {
+
+		T create(String value, int id);
+
+	}
+
+}
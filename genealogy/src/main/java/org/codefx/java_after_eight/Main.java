@@ -1,23 +1,61 @@
 package org.codefx.java_after_eight;
 
+import org.codefx.java_after_eight.benchmark.Baseline;
+import org.codefx.java_after_eight.benchmark.Benchmark;
+import org.codefx.java_after_eight.benchmark.BenchmarkResult;
+import org.codefx.java_after_eight.events.Stage;
+import org.codefx.java_after_eight.events.Stages;
 import org.codefx.java_after_eight.genealogist.Genealogist;
 import org.codefx.java_after_eight.genealogist.GenealogistService;
 import org.codefx.java_after_eight.genealogy.Genealogy;
 import org.codefx.java_after_eight.genealogy.Relation;
+import org.codefx.java_after_eight.genealogy.ScoreMatrices;
 import org.codefx.java_after_eight.genealogy.Weights;
+import org.codefx.java_after_eight.host.RemoteGenealogists;
+import org.codefx.java_after_eight.metrics.MetricRegistry;
+import org.codefx.java_after_eight.metrics.Metrics;
+import org.codefx.java_after_eight.metrics.Timer;
 import org.codefx.java_after_eight.post.Post;
+import org.codefx.java_after_eight.post.PostIds;
+import org.codefx.java_after_eight.post.Slug;
 import org.codefx.java_after_eight.post.factories.ArticleFactory;
 import org.codefx.java_after_eight.post.factories.TalkFactory;
 import org.codefx.java_after_eight.post.factories.VideoFactory;
+import org.codefx.java_after_eight.recommendation.BaselineRecommender;
+import org.codefx.java_after_eight.recommendation.DeadlineRecommender;
+import org.codefx.java_after_eight.recommendation.DraftRecommender;
+import org.codefx.java_after_eight.recommendation.PersonalizedPageRank;
 import org.codefx.java_after_eight.recommendation.Recommendation;
 import org.codefx.java_after_eight.recommendation.Recommender;
+import org.codefx.java_after_eight.recommendation.Shard;
+import org.codefx.java_after_eight.recommendation.SpillingRecommender;
+import org.codefx.java_after_eight.tuning.Evaluation;
+import org.codefx.java_after_eight.tuning.GroundTruth;
+import org.codefx.java_after_eight.tuning.WeightTuner;
 
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
 import java.nio.file.Files;
 import java.nio.file.Path;
+import java.nio.file.Paths;
 import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.Collection;
+import java.util.Collections;
 import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Optional;
 import java.util.ServiceLoader;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.function.Function;
+import java.util.function.Supplier;
 import java.util.stream.Stream;
 
 import static java.util.stream.Collectors.joining;
@@ -26,54 +64,402 @@ import static org.codefx.java_after_eight.Utils.concat;
 
 public class Main {
 
+	private static final int RECOMMENDATIONS_PER_POST = 3;
+	private static final String JSON_FRAME = "[\n$RECOMMENDATIONS\n]";
+	private static final String JSON_TITLE_PREFIX = "\t\t\"title\": \"";
+
 	public static void main(String[] args) {
 		System.out.println(ProcessDetails.details());
 
 		Config config = Config.create(args).join();
-		Genealogy genealogy = createGenealogy(config.articleFolder(), config.talkFolder(), config.videoFolder());
-		Recommender recommender = new Recommender();
+		if (config.benchmark()) {
+			benchmark(config);
+			return;
+		}
+
+		MetricRegistry metrics = new MetricRegistry();
+		run(config, metrics).ifPresent(genealogy -> printReport(genealogy, metrics));
+		config.metricsFile().ifPresent(file -> Utils.uncheckedFilesWrite(file, metrics.toPrometheus()));
+		config.metricsReportFile().ifPresent(file -> Utils.uncheckedFilesWrite(file, metrics.toJson()));
+	}
+
+	private static void benchmark(Config config) {
+		Benchmark benchmark = new Benchmark(config.warmupIterations(), config.measuredIterations());
+		BenchmarkResult result = benchmark.run(metrics -> run(config, metrics));
+		// standard out may carry the recommendations, so the result goes to standard error
+		System.err.println(result);
+
+		if (config.baselineFile().isPresent()) {
+			Baseline baseline = Baseline.from(Utils.uncheckedFilesReadAllLines(config.baselineFile().get()));
+			List<String> violations = baseline.violations(result);
+			if (!violations.isEmpty()) {
+				System.err.println("Baseline exceeded:");
+				violations.forEach(violation -> System.err.println("\t" + violation));
+				System.exit(1);
+			}
+			System.err.println("Baseline met.");
+		}
+	}
+
+	/**
+	 * @return the genealogy if relations were inferred
+	 */
+	private static Optional<Genealogy> run(Config config, Metrics metrics) {
+		List<Post> posts = metrics.timer("phase", "phase", "load").time(() ->
+				loadPosts(config.articleFolder(), config.talkFolder(), config.videoFolder(), metrics));
+		if (config.groundTruthFile().isPresent()) {
+			tuneWeights(config, posts);
+			return Optional.empty();
+		}
+		// with slugs, their new recommendations are merged into the shards further below
+		if (!config.shardFiles().isEmpty() && !config.slugs().isPresent()) {
+			List<Shard> shards = readShards(config, posts);
+			write(config, metrics, () -> recommendationsToJson(Shard.merge(shards), false));
+			return Optional.empty();
+		}
+
+		Weights weights = config.weightsFile()
+				.map(Utils::uncheckedFilesReadAllLines)
+				.map(Weights::from)
+				.orElseGet(Weights::allEqual);
+		// re-ranking applies the weights to stored scores, so there's nothing to infer
+		Optional<Genealogy> genealogy = config.reRank()
+				? Optional.empty()
+				: Optional.of(metrics.timer("phase", "phase", "procure").time(() -> new Genealogy(
+						posts, getGenealogists(config, posts, metrics), weights, config.genealogistBudget(), metrics)));
+		if (config.draftFile().isPresent() || config.draftsFromStandardIn()) {
+			recommendForDrafts(config, new DraftRecommender(genealogy.get()), metrics);
+			return Optional.empty();
+		}
+		// relations are inferred while they're ranked, so the recommend phase includes inference and aggregation
+		Timer recommending = metrics.timer("phase", "phase", "recommend");
+		if (config.deadline().isPresent()) {
+			List<Recommendation> recommendations = recommending.time(() ->
+					recommendByDeadline(config, posts, genealogy.get()).collect(toList()));
+			write(config, metrics, () -> recommendationsToJson(recommendations.stream(), true));
+		} else if (config.slugs().isPresent()) {
+			List<Recommendation> recommendations = recommending.time(() ->
+					recommend(config, posts, genealogy.get().inferRelationsOf(config.slugs().get())).collect(toList()));
+			if (config.shardFiles().isEmpty())
+				write(config, metrics, () -> recommendationsToJson(recommendations.stream(), false));
+			else {
+				// when only some posts are recommended, they replace theirs in the shards, which are written back,
+				// so the next update starts from them
+				List<Shard> shards = Shard.update(config.shardFiles(), posts, recommendations);
+				write(config, metrics, () -> recommendationsToJson(Shard.merge(shards), false));
+			}
+		} else if (config.rows().isPresent()) {
+			List<Post> rows = Shard.rows(config.rows().get(), posts);
+			List<Recommendation> recommendations = recommending.time(() ->
+					recommend(config, posts, genealogy.get().inferRelations(rows)).collect(toList()));
+			write(config, metrics, () -> Shard.of(config.rows().get(), posts, recommendations.stream()).toString());
+		} else {
+			List<Recommendation> recommendations = recommending.time(() ->
+					recommend(config, posts, weights, genealogy).collect(toList()));
+			write(config, metrics, () -> recommendationsToJson(recommendations.stream(), false));
+		}
+		genealogy.ifPresent(gen -> recordRates(gen, recommending, metrics));
+		return genealogy;
+	}
+
+	private static List<Shard> readShards(Config config, List<Post> posts) {
+		return config.shardFiles().stream()
+				.map(file -> Shard.read(file, posts))
+				.collect(toList());
+	}
+
+	private static void printReport(Genealogy genealogy, MetricRegistry metrics) {
+		// standard out may carry the recommendations, so the report goes to standard error
+		System.err.println("Procurement:");
+		metrics.timers("procure", "service").forEach((service, timer) -> System.err.printf(
+				Locale.ROOT, "\t%s: %.3f ms%n", service, timer.nanos().sum() / 1_000_000.0));
+		System.err.println("Genealogists:");
+		genealogy.report().forEach(genealogist -> System.err.println("\t" + genealogist));
+	}
+
+	private static void recordRates(Genealogy genealogy, Timer recommending, Metrics metrics) {
+		long pairs = metrics.timer("infer").nanos().count();
+		long recommendingNanos = recommending.nanos().sum();
+		if (recommendingNanos > 0)
+			metrics.gauge("pairs_per_second").set(pairs * 1_000_000_000.0 / recommendingNanos);
+		genealogy.report().forEach(genealogist -> {
+			metrics.counter("genealogist_calls", "genealogist", genealogist.name()).add(genealogist.calls());
+			metrics.counter("genealogist_nanos", "genealogist", genealogist.name()).add(genealogist.totalNanos());
+			if (genealogist.calls() > 0)
+				metrics.gauge("genealogist_nanos_per_pair", "genealogist", genealogist.name())
+						.set((double) genealogist.totalNanos() / genealogist.calls());
+		});
+	}
 
-		Stream<Relation> relations = genealogy.inferRelations();
-		Stream<Recommendation> recommendations = recommender.recommend(relations, 3);
-		String recommendationsAsJson = recommendationsToJson(recommendations);
+	private static void write(Config config, Metrics metrics, Supplier<String> output) {
+		metrics.timer("phase", "phase", "output").time(() -> {
+			Stage stage = Stages.outputWrite(config.outputFile().map(Path::toString).orElse("standard out"));
+			String text = output.get();
+			metrics.counter("output_chars").add(text.length());
+			if (config.outputFile().isPresent())
+				Utils.uncheckedFilesWrite(config.outputFile().get(), text);
+			else
+				System.out.println(text);
+			if (stage.isRecorded())
+				stage.bytes(text.getBytes(StandardCharsets.UTF_8).length).commit();
+		});
+	}
 
-		if (config.outputFile().isPresent())
-			Utils.uncheckedFilesWrite(config.outputFile().get(), recommendationsAsJson);
-		else
-			System.out.println(recommendationsAsJson);
+	public static List<Post> loadPosts(Path articleFolder, Path talkFolder, Path videoFolder) {
+		return loadPosts(articleFolder, talkFolder, videoFolder, Metrics.none());
 	}
 
-	private static Genealogy createGenealogy(Path articleFolder, Path talkFolder, Path videoFolder) {
+	private static List<Post> loadPosts(Path articleFolder, Path talkFolder, Path videoFolder, Metrics metrics) {
 		List<Post> posts = concat(
-				markdownFilesIn(articleFolder).map(ArticleFactory::createArticle),
-				markdownFilesIn(talkFolder).map(TalkFactory::createTalk),
-				markdownFilesIn(videoFolder).map(VideoFactory::createVideo)
+				markdownFilesIn(articleFolder).map(timed(ArticleFactory::createArticle, metrics, "article")),
+				markdownFilesIn(talkFolder).map(timed(TalkFactory::createTalk, metrics, "talk")),
+				markdownFilesIn(videoFolder).map(timed(VideoFactory::createVideo, metrics, "video"))
 		).collect(toList());
-		Collection<Genealogist> genealogists = getGenealogists(posts);
-		return new Genealogy(posts, genealogists, Weights.allEqual());
+		metrics.counter("posts_loaded").add(posts.size());
+		// the posts are shared by everything that follows (e.g. all genealogist services), so nobody may change them
+		return Collections.unmodifiableList(posts);
+	}
+
+	private static Function<Path, Post> timed(Function<Path, Post> parse, Metrics metrics, String kind) {
+		Timer parsing = metrics.timer("parse", "kind", kind);
+		return file -> {
+			Stage stage = Stages.parse(file.toString());
+			long start = System.nanoTime();
+			Post post = parse.apply(file);
+			parsing.record(System.nanoTime() - start);
+			if (stage.isRecorded())
+				stage.posts(1).types(kind).bytes(sizeOf(file)).commit();
+			return post;
+		};
+	}
+
+	private static long sizeOf(Path file) {
+		try {
+			return Files.size(file);
+		} catch (IOException ex) {
+			throw new UncheckedIOException(ex);
+		}
+	}
+
+	private static void recommendForDrafts(Config config, DraftRecommender recommender, Metrics metrics) {
+		Timer drafting = metrics.timer("draft");
+		if (config.draftFile().isPresent()) {
+			List<String> draft = Utils.uncheckedFilesReadAllLines(config.draftFile().get());
+			Recommendation recommendation = drafting.time(() -> recommender.recommend(draft, RECOMMENDATIONS_PER_POST));
+			write(config, metrics, () -> recommendationsToJson(Stream.of(recommendation), false));
+			return;
+		}
+
+		// the posts are parsed and the genealogists procured, so each draft only needs to be compared to them
+		System.err.println("Enter paths of drafts (one per line):");
+		try (BufferedReader drafts = new BufferedReader(new InputStreamReader(System.in, StandardCharsets.UTF_8))) {
+			String draftFile;
+			while ((draftFile = drafts.readLine()) != null) {
+				if (draftFile.trim().isEmpty())
+					continue;
+				long start = System.nanoTime();
+				try {
+					List<String> draft = Utils.uncheckedFilesReadAllLines(Paths.get(draftFile.trim()));
+					Recommendation recommendation = recommender.recommend(draft, RECOMMENDATIONS_PER_POST);
+					System.out.println(recommendationsToJson(Stream.of(recommendation), false));
+					long elapsed = System.nanoTime() - start;
+					drafting.record(elapsed);
+					System.err.printf(Locale.ROOT, "Recommended in %.3f ms%n", elapsed / 1_000_000.0);
+				} catch (RuntimeException ex) {
+					// one broken draft shouldn't end the session
+					System.err.println("Recommending failed for " + draftFile + ": " + ex);
+				}
+			}
+		} catch (IOException ex) {
+			throw new UncheckedIOException(ex);
+		}
+	}
+
+	private static Stream<Recommendation> recommendByDeadline(Config config, List<Post> posts, Genealogy genealogy) {
+		DeadlineRecommender recommender = new DeadlineRecommender(
+				recommender(config), new BaselineRecommender(posts), config.deadline().get());
+		return recommender.recommend(
+				post -> genealogy.inferRelations(Collections.singletonList(post)),
+				priorityOrder(config, posts),
+				RECOMMENDATIONS_PER_POST);
+	}
+
+	private static List<Post> priorityOrder(Config config, List<Post> posts) {
+		List<Slug> first = config.priorityFile()
+				.map(Utils::uncheckedFilesReadAllLines)
+				.map(lines -> lines.stream()
+						.map(String::trim)
+						.filter(line -> !line.isEmpty())
+						.map(Slug::of)
+						.collect(toList()))
+				.orElse(Collections.emptyList());
+		return DeadlineRecommender.priorityOrder(posts, first);
+	}
+
+	private static Stream<Recommendation> recommend(
+			Config config, List<Post> posts, Weights weights, Optional<Genealogy> genealogy) {
+		if (!config.scoreMatrixFolder().isPresent())
+			return recommend(config, posts, genealogy.get().inferRelations());
+
+		ScoreMatrices scores = inferScores(config, posts, genealogy);
+		if (config.memoryBudget().isPresent())
+			return recommend(config, posts, scores.relations(weights));
+		// rank straight from the score store, without creating relations
+		return recommender(config).recommend(scores, weights, RECOMMENDATIONS_PER_POST);
+	}
+
+	private static ScoreMatrices inferScores(Config config, List<Post> posts, Optional<Genealogy> genealogy) {
+		Path folder = config.scoreMatrixFolder().get();
+		if (!genealogy.isPresent())
+			return ScoreMatrices.load(folder, posts);
+
+		ScoreMatrices scores = genealogy.get().inferScores(folder);
+		scores.store(folder);
+		return scores;
+	}
+
+	private static Stream<Recommendation> recommend(Config config, List<Post> posts, Stream<Relation> relations) {
+		if (config.memoryBudget().isPresent())
+			return new SpillingRecommender(posts, config.memoryBudget().get(), config.spillFolder())
+					.recommend(relations, RECOMMENDATIONS_PER_POST);
+		return recommender(config).recommend(relations, RECOMMENDATIONS_PER_POST);
+	}
+
+	private static Recommender recommender(Config config) {
+		return config.pageRank()
+				? new Recommender(PersonalizedPageRank.withDefaults())
+				: new Recommender();
+	}
+
+	private static void tuneWeights(Config config, List<Post> posts) {
+		ScoreMatrices scores = ScoreMatrices.load(config.scoreMatrixFolder().get(), posts);
+		GroundTruth truth = GroundTruth.from(Utils.uncheckedFilesReadAllLines(config.groundTruthFile().get()));
+		WeightTuner tuner = new WeightTuner(scores, truth, RECOMMENDATIONS_PER_POST);
+
+		long start = System.nanoTime();
+		List<Evaluation> evaluations = tuner.tune(config.tuningCandidates(), 0);
+		long elapsedMillis = (System.nanoTime() - start) / 1_000_000;
+
+		double averageMillis = evaluations.stream().mapToLong(Evaluation::nanos).average().orElse(0) / 1_000_000;
+		System.out.printf(Locale.ROOT, "Evaluated %d weights in %d ms (%.3f ms per evaluation on average)%n",
+				evaluations.size(), elapsedMillis, averageMillis);
+		evaluations.stream()
+				.limit(10)
+				.forEach(evaluation -> System.out.println("\t" + evaluation));
+		System.out.println("Best weights:\n" + evaluations.get(0).weightLines());
 	}
 
 	private static Stream<Path> markdownFilesIn(Path folder) {
-		return Utils.uncheckedFilesList(folder)
+		Stage scan = Stages.folderScan(folder.toString());
+		List<Path> files = Utils.uncheckedFilesList(folder)
 				.filter(Files::isRegularFile)
-				.filter(file -> file.toString().endsWith(".md"));
+				.filter(file -> file.toString().endsWith(".md"))
+				.collect(toList());
+		scan.posts(files.size()).commit();
+		return files.stream();
 	}
 
-	private static Collection<Genealogist> getGenealogists(Collection<Post> posts) {
-		List<Genealogist> genealogists = new ArrayList<>();
-		ServiceLoader
-				.load(GenealogistService.class)
-				.forEach(service -> genealogists.add(service.procure(posts)));
+	private static Genealogist procure(GenealogistService service, List<Post> posts, Metrics metrics) {
+		String name = service.getClass().getSimpleName();
+		Stage stage = Stages.procure(name);
+		Genealogist genealogist = metrics.timer("procure", "service", name).time(() -> service.procure(posts));
+		stage.posts(posts.size()).commit();
+		return genealogist;
+	}
+
+	/**
+	 * Procures the genealogists of all services concurrently (services may build indices, which can take a while),
+	 * but returns them in the order of the services.
+	 */
+	private static List<Genealogist> procureAll(List<Post> posts, Metrics metrics) {
+		List<GenealogistService> services = new ArrayList<>();
+		ServiceLoader.load(GenealogistService.class).forEach(services::add);
+		if (services.isEmpty())
+			return new ArrayList<>();
+
+		int threads = Math.min(services.size(), Runtime.getRuntime().availableProcessors());
+		ExecutorService executor = Executors.newFixedThreadPool(threads, runnable -> {
+			Thread thread = new Thread(runnable, "genealogist-procurement");
+			thread.setDaemon(true);
+			return thread;
+		});
+		try {
+			List<CompletableFuture<Genealogist>> genealogists = services.stream()
+					.map(service -> CompletableFuture.supplyAsync(() -> procure(service, posts, metrics), executor))
+					.collect(toList());
+			return genealogists.stream()
+					.map(Main::join)
+					.collect(toList());
+		} finally {
+			executor.shutdownNow();
+		}
+	}
+
+	private static <T> T join(CompletableFuture<T> future) {
+		try {
+			return future.join();
+		} catch (CompletionException ex) {
+			// rethrow the service's own exception, so errors look like they did when procuring sequentially
+			if (ex.getCause() instanceof RuntimeException)
+				throw (RuntimeException) ex.getCause();
+			if (ex.getCause() instanceof Error)
+				throw (Error) ex.getCause();
+			throw ex;
+		}
+	}
+
+	private static Collection<Genealogist> getGenealogists(Config config, List<Post> posts, Metrics metrics) {
+		List<Genealogist> genealogists = procureAll(posts, metrics);
+		config.genealogistHostClassPath().ifPresent(classPath -> {
+			RemoteGenealogists remote = RemoteGenealogists.start(
+					classPath,
+					config.genealogistHosts(),
+					Arrays.asList(config.articleFolder(), config.talkFolder(), config.videoFolder()),
+					posts,
+					rowOrder(config, posts),
+					config.genealogistHostTimeout());
+			Runtime.getRuntime().addShutdownHook(new Thread(remote::close));
+			genealogists.addAll(remote.genealogists());
+		});
 		if (genealogists.isEmpty())
 			throw new IllegalArgumentException("No genealogists found.");
 		return genealogists;
 	}
 
-	private static String recommendationsToJson(Stream<Recommendation> recommendations) {
-		String frame = "[\n$RECOMMENDATIONS\n]";
+	/**
+	 * @return the posts in the order in which {@link #run(Config, Metrics)} infers their relations (as {@code post1}),
+	 * 		so remote genealogists prefetch the right rows
+	 */
+	private static List<Post> rowOrder(Config config, List<Post> posts) {
+		if (config.deadline().isPresent())
+			return priorityOrder(config, posts);
+		if (config.slugs().isPresent()) {
+			PostIds ids = PostIds.of(posts);
+			// unknown slugs are reported by the genealogy
+			return config.slugs().get().stream()
+					.distinct()
+					.map(ids::bySlug)
+					.filter(Optional::isPresent)
+					.map(Optional::get)
+					.collect(toList());
+		}
+		if (config.rows().isPresent())
+			return Shard.rows(config.rows().get(), posts);
+		return Genealogy.rowOrder(posts);
+	}
+
+	private static String recommendationsToJson(Stream<Recommendation> recommendations, boolean markExact) {
+		String recs = recommendations
+				.map(rec -> recommendationToJson(rec, markExact))
+				.collect(joining(",\n"));
+		return JSON_FRAME.replace("$RECOMMENDATIONS", recs);
+	}
+
+	private static String recommendationToJson(Recommendation rec, boolean markExact) {
 		String recommendation = "" +
 				"\t{" +
-				"\n\t\t\"title\": \"$TITLE\",\n" +
+				"\n" + JSON_TITLE_PREFIX + "$TITLE\",\n" +
+				(markExact ? "\t\t\"exact\": $EXACT,\n" : "") +
 				"\t\t\"recommendations\": [\n" +
 				"$RECOMMENDED_POSTS\n" +
 				"\t\t]\n" +
@@ -81,19 +467,15 @@ public class Main {
 		String recommendedPost = "" +
 				"\t\t\t{ \"title\": \"$TITLE\" }";
 
-		String recs = recommendations
-				.map(rec -> {
-					String posts = rec
-							.recommendedPosts()
-							.map(recArt -> recArt.title().text())
-							.map(recTitle -> recommendedPost.replace("$TITLE", recTitle))
-							.collect(joining(",\n"));
-					return recommendation
-							.replace("$TITLE", rec.post().title().text())
-							.replace("$RECOMMENDED_POSTS", posts);
-				})
+		String posts = rec
+				.recommendedPosts()
+				.map(recArt -> recArt.title().text())
+				.map(recTitle -> recommendedPost.replace("$TITLE", recTitle))
 				.collect(joining(",\n"));
-		return frame.replace("$RECOMMENDATIONS", recs);
+		return recommendation
+				.replace("$TITLE", rec.post().title().text())
+				.replace("$EXACT", String.valueOf(rec.isExact()))
+				.replace("$RECOMMENDED_POSTS", posts);
 	}
 
 }
@@ -0,0 +1,85 @@
+package org.codefx.java_after_eight.benchmark;
+
+import java.util.List;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+import static java.lang.String.format;
+import static java.util.Locale.ROOT;
+import static java.util.Objects.requireNonNull;
+import static java.util.stream.Collectors.toList;
+
+/**
+ * Limits for the percentiles of phases, which a {@link BenchmarkResult} must not exceed. In a file, each limit is
+ * a line {@code <phase> p<percentile> <milliseconds>}, e.g. {@code total p90 800}; empty lines and lines
+ * starting with {@code #} are ignored.
+ */
+public class Baseline {
+
+	private static final Pattern LIMIT = Pattern.compile("(\\S+)\\s+p(\\d+)\\s+(\\d+(?:\\.\\d+)?)");
+
+	private final List<Limit> limits;
+
+	private Baseline(List<Limit> limits) {
+		this.limits = requireNonNull(limits);
+	}
+
+	public static Baseline from(List<String> lines) {
+		List<Limit> limits = lines.stream()
+				.map(String::trim)
+				.filter(line -> !line.isEmpty() && !line.startsWith("#"))
+				.map(Baseline::parseLimit)
+				.collect(toList());
+		return new Baseline(limits);
+	}
+
+	private static Limit parseLimit(String line) {
+		Matcher matcher = LIMIT.matcher(line);
+		if (!matcher.matches())
+			throw new IllegalArgumentException("Baseline lines must look like `<phase> p<percentile> <milliseconds>`: " + line);
+		int percentile = Integer.parseInt(matcher.group(2));
+		if (percentile < 1 || 100 < percentile)
+			throw new IllegalArgumentException("Percentile must be in [1; 100]: " + line);
+		return new Limit(matcher.group(1), percentile, Double.parseDouble(matcher.group(3)));
+	}
+
+	/**
+	 * @param result the benchmark result to check against the limits
+	 * @return a description of each exceeded limit (empty if the result is within the baseline)
+	 * @throws IllegalArgumentException if the baseline refers to a phase the result doesn't contain
+	 */
+	public List<String> violations(BenchmarkResult result) {
+		return limits.stream()
+				.filter(limit -> limit.isExceededBy(result))
+				.map(limit -> limit.describeViolation(result))
+				.collect(toList());
+	}
+
+	private static class Limit {
+
+		final String phase;
+		final int percentile;
+		final double millis;
+
+		Limit(String phase, int percentile, double millis) {
+			this.phase = requireNonNull(phase);
+			this.percentile = percentile;
+			this.millis = millis;
+		}
+
+		double measuredMillis(BenchmarkResult result) {
+			return result.percentile(phase, percentile) / 1_000_000.0;
+		}
+
+		boolean isExceededBy(BenchmarkResult result) {
+			return measuredMillis(result) > millis;
+		}
+
+		String describeViolation(BenchmarkResult result) {
+			return format(ROOT, "%s p%d is %.3f ms, but the baseline is %s ms",
+					phase, percentile, measuredMillis(result), millis);
+		}
+
+	}
+
+}
@@ -0,0 +1,78 @@
+package org.codefx.java_after_eight.benchmark;
+
+import org.codefx.java_after_eight.metrics.MetricRegistry;
+import org.codefx.java_after_eight.metrics.Metrics;
+import org.codefx.java_after_eight.metrics.Timer;
+
+import java.lang.management.GarbageCollectorMXBean;
+import java.lang.management.ManagementFactory;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.function.Consumer;
+
+/**
+ * Runs an iteration (usually the whole pipeline) repeatedly in this JVM - first to warm it up, then to measure
+ * it. Each iteration records into its own {@link Metrics}, from which the durations of all timers named
+ * {@code phase} are taken (by their {@code phase} label).
+ */
+public class Benchmark {
+
+	public static final String TOTAL = "total";
+
+	private final int warmupIterations;
+	private final int measuredIterations;
+
+	public Benchmark(int warmupIterations, int measuredIterations) {
+		if (warmupIterations < 0)
+			throw new IllegalArgumentException("Number of warmup iterations must not be negative: " + warmupIterations);
+		if (measuredIterations < 1)
+			throw new IllegalArgumentException("Number of measured iterations must be greater zero: " + measuredIterations);
+		this.warmupIterations = warmupIterations;
+		this.measuredIterations = measuredIterations;
+	}
+
+	public BenchmarkResult run(Consumer<Metrics> iteration) {
+		for (int warmup = 0; warmup < warmupIterations; warmup++)
+			iteration.accept(new MetricRegistry());
+
+		// phases are sorted by name, followed by the total
+		Map<String, long[]> phaseNanos = new LinkedHashMap<>();
+		long[] totalNanos = new long[measuredIterations];
+		Timer iterations = new MetricRegistry().timer("iteration");
+		long gcCountBefore = gcCount();
+		long gcMillisBefore = gcMillis();
+		for (int measured = 0; measured < measuredIterations; measured++) {
+			MetricRegistry metrics = new MetricRegistry();
+			Timer.Sample sample = iterations.start();
+			iteration.accept(metrics);
+			totalNanos[measured] = sample.stop();
+			int index = measured;
+			metrics.timers("phase", "phase").forEach((phase, timer) -> phaseNanos
+					.computeIfAbsent(phase, __ -> new long[measuredIterations])[index] = timer.nanos().sum());
+		}
+		phaseNanos.put(TOTAL, totalNanos);
+
+		return new BenchmarkResult(
+				warmupIterations,
+				measuredIterations,
+				phaseNanos,
+				gcCount() - gcCountBefore,
+				gcMillis() - gcMillisBefore,
+				iterations.measuresAllocations() ? iterations.allocatedBytes() : -1);
+	}
+
+	private static long gcCount() {
+		return ManagementFactory.getGarbageCollectorMXBeans().stream()
+				// collectors report -1 if they don't know
+				.mapToLong(collector -> Math.max(0, collector.getCollectionCount()))
+				.sum();
+	}
+
+	private static long gcMillis() {
+		return ManagementFactory.getGarbageCollectorMXBeans().stream()
+				.mapToLong(GarbageCollectorMXBean::getCollectionTime)
+				.map(millis -> Math.max(0, millis))
+				.sum();
+	}
+
+}
@@ -0,0 +1,100 @@
+package org.codefx.java_after_eight.benchmark;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+import static java.lang.String.format;
+import static java.util.Locale.ROOT;
+import static java.util.Objects.requireNonNull;
+
+public class BenchmarkResult {
+
+	private static final int[] REPORTED_PERCENTILES = { 50, 90, 99 };
+
+	private final int warmupIterations;
+	private final int measuredIterations;
+	// for each phase, the durations of all measured iterations (sorted)
+	private final Map<String, long[]> phaseNanos;
+	private final long gcCount;
+	private final long gcMillis;
+	// negative if allocations can't be measured
+	private final long allocatedBytes;
+
+	BenchmarkResult(
+			int warmupIterations,
+			int measuredIterations,
+			Map<String, long[]> phaseNanos,
+			long gcCount,
+			long gcMillis,
+			long allocatedBytes) {
+		this.warmupIterations = warmupIterations;
+		this.measuredIterations = measuredIterations;
+		this.phaseNanos = requireNonNull(phaseNanos);
+		phaseNanos.values().forEach(Arrays::sort);
+		this.gcCount = gcCount;
+		this.gcMillis = gcMillis;
+		this.allocatedBytes = allocatedBytes;
+	}
+
+	public Set<String> phases() {
+		return phaseNanos.keySet();
+	}
+
+	/**
+	 * @param phase the name of the timed phase
+	 * @param percentile a value in [1; 100]
+	 * @return the duration (in nanoseconds) that the specified percentage of the iterations didn't exceed
+	 * 		(using the nearest rank)
+	 */
+	public long percentile(String phase, int percentile) {
+		if (percentile < 1 || 100 < percentile)
+			throw new IllegalArgumentException("Percentile must be in [1; 100]: " + percentile);
+		long[] nanos = phaseNanos.get(phase);
+		if (nanos == null)
+			throw new IllegalArgumentException("Unknown phase: " + phase);
+		int rank = (int) Math.ceil(percentile / 100.0 * nanos.length);
+		return nanos[rank - 1];
+	}
+
+	public long gcCount() {
+		return gcCount;
+	}
+
+	public long gcMillis() {
+		return gcMillis;
+	}
+
+	/**
+	 * @return bytes allocated per second of measured iterations (negative if allocations can't be measured)
+	 */
+	public double allocationRate() {
+		if (allocatedBytes < 0)
+			return -1;
+		long totalNanos = Arrays.stream(phaseNanos.get(Benchmark.TOTAL)).sum();
+		return totalNanos == 0 ? 0 : allocatedBytes * 1_000_000_000.0 / totalNanos;
+	}
+
+	@Override
+	public String toString() {
+		List<String> lines = new ArrayList<>();
+		lines.add(format(ROOT, "Benchmark: %d warmup and %d measured iterations", warmupIterations, measuredIterations));
+		lines.add(format(ROOT, "\t%-12s %12s %12s %12s", "phase", "p50 (ms)", "p90 (ms)", "p99 (ms)"));
+		for (String phase : phases()) {
+			StringBuilder line = new StringBuilder(format(ROOT, "\t%-12s", phase));
+			for (int percentile : REPORTED_PERCENTILES)
+				line.append(format(ROOT, " %12.3f", percentile(phase, percentile) / 1_000_000.0));
+			lines.add(line.toString());
+		}
+		lines.add(format(ROOT, "\tGC: %d collections, %d ms (%.3f ms per iteration)",
+				gcCount, gcMillis, (double) gcMillis / measuredIterations));
+		lines.add(allocatedBytes < 0
+				? "\tAllocation rate: unknown (the VM doesn't measure allocations)"
+				: format(ROOT, "\tAllocation rate: %.1f MB/s (%.1f MB per iteration)",
+						allocationRate() / 1_000_000, allocatedBytes / 1_000_000.0 / measuredIterations));
+		return String.join("\n", lines);
+	}
+
+}
@@ -0,0 +1,30 @@
+package org.codefx.java_after_eight.events;
+
+/**
+ * A pipeline stage that is reported as a Flight Recorder event once it is {@link #commit() committed}.
+ * Only the values that are relevant for a stage need to be set.
+ *
+ * <p>If no recording includes the stage's event (or Flight Recorder isn't available), all methods do nothing.
+ */
+public interface Stage {
+
+	/**
+	 * @return whether the stage will be recorded - values that are expensive to compute should only be
+	 * 		computed if it is
+	 */
+	boolean isRecorded();
+
+	Stage posts(long posts);
+
+	Stage pairs(long pairs);
+
+	Stage types(String types);
+
+	Stage bytes(long bytes);
+
+	/**
+	 * Ends the stage and records it (if it is recorded at all).
+	 */
+	void commit();
+
+}
@@ -0,0 +1,7 @@
+package org.codefx.java_after_eight.events;
+
+interface StageFactory {
+
+	Stage begin(StageType type, String subject);
+
+}
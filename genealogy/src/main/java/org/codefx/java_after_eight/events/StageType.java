@@ -0,0 +1,13 @@
+package org.codefx.java_after_eight.events;
+
+enum StageType {
+
+	FOLDER_SCAN,
+	PARSE,
+	PROCURE,
+	INFERENCE,
+	AGGREGATION,
+	RANKING,
+	OUTPUT_WRITE
+
+}
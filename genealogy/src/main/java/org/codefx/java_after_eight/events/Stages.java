@@ -0,0 +1,111 @@
+package org.codefx.java_after_eight.events;
+
+/**
+ * Begins the {@link Stage stages} of the pipeline. Each returned stage must be committed when it ends.
+ *
+ * <p>The events extend {@code jdk.jfr.Event}, which isn't part of the Java 8 API, so the classes that refer
+ * to it live in the multi-release JAR's Java 11 section and are only loaded if it's available.
+ */
+public class Stages {
+
+	private static final StageFactory FACTORY = createFactory();
+
+	private static final Stage NONE = new Stage() {
+
+		@Override
+		public boolean isRecorded() {
+			return false;
+		}
+
+		@Override
+		public Stage posts(long posts) {
+			return this;
+		}
+
+		@Override
+		public Stage pairs(long pairs) {
+			return this;
+		}
+
+		@Override
+		public Stage types(String types) {
+			return this;
+		}
+
+		@Override
+		public Stage bytes(long bytes) {
+			return this;
+		}
+
+		@Override
+		public void commit() {
+		}
+
+	};
+
+	private static StageFactory createFactory() {
+		try {
+			Class.forName("jdk.jfr.Event");
+			return (StageFactory) Class
+					.forName(Stages.class.getPackage().getName() + ".FlightRecorderStages")
+					.getDeclaredConstructor()
+					.newInstance();
+		} catch (ReflectiveOperationException | LinkageError ex) {
+			return (type, subject) -> NONE;
+		}
+	}
+
+	static Stage none() {
+		return NONE;
+	}
+
+	/**
+	 * @param folder the scanned folder; the stage's posts are the number of files found in it
+	 */
+	public static Stage folderScan(String folder) {
+		return FACTORY.begin(StageType.FOLDER_SCAN, folder);
+	}
+
+	/**
+	 * @param file the parsed file; the stage's bytes are its size
+	 */
+	public static Stage parse(String file) {
+		return FACTORY.begin(StageType.PARSE, file);
+	}
+
+	/**
+	 * @param service the genealogist service that procures a genealogist for the stage's posts
+	 */
+	public static Stage procure(String service) {
+		return FACTORY.begin(StageType.PROCURE, service);
+	}
+
+	/**
+	 * @param post the post whose relations with all posts are inferred by the genealogists of the stage's types
+	 */
+	public static Stage inference(String post) {
+		return FACTORY.begin(StageType.INFERENCE, post);
+	}
+
+	/**
+	 * @param post the post whose typed relations with all posts are aggregated
+	 */
+	public static Stage aggregation(String post) {
+		return FACTORY.begin(StageType.AGGREGATION, post);
+	}
+
+	/**
+	 * @param ranking the kind of ranking, i.e. the recommender
+	 */
+	public static Stage ranking(String ranking) {
+		return FACTORY.begin(StageType.RANKING, ranking);
+	}
+
+	/**
+	 * @param target the file (or stream) the output is written to; the stage's bytes are the output's size
+	 */
+	public static Stage outputWrite(String target) {
+		return FACTORY.begin(StageType.OUTPUT_WRITE, target);
+	}
+
+}
@@ -2,8 +2,22 @@ package org.codefx.java_after_eight.genealogist;
 
 import org.codefx.java_after_eight.post.Post;
 
+import static java.util.Locale.ROOT;
+
 public interface Genealogist {
 
 	TypedRelation infer(Post post1, Post post2);
 
+	/**
+	 * @return the type of relations this genealogist infers; by default, the lower-cased simple name
+	 * 		of its class without a "Genealogist" suffix (implementations should override this)
+	 */
+	default RelationType type() {
+		String name = getClass().getSimpleName();
+		if (name.endsWith("Genealogist") && name.length() > "Genealogist".length())
+			name = name.substring(0, name.length() - "Genealogist".length());
+		// anonymous classes have no simple name
+		return RelationType.of(name.isEmpty() ? getClass().getName() : name.toLowerCase(ROOT));
+	}
+
 }
@@ -1,39 +1,71 @@
 package org.codefx.java_after_eight.genealogist;
 
-import java.util.Objects;
-
-import static java.util.Objects.requireNonNull;
+import org.codefx.java_after_eight.Interner;
 
 public class RelationType {
 
 	// `RelationType` is a string (and not an enum) because {@code Genealogist} implementations
 	// can be plugged in via services, which means their type is unknown at runtime.
 
+	// Each relation type is interned and gets a dense ordinal when it is first created (usually when its
+	// genealogist's class is loaded), so per-type data (e.g. weights) can be kept in arrays instead of maps.
+	private static final Interner<RelationType> INSTANCES = new Interner<>(RelationType::new);
+
 	private final String value;
+	private final int ordinal;
 
-	public RelationType(String value) {
-		this.value = requireNonNull(value);
+	private RelationType(String value, int ordinal) {
 		if (value.isEmpty())
 			throw new IllegalArgumentException("Relation types can't have an empty value.");
+		this.value = value;
+		this.ordinal = ordinal;
+	}
+
+	/**
+	 * @param value the text of the new instance
+	 * @deprecated use {@link #of(String)}, which returns the canonical instance instead of a copy of it
+	 */
+	@Deprecated
+	public RelationType(String value) {
+		this(of(value));
+	}
+
+	private RelationType(RelationType canonical) {
+		this.value = canonical.value;
+		this.ordinal = canonical.ordinal;
+	}
+
+	public static RelationType of(String value) {
+		return INSTANCES.intern(value);
+	}
+
+	/**
+	 * @return the number of relation types that were created so far, which is an upper bound for their ordinals
+	 */
+	public static int registeredTypes() {
+		return INSTANCES.size();
 	}
 
 	public String value() {
 		return value;
 	}
 
+	/**
+	 * @return an ordinal in the interval [0; {@link #registeredTypes()}) that is the same for all equal instances
+	 */
+	public int ordinal() {
+		return ordinal;
+	}
+
 	@Override
 	public boolean equals(Object o) {
-		if (this == o)
-			return true;
-		if (o == null || getClass() != o.getClass())
-			return false;
-		RelationType slug = (RelationType) o;
-		return value.equals(slug.value);
+		// copies of the canonical instance (see the deprecated constructor) have the same ordinal
+		return this == o || o instanceof RelationType && ((RelationType) o).ordinal == ordinal;
 	}
 
 	@Override
 	public int hashCode() {
-		return Objects.hash(value);
+		return ordinal;
 	}
 
 	@Override
@@ -0,0 +1,23 @@
+package org.codefx.java_after_eight.genealogist;
+
+import org.codefx.java_after_eight.post.Post;
+
+import java.util.stream.Stream;
+
+/**
+ * A {@link Genealogist} that can only relate a post to a few candidates. For all other posts,
+ * {@link #infer(Post, Post) infer} is never called and a relation with score 0 is assumed instead.
+ */
+public interface SelectiveGenealogist extends Genealogist {
+
+	/**
+	 * @return the type of relations this genealogist infers
+	 */
+	RelationType type();
+
+	/**
+	 * @return the posts that may have a relation with a score greater than 0 to the specified post
+	 */
+	Stream<Post> candidates(Post post);
+
+}
@@ -0,0 +1,41 @@
+package org.codefx.java_after_eight.genealogy;
+
+import java.time.Duration;
+import java.util.Optional;
+
+import static java.util.Objects.requireNonNull;
+
+/**
+ * How much time each genealogist may take - per call and in total. A genealogist that exceeds
+ * its budget is no longer called and its relation type is missing from the remaining relations.
+ */
+public class GenealogistBudget {
+
+	private final Optional<Duration> perCall;
+	private final Optional<Duration> total;
+
+	public GenealogistBudget(Optional<Duration> perCall, Optional<Duration> total) {
+		this.perCall = requireNonNull(perCall);
+		this.total = requireNonNull(total);
+		perCall.ifPresent(GenealogistBudget::verifyPositive);
+		total.ifPresent(GenealogistBudget::verifyPositive);
+	}
+
+	private static void verifyPositive(Duration duration) {
+		if (duration.isNegative() || duration.isZero())
+			throw new IllegalArgumentException("Budget must be positive: " + duration);
+	}
+
+	public static GenealogistBudget unlimited() {
+		return new GenealogistBudget(Optional.empty(), Optional.empty());
+	}
+
+	long perCallNanos() {
+		return perCall.map(Duration::toNanos).orElse(Long.MAX_VALUE);
+	}
+
+	long totalNanos() {
+		return total.map(Duration::toNanos).orElse(Long.MAX_VALUE);
+	}
+
+}
@@ -0,0 +1,128 @@
+package org.codefx.java_after_eight.genealogy;
+
+import org.codefx.java_after_eight.genealogist.Genealogist;
+import org.codefx.java_after_eight.genealogist.RelationType;
+import org.codefx.java_after_eight.genealogist.TypedRelation;
+import org.codefx.java_after_eight.post.Post;
+
+import java.util.Optional;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAccumulator;
+import java.util.function.Supplier;
+
+import static java.lang.String.format;
+import static java.util.Locale.ROOT;
+import static java.util.Objects.requireNonNull;
+
+/**
+ * Tracks how long a genealogist takes and trips (like a circuit breaker) once it exceeds its {@link GenealogistBudget}.
+ *
+ * <p>A tripped genealogist's relations are missing from all later pairs, which then score 0 for its type.
+ *
+ * <p>Calls can't be safely interrupted, so budgets are checked after each call - a call that never returns
+ * is not covered (run such genealogists out of process with {@code --genealogist-host}, which kills hosts
+ * that don't answer within {@code --genealogist-host-timeout}).
+ */
+public class GenealogistMonitor {
+
+	private final Genealogist genealogist;
+	private final GenealogistBudget budget;
+
+	private final AtomicLong calls = new AtomicLong();
+	private final AtomicLong totalNanos = new AtomicLong();
+	private final LongAccumulator maxNanos = new LongAccumulator(Math::max, 0);
+	private volatile RelationType type;
+	private volatile Optional<String> trippedReason = Optional.empty();
+
+	GenealogistMonitor(Genealogist genealogist, GenealogistBudget budget) {
+		this.genealogist = requireNonNull(genealogist);
+		this.budget = requireNonNull(budget);
+		this.type = genealogist.type();
+	}
+
+	Genealogist genealogist() {
+		return genealogist;
+	}
+
+	/**
+	 * @return the typed relation or, if the genealogist tripped, an empty {@code Optional}
+	 */
+	Optional<TypedRelation> infer(Post post1, Post post2) {
+		return call(() -> genealogist.infer(post1, post2))
+				.map(relation -> {
+					// genealogists that don't override `type()` may infer relations of another type
+					type = relation.type();
+					return relation;
+				});
+	}
+
+	<T> Optional<T> call(Supplier<T> call) {
+		if (isTripped())
+			return Optional.empty();
+
+		long start = System.nanoTime();
+		T result = call.get();
+		long elapsed = System.nanoTime() - start;
+
+		calls.incrementAndGet();
+		maxNanos.accumulate(elapsed);
+		long total = totalNanos.addAndGet(elapsed);
+		if (elapsed > budget.perCallNanos())
+			trip(format(ROOT, "call took %.3f ms", elapsed / 1_000_000.0));
+		else if (total > budget.totalNanos())
+			trip(format(ROOT, "total time reached %.3f ms", total / 1_000_000.0));
+		return Optional.of(result);
+	}
+
+	private synchronized void trip(String reason) {
+		if (!trippedReason.isPresent())
+			trippedReason = Optional.of(reason + " after " + calls.get() + " calls");
+	}
+
+	public boolean isTripped() {
+		return trippedReason.isPresent();
+	}
+
+	/**
+	 * @return the type of the relations this genealogist inferred (or declares, if it didn't infer any yet)
+	 */
+	public RelationType type() {
+		return type;
+	}
+
+	public String name() {
+		return type.value();
+	}
+
+	public long calls() {
+		return calls.get();
+	}
+
+	public long totalNanos() {
+		return totalNanos.get();
+	}
+
+	public long maxNanos() {
+		return maxNanos.get();
+	}
+
+	public Optional<String> trippedReason() {
+		return trippedReason;
+	}
+
+	@Override
+	public String toString() {
+		long calls = calls();
+		String latency = format(ROOT,
+				"%s: %d calls, %.3f ms total, %.3f us mean, %.3f us max",
+				name(),
+				calls,
+				totalNanos() / 1_000_000.0,
+				calls == 0 ? 0 : totalNanos() / 1_000.0 / calls,
+				maxNanos() / 1_000.0);
+		return trippedReason
+				.map(reason -> latency + " - TRIPPED (" + reason + "), its relations score 0 in all later pairs")
+				.orElse(latency);
+	}
+
+}
@@ -1,82 +1,255 @@
 package org.codefx.java_after_eight.genealogy;
 
+import org.codefx.java_after_eight.events.Stage;
+import org.codefx.java_after_eight.events.Stages;
 import org.codefx.java_after_eight.genealogist.Genealogist;
+import org.codefx.java_after_eight.genealogist.SelectiveGenealogist;
 import org.codefx.java_after_eight.genealogist.TypedRelation;
+import org.codefx.java_after_eight.metrics.Histogram;
+import org.codefx.java_after_eight.metrics.Metrics;
+import org.codefx.java_after_eight.metrics.Timer;
 import org.codefx.java_after_eight.post.Post;
+import org.codefx.java_after_eight.post.PostIds;
+import org.codefx.java_after_eight.post.Slug;
 
+import java.nio.file.Path;
 import java.util.ArrayList;
+import java.util.BitSet;
 import java.util.Collection;
-import java.util.HashMap;
-import java.util.Map;
+import java.util.Collections;
+import java.util.List;
+import java.util.Optional;
 import java.util.stream.Stream;
 
 import static java.util.Objects.requireNonNull;
+import static java.util.stream.Collectors.joining;
+import static java.util.stream.Collectors.toList;
 
 public class Genealogy {
 
-	private final Collection<Post> posts;
-	private final Collection<Genealogist> genealogists;
+	// internally, posts are addressed by their IDs
+	private final PostIds posts;
+	private final List<GenealogistMonitor> genealogists;
 	private final Weights weights;
+	// per pair of posts, the time it takes to ask all genealogists, and per row, the time it takes to aggregate
+	private final Timer inference;
+	private final Timer aggregation;
+	private final Histogram scores;
 
 	public Genealogy(Collection<Post> posts, Collection<Genealogist> genealogists, Weights weights) {
-		this.posts = requireNonNull(posts);
-		this.genealogists = requireNonNull(genealogists);
+		this(posts, genealogists, weights, GenealogistBudget.unlimited());
+	}
+
+	public Genealogy(Collection<Post> posts, Collection<Genealogist> genealogists, Weights weights, GenealogistBudget budget) {
+		this(posts, genealogists, weights, budget, Metrics.none());
+	}
+
+	public Genealogy(
+			Collection<Post> posts,
+			Collection<Genealogist> genealogists,
+			Weights weights,
+			GenealogistBudget budget,
+			Metrics metrics) {
+		this.posts = PostIds.of(posts);
+		this.genealogists = genealogists.stream()
+				.map(genealogist -> new GenealogistMonitor(genealogist, budget))
+				.collect(toList());
 		this.weights = requireNonNull(weights);
+		this.inference = metrics.timer("infer");
+		this.aggregation = metrics.timer("aggregate");
+		this.scores = metrics.histogram("relation_score");
+	}
+
+	/**
+	 * @param posts the posts of a genealogy
+	 * @return the posts in the order in which {@link #inferRelations()} and {@link #inferScores()} infer
+	 * 		their relations (as {@code post1}), i.e. by slug
+	 */
+	public static List<Post> rowOrder(Collection<Post> posts) {
+		return PostIds.of(posts).posts();
+	}
+
+	/**
+	 * @return latency and circuit breaker state of each genealogist (only meaningful once inference ran)
+	 */
+	public List<GenealogistMonitor> report() {
+		return Collections.unmodifiableList(genealogists);
 	}
 
 	public Stream<Relation> inferRelations() {
-		return aggregateTypedRelations(inferTypedRelations());
+		return inferRelations(posts.posts());
 	}
 
-	private Stream<Relation> aggregateTypedRelations(Stream<TypedRelation> typedRelations) {
-		Map<Post, Map<Post, Collection<TypedRelation>>> sortedTypedRelations = new HashMap<>();
-		typedRelations.forEach(relation -> sortedTypedRelations
-				.computeIfAbsent(relation.post1(), __ -> new HashMap<>())
-				.computeIfAbsent(relation.post2(), __ -> new ArrayList<>())
-				.add(relation));
-		return sortedTypedRelations
-				.values().stream()
-				.flatMap(postWithRelations -> postWithRelations.values().stream())
-				.map(relations -> Relation.aggregate(relations.stream(), weights));
+	/**
+	 * @param rows the posts for which to infer relations (as {@code post1}) - as {@code post2}, all posts are used
+	 * @return the relations of the rows, row by row
+	 */
+	public Stream<Relation> inferRelations(Collection<Post> rows) {
+		// rows are scored and aggregated one by one, so only one row of scores is held in memory at a time
+		return rows.stream().flatMap(post1 -> aggregate(post1, inferScores(post1)).stream());
 	}
 
-	private Stream<TypedRelation> inferTypedRelations() {
-		return posts.stream()
-				.flatMap(post1 -> posts.stream()
-						.map(post2 -> new Posts(post1, post2)))
-				// no need to compare posts with themselves
-				.filter(posts -> posts.post1 != posts.post2)
-				.flatMap(posts -> genealogists.stream()
-						.map(genealogist -> new PostResearch(genealogist, posts)))
-				.map(PostResearch::infer);
+	private List<Relation> aggregate(Post post1, byte[][] typedScores) {
+		Stage stage = Stages.aggregation(post1.slug().value());
+		long start = System.nanoTime();
+		long[] rowScores = new long[posts.size()];
+		// without genealogists, all relations score 0
+		if (typedScores.length > 0)
+			Relation.aggregate(typedScores, rowWeights(), new double[posts.size()], rowScores);
+		aggregation.record(System.nanoTime() - start);
+
+		// only the output needs relation instances
+		List<Relation> relations = new ArrayList<>(posts.size());
+		for (int post2 = 0; post2 < posts.size(); post2++)
+			// no need to compare posts with themselves
+			if (posts.post(post2) != post1) {
+				relations.add(new Relation(post1, posts.post(post2), rowScores[post2]));
+				scores.record(rowScores[post2]);
+			}
+		stage.posts(1).pairs(relations.size()).commit();
+		return relations;
 	}
 
-	private static class Posts {
+	/**
+	 * @return for each genealogist, the weight of its type (which is only certain once it inferred relations)
+	 */
+	private double[] rowWeights() {
+		double[] rowWeights = new double[genealogists.size()];
+		for (int genealogist = 0; genealogist < genealogists.size(); genealogist++)
+			rowWeights[genealogist] = weights.weightOf(genealogists.get(genealogist).type());
+		return rowWeights;
+	}
 
-		final Post post1;
-		final Post post2;
+	/**
+	 * Infers only the relations of the posts with the specified slugs (as {@code post1}) with all posts,
+	 * i.e. with {@code k} slugs, this needs {@code O(k * N)} instead of {@code O(N^2)} inferences.
+	 *
+	 * @param slugs the slugs of the posts for which to infer relations (duplicates are ignored)
+	 * @return the relations of the posts with the specified slugs, row by row
+	 * @throws IllegalArgumentException if a slug is unknown
+	 */
+	public Stream<Relation> inferRelationsOf(Collection<Slug> slugs) {
+		List<Post> rows = slugs.stream()
+				.distinct()
+				.map(slug -> posts
+						.bySlug(slug)
+						.orElseThrow(() -> new IllegalArgumentException("Unknown post: " + slug.value())))
+				.collect(toList());
+		return inferRelations(rows);
+	}
 
-		Posts(Post post1, Post post2) {
-			this.post1 = post1;
-			this.post2 = post2;
-		}
+	/**
+	 * Infers the relations of a post that isn't part of this genealogy (e.g. an unpublished draft) with all posts.
+	 * The draft is not added to the posts or genealogists, so genealogists that only know the posts they were
+	 * procured for may score it lower than they would score a published post.
+	 *
+	 * <p>A draft of an already published post shouldn't recommend that post, so posts with the draft's slug or
+	 * title (ignoring case) are excluded - a draft whose slug and title both changed can't be recognized, though.
+	 *
+	 * @param draft the post to infer relations for
+	 * @return the relations of the draft (as {@code post1}) with all posts, except the draft's published version
+	 */
+	public Stream<Relation> inferRelationsOfDraft(Post draft) {
+		return inferRelations(Collections.singletonList(draft))
+				.filter(relation -> !isPublishedVersion(relation.post2(), draft));
+	}
 
+	private static boolean isPublishedVersion(Post post, Post draft) {
+		return post.slug().equals(draft.slug())
+				|| post.title().text().equalsIgnoreCase(draft.title().text());
 	}
 
-	private static class PostResearch {
+	/**
+	 * @return the scores of all typed relations, from which relations for any {@link Weights} can be computed
+	 */
+	public ScoreMatrices inferScores() {
+		return inferScores(ScoreMatrices.create(posts.posts()));
+	}
 
-		final Genealogist genealogist;
-		final Posts posts;
+	/**
+	 * Like {@link #inferScores()}, but the scores are written straight into memory-mapped files in the
+	 * specified folder, which only need to be {@link ScoreMatrices#store(Path) stored} (i.e. flushed) there.
+	 *
+	 * @param folder the folder in which to create the memory-mapped files
+	 * @return the scores of all typed relations
+	 */
+	public ScoreMatrices inferScores(Path folder) {
+		return inferScores(ScoreMatrices.create(posts.posts(), folder));
+	}
 
-		PostResearch(Genealogist genealogist, Posts posts) {
-			this.genealogist = genealogist;
-			this.posts = posts;
+	private ScoreMatrices inferScores(ScoreMatrices scores) {
+		for (Post post1 : posts.posts()) {
+			byte[][] typedScores = inferScores(post1);
+			// relations of tripped genealogists are missing, so their scores are zero, but each type still
+			// needs a matrix, so they're part of the average even if they tripped right away
+			for (int genealogist = 0; genealogist < genealogists.size(); genealogist++)
+				scores.record(genealogists.get(genealogist).type(), post1, typedScores[genealogist]);
 		}
+		return scores;
+	}
 
-		TypedRelation infer() {
-			return genealogist.infer(posts.post1, posts.post2);
+	/**
+	 * @return for each genealogist, the scores of {@code post1} with all posts (indexed by their IDs), where
+	 * 		missing typed relations (because the genealogist tripped or, if it's selective, didn't select the
+	 * 		pair's {@code post2} as a candidate) and the relation of {@code post1} with itself score 0
+	 */
+	private byte[][] inferScores(Post post1) {
+		Stage stage = Stages.inference(post1.slug().value());
+		BitSet[] candidates = candidatesFor(post1);
+		byte[][] typedScores = new byte[genealogists.size()][posts.size()];
+		int pairs = 0;
+		for (int post2 = 0; post2 < posts.size(); post2++)
+			// no need to compare posts with themselves
+			if (posts.post(post2) != post1) {
+				infer(post1, post2, candidates, typedScores);
+				pairs++;
+			}
+		if (stage.isRecorded())
+			stage
+					.posts(posts.size())
+					.pairs(pairs)
+					.types(genealogists.stream().map(GenealogistMonitor::name).collect(joining(",")))
+					.commit();
+		return typedScores;
+	}
+
+	/**
+	 * @param candidates for each genealogist, the IDs of the candidates for {@code post1}
+	 * 		({@code null} if it isn't selective or tripped while selecting them)
+	 */
+	private void infer(Post post1, int post2Id, BitSet[] candidates, byte[][] typedScores) {
+		long start = System.nanoTime();
+		Post post2 = posts.post(post2Id);
+		for (int genealogist = 0; genealogist < genealogists.size(); genealogist++) {
+			// like relations of tripped genealogists, those of non-candidates are missing and score 0
+			boolean isCandidate = candidates[genealogist] == null || candidates[genealogist].get(post2Id);
+			if (!isCandidate)
+				continue;
+			Optional<TypedRelation> relation = genealogists.get(genealogist).infer(post1, post2);
+			if (relation.isPresent())
+				typedScores[genealogist][post2Id] = (byte) relation.get().score();
 		}
+		inference.record(System.nanoTime() - start);
+	}
 
+	private BitSet[] candidatesFor(Post post) {
+		BitSet[] candidates = new BitSet[genealogists.size()];
+		for (int index = 0; index < genealogists.size(); index++) {
+			GenealogistMonitor genealogist = genealogists.get(index);
+			if (!(genealogist.genealogist() instanceof SelectiveGenealogist))
+				continue;
+			candidates[index] = genealogist
+					.call(() -> {
+						BitSet ids = new BitSet(posts.size());
+						((SelectiveGenealogist) genealogist.genealogist()).candidates(post)
+								// candidates that aren't part of the genealogy are never asked about
+								.filter(posts::contains)
+								.forEach(candidate -> ids.set(posts.idOf(candidate)));
+						return ids;
+					})
+					.orElse(null);
+		}
+		return candidates;
 	}
 
 }
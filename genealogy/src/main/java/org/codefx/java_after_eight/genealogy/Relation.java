@@ -3,6 +3,7 @@ package org.codefx.java_after_eight.genealogy;
 import org.codefx.java_after_eight.genealogist.TypedRelation;
 import org.codefx.java_after_eight.post.Post;
 
+import java.util.Iterator;
 import java.util.Objects;
 import java.util.stream.Stream;
 
@@ -12,6 +13,8 @@ import static java.util.Objects.requireNonNull;
 
 public class Relation {
 
+	private static final RowAggregation ROW_AGGREGATION = RowAggregations.fastest();
+
 	private final Post post1;
 	private final Post post2;
 	private final long score;
@@ -26,11 +29,48 @@ public class Relation {
 	}
 
 	static Relation aggregate(Stream<TypedRelation> typedRelations, Weights weights) {
-		return typedRelations
-				.map(relation -> new UnfinishedRelation(relation, weights.weightOf(relation.type())))
-				.reduce(UnfinishedRelation::fold)
-				.map(UnfinishedRelation::finish)
-				.orElseThrow(() -> new IllegalArgumentException("Can't create relation from zero typed relations."));
+		return aggregate(typedRelations, weights, 0);
+	}
+
+	/**
+	 * @param typeCount the number of relation types, where missing typed relations score 0
+	 */
+	static Relation aggregate(Stream<TypedRelation> typedRelations, Weights weights, int typeCount) {
+		Iterator<TypedRelation> relations = typedRelations.iterator();
+		if (!relations.hasNext())
+			throw new IllegalArgumentException("Can't create relation from zero typed relations.");
+
+		TypedRelation first = relations.next();
+		Post post1 = first.post1();
+		Post post2 = first.post2();
+		double scoreTotal = first.score() * weights.weightOf(first.type().ordinal());
+		long scoreCount = 1;
+		while (relations.hasNext()) {
+			TypedRelation relation = relations.next();
+			if (post1 != relation.post1())
+				throw new IllegalArgumentException(format(
+						"All typed relations must belong to the same post: %s vs %s", post1, relation.post1()));
+			if (post2 != relation.post2())
+				throw new IllegalArgumentException(format(
+						"All typed relations must belong to the same post: %s vs %s", post2, relation.post2()));
+			scoreTotal += relation.score() * weights.weightOf(relation.type().ordinal());
+			scoreCount++;
+		}
+		return new Relation(post1, post2, round(scoreTotal / Math.max(scoreCount, typeCount)));
+	}
+
+	/**
+	 * Aggregates the scores between one post and all others with the same computation (including order of
+	 * summation) as {@link #aggregate(Stream, Weights)}, but on primitive arrays instead of relation instances.
+	 *
+	 * @param typedScores for each type, the scores with all other posts (indexed like {@code scores})
+	 * @param weights for each type, its weight
+	 * @param scores the array the aggregated scores are written to
+	 */
+	static void aggregate(byte[][] typedScores, double[] weights, double[] totals, long[] scores) {
+		if (typedScores.length == 0)
+			throw new IllegalArgumentException("Can't create relation from zero typed relations.");
+		ROW_AGGREGATION.aggregate(typedScores, weights, totals, scores);
 	}
 
 	public Post post1() {
@@ -71,36 +111,4 @@ public class Relation {
 				'}';
 	}
 
-	private static class UnfinishedRelation {
-
-		private final Post post1;
-		private final Post post2;
-		private double scoreTotal;
-		private long scoreCount;
-
-		public UnfinishedRelation(TypedRelation relation, double weight) {
-			this.post1 = relation.post1();
-			this.post2 = relation.post2();
-			this.scoreTotal = relation.score() * weight;
-			this.scoreCount = 1;
-		}
-
-		public UnfinishedRelation fold(UnfinishedRelation other) {
-			if (post1 != other.post1)
-				throw new IllegalArgumentException(format(
-						"All typed relations must belong to the same post: %s vs %s", post1, other.post1));
-			if (post2 != other.post2)
-				throw new IllegalArgumentException(format(
-						"All typed relations must belong to the same post: %s vs %s", post2, other.post2));
-			scoreTotal += other.scoreTotal;
-			scoreCount += other.scoreCount;
-			return this;
-		}
-
-		public Relation finish() {
-			return new Relation(post1, post2, round(scoreTotal / scoreCount));
-		}
-
-	}
-
 }
@@ -0,0 +1,11 @@
+package org.codefx.java_after_eight.genealogy;
+
+/**
+ * Aggregates the typed scores of one post with all posts, see {@link Relation#aggregate(byte[][], double[], double[], long[])}.
+ * Implementations must compute exactly the same scores as {@link ScalarRowAggregation}.
+ */
+interface RowAggregation {
+
+	void aggregate(byte[][] typedScores, double[] weights, double[] totals, long[] scores);
+
+}
@@ -0,0 +1,13 @@
+package org.codefx.java_after_eight.genealogy;
+
+/**
+ * Selects the fastest {@link RowAggregation} for the running JVM. On Java 17 and later, the multi-release JAR
+ * replaces this class with one that uses the Vector API if it's available (see {@code src/main/java17}).
+ */
+class RowAggregations {
+
+	static RowAggregation fastest() {
+		return new ScalarRowAggregation();
+	}
+
+}
@@ -0,0 +1,23 @@
+package org.codefx.java_after_eight.genealogy;
+
+import java.util.Arrays;
+
+import static java.lang.Math.round;
+
+class ScalarRowAggregation implements RowAggregation {
+
+	@Override
+	public void aggregate(byte[][] typedScores, double[] weights, double[] totals, long[] scores) {
+		Arrays.fill(totals, 0);
+		for (int type = 0; type < typedScores.length; type++) {
+			byte[] typeScores = typedScores[type];
+			double weight = weights[type];
+			// simple counted loop over primitive arrays, so the JIT can vectorize it
+			for (int post = 0; post < scores.length; post++)
+				totals[post] += typeScores[post] * weight;
+		}
+		for (int post = 0; post < scores.length; post++)
+			scores[post] = round(totals[post] / typedScores.length);
+	}
+
+}
@@ -0,0 +1,254 @@
+package org.codefx.java_after_eight.genealogy;
+
+import org.codefx.java_after_eight.Utils;
+import org.codefx.java_after_eight.events.Stage;
+import org.codefx.java_after_eight.events.Stages;
+import org.codefx.java_after_eight.genealogist.RelationType;
+import org.codefx.java_after_eight.post.Post;
+import org.codefx.java_after_eight.post.PostIds;
+import org.codefx.java_after_eight.post.Slug;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.List;
+import java.util.Optional;
+import java.util.stream.IntStream;
+import java.util.stream.Stream;
+
+import static java.util.stream.Collectors.joining;
+import static java.util.stream.Collectors.toList;
+
+/**
+ * The scores of all relation types for all pairs of posts. Because only the final aggregation
+ * depends on {@link Weights}, this allows computing relations for different weights without
+ * inferring the typed relations again.
+ *
+ * <p>The matrices can be {@link #store(Path) stored} in a folder and later {@link #load(Path, Collection) loaded}
+ * (via memory mapping). The folder contains a file {@value POSTS_FILE} with one slug per line (which defines
+ * each post's index), a file {@value TYPES_FILE} with one relation type per line and, for each type, a
+ * {@link ScoreMatrix} file named after the type's line number (starting with 0).
+ */
+public class ScoreMatrices {
+
+	private static final String POSTS_FILE = "posts";
+	private static final String TYPES_FILE = "types";
+	private static final String MATRIX_FILE_EXTENSION = ".scores";
+
+	private final List<Post> posts;
+	// indexed by post ID, the post's index in `posts`
+	private final PostIds ids;
+	private final int[] indices;
+	// whether each post's index is its ID (always the case for created matrices), so rows needn't be reordered
+	private final boolean indexedById;
+	// in the order in which the types were first seen, which is the order of the genealogists
+	private final List<ScoreMatrix> matrices;
+	// the same matrices, but indexed by relation type ordinal for fast lookup
+	private volatile ScoreMatrix[] matricesByOrdinal;
+	// the folder new matrices are mapped into (if they're not kept in direct memory)
+	private final Optional<Path> folder;
+
+	private ScoreMatrices(List<Post> posts, List<ScoreMatrix> matrices, Optional<Path> folder) {
+		this.posts = Collections.unmodifiableList(posts);
+		this.ids = PostIds.of(posts);
+		this.indices = new int[posts.size()];
+		boolean indexedById = true;
+		for (int index = 0; index < posts.size(); index++) {
+			int id = ids.idOf(posts.get(index));
+			indices[id] = index;
+			indexedById &= id == index;
+		}
+		this.indexedById = indexedById;
+		this.matrices = new ArrayList<>(matrices);
+		this.matricesByOrdinal = new ScoreMatrix[0];
+		matrices.forEach(this::indexByOrdinal);
+		this.folder = folder;
+	}
+
+	/**
+	 * Creates empty matrices in direct (i.e. off-heap) memory.
+	 */
+	static ScoreMatrices create(Collection<Post> posts) {
+		return new ScoreMatrices(new ArrayList<>(posts), Collections.emptyList(), Optional.empty());
+	}
+
+	/**
+	 * Creates empty matrices that are backed by memory-mapped files in the specified folder,
+	 * so {@link #store(Path) storing} them there only needs to flush them.
+	 */
+	static ScoreMatrices create(Collection<Post> posts, Path folder) {
+		createDirectories(folder);
+		return new ScoreMatrices(new ArrayList<>(posts), Collections.emptyList(), Optional.of(folder));
+	}
+
+	private static void createDirectories(Path folder) {
+		try {
+			Files.createDirectories(folder);
+		} catch (IOException ex) {
+			throw new UncheckedIOException(ex);
+		}
+	}
+
+	public static ScoreMatrices load(Path folder, Collection<Post> posts) {
+		PostIds ids = PostIds.of(posts);
+		List<Post> indexedPosts = Utils.uncheckedFilesReadAllLines(folder.resolve(POSTS_FILE)).stream()
+				.map(Slug::of)
+				.map(slug -> ids
+						.bySlug(slug)
+						.orElseThrow(() -> new IllegalArgumentException(
+								"Score matrices contain unknown post " + slug.value() + " - they need to be recomputed.")))
+				.collect(toList());
+		if (indexedPosts.size() != posts.size())
+			throw new IllegalArgumentException("Score matrices don't contain all posts - they need to be recomputed.");
+
+		List<String> types = Utils.uncheckedFilesReadAllLines(folder.resolve(TYPES_FILE));
+		if (types.isEmpty())
+			throw new IllegalArgumentException("Score matrices contain no relation types: " + folder);
+		List<ScoreMatrix> matrices = IntStream.range(0, types.size())
+				.mapToObj(index -> ScoreMatrix.map(
+						RelationType.of(types.get(index)),
+						matrixFile(folder, index)))
+				.peek(matrix -> {
+					if (matrix.size() != indexedPosts.size())
+						throw new IllegalArgumentException(
+								"Score matrix for " + matrix.type().value() + " has the wrong size: " + matrix.size());
+				})
+				.collect(toList());
+		return new ScoreMatrices(indexedPosts, matrices, Optional.empty());
+	}
+
+	public void store(Path folder) {
+		createDirectories(folder);
+		Utils.uncheckedFilesWrite(
+				folder.resolve(POSTS_FILE),
+				posts.stream().map(post -> post.slug().value()).collect(joining("\n")));
+		Utils.uncheckedFilesWrite(
+				folder.resolve(TYPES_FILE),
+				matrices.stream().map(matrix -> matrix.type().value()).collect(joining("\n")));
+		for (int index = 0; index < matrices.size(); index++)
+			matrices.get(index).writeTo(matrixFile(folder, index));
+	}
+
+	private static Path matrixFile(Path folder, int index) {
+		return folder.resolve(index + MATRIX_FILE_EXTENSION);
+	}
+
+	/**
+	 * @param scores the scores of {@code post1} with all posts, indexed by the posts' {@link PostIds IDs}
+	 */
+	void record(RelationType type, Post post1, byte[] scores) {
+		byte[] row = scores;
+		if (!indexedById) {
+			row = new byte[scores.length];
+			for (int id = 0; id < scores.length; id++)
+				row[indices[id]] = scores[id];
+		}
+		matrixFor(type).scoreRow(indices[ids.idOf(post1)], row);
+	}
+
+	void register(RelationType type) {
+		matrixFor(type);
+	}
+
+	private ScoreMatrix matrixFor(RelationType type) {
+		ScoreMatrix[] matrices = matricesByOrdinal;
+		if (type.ordinal() < matrices.length && matrices[type.ordinal()] != null)
+			return matrices[type.ordinal()];
+
+		synchronized (this) {
+			matrices = matricesByOrdinal;
+			if (type.ordinal() < matrices.length && matrices[type.ordinal()] != null)
+				return matrices[type.ordinal()];
+			ScoreMatrix matrix = folder
+					.map(matrixFolder -> ScoreMatrix.create(type, posts.size(), matrixFile(matrixFolder, this.matrices.size())))
+					.orElseGet(() -> ScoreMatrix.allocate(type, posts.size()));
+			this.matrices.add(matrix);
+			indexByOrdinal(matrix);
+			return matrix;
+		}
+	}
+
+	private void indexByOrdinal(ScoreMatrix matrix) {
+		int ordinal = matrix.type().ordinal();
+		ScoreMatrix[] matrices = Arrays.copyOf(matricesByOrdinal, Math.max(matricesByOrdinal.length, ordinal + 1));
+		matrices[ordinal] = matrix;
+		matricesByOrdinal = matrices;
+	}
+
+	public List<Post> posts() {
+		return posts;
+	}
+
+	public Stream<ScoreMatrix> matrices() {
+		return matrices.stream();
+	}
+
+	/**
+	 * @param weights the weights with which to aggregate the typed scores
+	 * @return the same relations as {@link Genealogy#inferRelations()} would for the genealogists
+	 * 		that inferred these scores and the specified weights
+	 */
+	public Stream<Relation> relations(Weights weights) {
+		return IntStream.range(0, posts.size())
+				.boxed()
+				.flatMap(post1 -> {
+					// one aggregation per post keeps this safe if the stream is made parallel
+					long[] scores = aggregation(weights).scoresOf(post1);
+					return IntStream.range(0, posts.size())
+							// no need to compare posts with themselves
+							.filter(post2 -> post1 != post2)
+							.mapToObj(post2 -> new Relation(posts.get(post1), posts.get(post2), scores[post2]));
+				});
+	}
+
+	/**
+	 * @param weights the weights with which to aggregate the typed scores
+	 * @return an aggregation of these scores with the specified weights, which computes the scores
+	 * 		of one post at a time without creating {@link Relation} instances
+	 */
+	public Aggregation aggregation(Weights weights) {
+		return new Aggregation(weights);
+	}
+
+	/**
+	 * Aggregates the typed scores of one post with all others. Instances are not thread-safe.
+	 */
+	public class Aggregation {
+
+		private final ScoreMatrix[] typeMatrices;
+		private final double[] weights;
+		private final byte[][] typedScores;
+		private final double[] totals;
+		private final long[] scores;
+
+		private Aggregation(Weights weights) {
+			this.typeMatrices = matrices.toArray(new ScoreMatrix[0]);
+			this.weights = Arrays.stream(typeMatrices)
+					.mapToDouble(matrix -> weights.weightOf(matrix.type()))
+					.toArray();
+			this.typedScores = new byte[typeMatrices.length][posts.size()];
+			this.totals = new double[posts.size()];
+			this.scores = new long[posts.size()];
+		}
+
+		/**
+		 * @return the scores of the specified post (as {@code post1}) with all posts, indexed like {@link #posts()};
+		 * 		the array is reused by the next call, and the score with the post itself is meaningless
+		 */
+		public long[] scoresOf(int post) {
+			Stage stage = Stages.aggregation(posts.get(post).slug().value());
+			for (int type = 0; type < typeMatrices.length; type++)
+				typeMatrices[type].copyRow(post, typedScores[type], 0);
+			Relation.aggregate(typedScores, weights, totals, scores);
+			stage.posts(1).pairs(scores.length - 1).bytes((long) typeMatrices.length * scores.length).commit();
+			return scores;
+		}
+
+	}
+
+}
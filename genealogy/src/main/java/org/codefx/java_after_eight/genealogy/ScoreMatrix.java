@@ -0,0 +1,182 @@
+package org.codefx.java_after_eight.genealogy;
+
+import org.codefx.java_after_eight.genealogist.RelationType;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.util.Optional;
+
+import static java.lang.String.format;
+import static java.nio.file.StandardOpenOption.CREATE;
+import static java.nio.file.StandardOpenOption.READ;
+import static java.nio.file.StandardOpenOption.TRUNCATE_EXISTING;
+import static java.nio.file.StandardOpenOption.WRITE;
+import static java.util.Objects.requireNonNull;
+
+/**
+ * The scores of one relation type for all pairs of posts with one byte per pair,
+ * where posts are addressed by their index in {@link ScoreMatrices}.
+ *
+ * <p>The scores are kept off-heap, either in direct buffers or in a memory-mapped file, so even
+ * matrices for tens of thousands of posts put no pressure on the garbage collector. Because a
+ * buffer can hold at most 2 GB, the matrix is split into chunks of whole rows.
+ *
+ * <p>When stored in a file, the matrix is preceded by a header of two ints (magic number and size),
+ * followed by the scores in row-major order (i.e. all scores of the first post come first).
+ */
+public class ScoreMatrix {
+
+	private static final int MAGIC_NUMBER = 0x53434f52;
+	private static final int HEADER_BYTES = 2 * Integer.BYTES;
+
+	private final RelationType type;
+	private final int size;
+	private final int rowsPerChunk;
+	private final ByteBuffer[] chunks;
+	// the file the chunks are mapped from (if any)
+	private final Optional<Path> file;
+
+	private ScoreMatrix(RelationType type, int size, ByteBuffer[] chunks, Optional<Path> file) {
+		this.type = requireNonNull(type);
+		this.size = size;
+		this.rowsPerChunk = rowsPerChunk(size);
+		this.chunks = requireNonNull(chunks);
+		this.file = requireNonNull(file);
+	}
+
+	private static int rowsPerChunk(int size) {
+		return size == 0 ? 1 : Integer.MAX_VALUE / size;
+	}
+
+	private static int chunkCount(int size) {
+		return (size + rowsPerChunk(size) - 1) / rowsPerChunk(size);
+	}
+
+	private static int chunkBytes(int size, int chunk) {
+		int rows = Math.min(rowsPerChunk(size), size - chunk * rowsPerChunk(size));
+		return rows * size;
+	}
+
+	/**
+	 * Creates a matrix in direct (i.e. off-heap) memory.
+	 */
+	static ScoreMatrix allocate(RelationType type, int size) {
+		ByteBuffer[] chunks = new ByteBuffer[chunkCount(size)];
+		for (int chunk = 0; chunk < chunks.length; chunk++)
+			chunks[chunk] = ByteBuffer.allocateDirect(chunkBytes(size, chunk));
+		return new ScoreMatrix(type, size, chunks, Optional.empty());
+	}
+
+	/**
+	 * Creates a matrix that is backed by the specified file, which is created (or overwritten).
+	 */
+	static ScoreMatrix create(RelationType type, int size, Path file) {
+		try (FileChannel channel = FileChannel.open(file, CREATE, TRUNCATE_EXISTING, READ, WRITE)) {
+			ByteBuffer header = ByteBuffer.allocate(HEADER_BYTES);
+			header.putInt(MAGIC_NUMBER).putInt(size).flip();
+			while (header.hasRemaining())
+				channel.write(header);
+			ByteBuffer[] chunks = mapChunks(channel, size, FileChannel.MapMode.READ_WRITE);
+			return new ScoreMatrix(type, size, chunks, Optional.of(file));
+		} catch (IOException ex) {
+			throw new UncheckedIOException(ex);
+		}
+	}
+
+	static ScoreMatrix map(RelationType type, Path file) {
+		try (FileChannel channel = FileChannel.open(file, READ)) {
+			ByteBuffer header = ByteBuffer.allocate(HEADER_BYTES);
+			channel.read(header, 0);
+			header.flip();
+			if (header.remaining() < HEADER_BYTES || header.getInt() != MAGIC_NUMBER)
+				throw new IllegalArgumentException("Not a score matrix: " + file);
+			int size = header.getInt();
+			if (size < 0 || channel.size() != HEADER_BYTES + (long) size * size)
+				throw new IllegalArgumentException(format(
+						"Score matrix of size %d should have %d bytes: %s", size, HEADER_BYTES + (long) size * size, file));
+			ByteBuffer[] chunks = mapChunks(channel, size, FileChannel.MapMode.READ_ONLY);
+			return new ScoreMatrix(type, size, chunks, Optional.of(file));
+		} catch (IOException ex) {
+			throw new UncheckedIOException(ex);
+		}
+	}
+
+	private static ByteBuffer[] mapChunks(FileChannel channel, int size, FileChannel.MapMode mode) throws IOException {
+		ByteBuffer[] chunks = new ByteBuffer[chunkCount(size)];
+		long position = HEADER_BYTES;
+		for (int chunk = 0; chunk < chunks.length; chunk++) {
+			// the mapping stays valid after the channel is closed
+			chunks[chunk] = channel.map(mode, position, chunkBytes(size, chunk));
+			position += chunkBytes(size, chunk);
+		}
+		return chunks;
+	}
+
+	void writeTo(Path file) {
+		if (this.file.isPresent() && this.file.get().toAbsolutePath().equals(file.toAbsolutePath())) {
+			// the scores are already in the file, they just need to be flushed
+			for (ByteBuffer chunk : chunks)
+				((MappedByteBuffer) chunk).force();
+			return;
+		}
+
+		try (FileChannel channel = FileChannel.open(file, CREATE, TRUNCATE_EXISTING, WRITE)) {
+			ByteBuffer header = ByteBuffer.allocate(HEADER_BYTES);
+			header.putInt(MAGIC_NUMBER).putInt(size).flip();
+			while (header.hasRemaining())
+				channel.write(header);
+			for (ByteBuffer chunk : chunks) {
+				ByteBuffer content = chunk.duplicate();
+				content.clear();
+				while (content.hasRemaining())
+					channel.write(content);
+			}
+		} catch (IOException ex) {
+			throw new UncheckedIOException(ex);
+		}
+	}
+
+	public RelationType type() {
+		return type;
+	}
+
+	public int size() {
+		return size;
+	}
+
+	public int score(int post1, int post2) {
+		return chunks[post1 / rowsPerChunk].get(offset(post1, post2));
+	}
+
+	private int offset(int post1, int post2) {
+		return (post1 % rowsPerChunk) * size + post2;
+	}
+
+	/**
+	 * Copies all scores of the specified post (i.e. where it is {@code post1}) into {@code target},
+	 * starting at {@code offset}.
+	 */
+	public void copyRow(int post, byte[] target, int offset) {
+		ByteBuffer row = chunks[post / rowsPerChunk].duplicate();
+		row.position(offset(post, 0));
+		row.get(target, offset, size);
+	}
+
+	void score(int post1, int post2, long score) {
+		chunks[post1 / rowsPerChunk].put(offset(post1, post2), (byte) score);
+	}
+
+	/**
+	 * Overwrites all scores of the specified post (i.e. where it is {@code post1}) with those in {@code source}.
+	 */
+	void scoreRow(int post, byte[] source) {
+		ByteBuffer row = chunks[post / rowsPerChunk].duplicate();
+		row.position(offset(post, 0));
+		row.put(source, 0, size);
+	}
+
+}
@@ -2,18 +2,29 @@ package org.codefx.java_after_eight.genealogy;
 
 import org.codefx.java_after_eight.genealogist.RelationType;
 
+import java.util.Arrays;
 import java.util.HashMap;
+import java.util.List;
 import java.util.Map;
 
 public class Weights {
 
-	private final Map<RelationType, Double> weights;
+	private static final String DEFAULT_WEIGHT_KEY = "default";
+
+	// indexed by relation type ordinal - types without an entry (or beyond the array) get the default weight
+	private final double[] weights;
 	private final double defaultWeight;
 
 	public Weights(Map<RelationType, Double> weights, double defaultWeight) {
-		this.weights = new HashMap<>(weights);
-		if (this.weights.entrySet().stream().anyMatch(entry -> entry.getKey() == null || entry.getValue() == null))
+		if (weights.entrySet().stream().anyMatch(entry -> entry.getKey() == null || entry.getValue() == null))
 			throw new NullPointerException("Neither relation type nor weight can be null.");
+		int length = weights.keySet().stream()
+				.mapToInt(type -> type.ordinal() + 1)
+				.max()
+				.orElse(0);
+		this.weights = new double[length];
+		Arrays.fill(this.weights, defaultWeight);
+		weights.forEach((type, weight) -> this.weights[type.ordinal()] = weight);
 		this.defaultWeight = defaultWeight;
 	}
 
@@ -21,8 +32,41 @@ public class Weights {
 		return new Weights(new HashMap<>(), 1);
 	}
 
+	/**
+	 * Parses lines of the form {@code type = weight}, where the type {@value DEFAULT_WEIGHT_KEY} defines the
+	 * default weight (otherwise 1). Empty lines and lines starting with {@code #} are ignored.
+	 *
+	 * @param lines the lines to parse
+	 * @return the weights defined by the lines
+	 * @throws IllegalArgumentException if a non-empty line is no type/weight pair
+	 */
+	public static Weights from(List<String> lines) {
+		Map<RelationType, Double> weights = new HashMap<>();
+		double defaultWeight = 1;
+		for (String line : lines) {
+			if (line.trim().isEmpty() || line.trim().startsWith("#"))
+				continue;
+			String[] typeAndWeight = line.split("=", 2);
+			if (typeAndWeight.length < 2)
+				throw new IllegalArgumentException("Line doesn't seem to be a type/weight pair (no equals sign): " + line);
+			String type = typeAndWeight[0].trim();
+			double weight = Double.parseDouble(typeAndWeight[1].trim());
+			if (type.equals(DEFAULT_WEIGHT_KEY))
+				defaultWeight = weight;
+			else
+				weights.put(RelationType.of(type), weight);
+		}
+		return new Weights(weights, defaultWeight);
+	}
+
 	public double weightOf(RelationType genealogistType) {
-		return weights.getOrDefault(genealogistType, defaultWeight);
+		return weightOf(genealogistType.ordinal());
+	}
+
+	double weightOf(int relationTypeOrdinal) {
+		return relationTypeOrdinal < weights.length
+				? weights[relationTypeOrdinal]
+				: defaultWeight;
 	}
 
 }
@@ -0,0 +1,103 @@
+package org.codefx.java_after_eight.host;
+
+import org.codefx.java_after_eight.Main;
+import org.codefx.java_after_eight.genealogist.Genealogist;
+import org.codefx.java_after_eight.genealogist.GenealogistService;
+import org.codefx.java_after_eight.genealogist.RelationType;
+import org.codefx.java_after_eight.post.Post;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.EOFException;
+import java.io.FileDescriptor;
+import java.io.FileInputStream;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.ServiceLoader;
+
+import static java.util.stream.Collectors.toList;
+
+/**
+ * Runs in a separate process, loads the {@link GenealogistService}s on its class path and infers typed relations
+ * for the pairs of posts {@link RemoteGenealogists} sends it over standard in/out (see {@link HostProtocol}).
+ *
+ * <p>Arguments: the article, talk, and video folders.
+ */
+public class GenealogistHost {
+
+	public static void main(String[] args) {
+		// standard out carries the protocol, so everything else goes to standard error
+		FileOutputStream protocolOut = new FileOutputStream(FileDescriptor.out);
+		System.setOut(System.err);
+		if (args.length != 3)
+			throw new IllegalArgumentException("Expected article, talk, and video folder, but got " + args.length + " arguments.");
+
+		List<Post> posts = Main.loadPosts(Paths.get(args[0]), Paths.get(args[1]), Paths.get(args[2]));
+		List<Genealogist> genealogists = new ArrayList<>();
+		ServiceLoader
+				.load(GenealogistService.class)
+				.forEach(service -> genealogists.add(service.procure(posts)));
+
+		try {
+			serve(
+					posts,
+					genealogists,
+					new DataInputStream(new BufferedInputStream(new FileInputStream(FileDescriptor.in))),
+					new DataOutputStream(new BufferedOutputStream(protocolOut)));
+		} catch (IOException ex) {
+			throw new UncheckedIOException(ex);
+		}
+	}
+
+	static void serve(Collection<Post> posts, List<Genealogist> genealogists, DataInputStream in, DataOutputStream out)
+			throws IOException {
+		List<Post> sortedPosts = HostProtocol.sortedBySlug(posts);
+		List<RelationType> types = genealogists.stream()
+				.map(Genealogist::type)
+				.collect(toList());
+
+		out.writeInt(HostProtocol.MAGIC_NUMBER);
+		out.writeInt(sortedPosts.size());
+		out.writeInt(HostProtocol.fingerprint(sortedPosts));
+		out.writeInt(types.size());
+		for (RelationType type : types)
+			out.writeUTF(type.value());
+		out.flush();
+
+		while (true) {
+			int pairs;
+			try {
+				pairs = in.readInt();
+			} catch (EOFException ex) {
+				// the client is gone
+				return;
+			}
+			if (pairs == HostProtocol.SHUTDOWN)
+				return;
+
+			int[] posts1 = new int[pairs];
+			int[] posts2 = new int[pairs];
+			for (int pair = 0; pair < pairs; pair++) {
+				posts1[pair] = in.readInt();
+				posts2[pair] = in.readInt();
+			}
+			byte[] scores = new byte[pairs];
+			for (Genealogist genealogist : genealogists) {
+				for (int pair = 0; pair < pairs; pair++)
+					scores[pair] = (byte) genealogist
+							.infer(sortedPosts.get(posts1[pair]), sortedPosts.get(posts2[pair]))
+							.score();
+				out.write(scores);
+			}
+			out.flush();
+		}
+	}
+
+}
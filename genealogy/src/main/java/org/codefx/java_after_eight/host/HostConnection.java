@@ -0,0 +1,140 @@
+package org.codefx.java_after_eight.host;
+
+import org.codefx.java_after_eight.genealogist.RelationType;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeoutException;
+
+import static java.lang.String.format;
+import static java.util.Objects.requireNonNull;
+import static java.util.concurrent.TimeUnit.NANOSECONDS;
+
+/**
+ * The client side of the connection to one {@link GenealogistHost}. Instances are thread-safe,
+ * but only handle one request at a time.
+ *
+ * <p>If the host doesn't answer a request in time or is gone, it is killed and the connection
+ * fails all later requests.
+ */
+class HostConnection implements AutoCloseable {
+
+	private final DataInputStream in;
+	private final DataOutputStream out;
+	private final Optional<Process> process;
+	private final Duration timeout;
+	private final List<RelationType> types;
+	// requests are made on this thread, so waiting for their answers can time out
+	private final ExecutorService requests;
+	private volatile boolean failed;
+
+	HostConnection(
+			InputStream in, OutputStream out, int postCount, int fingerprint, Duration timeout, Optional<Process> process) {
+		this.in = new DataInputStream(new BufferedInputStream(in));
+		this.out = new DataOutputStream(new BufferedOutputStream(out));
+		this.process = requireNonNull(process);
+		this.timeout = requireNonNull(timeout);
+		if (timeout.isNegative() || timeout.isZero())
+			throw new IllegalArgumentException("Genealogist host timeout must be greater zero: " + timeout);
+		this.requests = InferenceExecutors.fixedPool(1, "genealogist-host-request");
+		try {
+			if (this.in.readInt() != HostProtocol.MAGIC_NUMBER)
+				throw new IllegalStateException("Genealogist host doesn't speak the protocol.");
+			int hostPostCount = this.in.readInt();
+			int hostFingerprint = this.in.readInt();
+			if (hostPostCount != postCount || hostFingerprint != fingerprint)
+				throw new IllegalStateException(format(
+						"Genealogist host loaded other posts (%d instead of %d).", hostPostCount, postCount));
+			int typeCount = this.in.readInt();
+			List<RelationType> types = new ArrayList<>();
+			for (int type = 0; type < typeCount; type++)
+				types.add(RelationType.of(this.in.readUTF()));
+			this.types = Collections.unmodifiableList(types);
+		} catch (IOException ex) {
+			throw new UncheckedIOException(ex);
+		}
+	}
+
+	List<RelationType> types() {
+		return types;
+	}
+
+	/**
+	 * @return for each type, the scores of the pairs {@code (posts1[i], posts2[i])}
+	 * @throws HostFailedException if the host didn't answer in time or is gone
+	 */
+	synchronized byte[][] infer(int[] posts1, int[] posts2) {
+		if (failed)
+			throw new HostFailedException("Genealogist host failed earlier.", null);
+		Future<byte[][]> request = requests.submit(() -> request(posts1, posts2));
+		try {
+			return request.get(timeout.toNanos(), NANOSECONDS);
+		} catch (TimeoutException ex) {
+			throw fail(request, "Genealogist host didn't answer within " + timeout + ".", ex);
+		} catch (ExecutionException ex) {
+			throw fail(request, "Genealogist host failed: " + ex.getCause(), ex.getCause());
+		} catch (InterruptedException ex) {
+			Thread.currentThread().interrupt();
+			throw fail(request, "Interrupted while waiting for genealogist host.", ex);
+		}
+	}
+
+	private byte[][] request(int[] posts1, int[] posts2) throws IOException {
+		out.writeInt(posts1.length);
+		for (int pair = 0; pair < posts1.length; pair++) {
+			out.writeInt(posts1[pair]);
+			out.writeInt(posts2[pair]);
+		}
+		out.flush();
+
+		byte[][] scores = new byte[types.size()][posts1.length];
+		for (byte[] typeScores : scores)
+			in.readFully(typeScores);
+		return scores;
+	}
+
+	private HostFailedException fail(Future<?> request, String message, Throwable cause) {
+		failed = true;
+		// killing the host ends blocked reads with an EOF; interrupting them covers hosts that aren't processes
+		process.ifPresent(Process::destroyForcibly);
+		request.cancel(true);
+		requests.shutdownNow();
+		return new HostFailedException(message, cause);
+	}
+
+	@Override
+	public synchronized void close() {
+		requests.shutdownNow();
+		if (failed)
+			return;
+		try {
+			out.writeInt(HostProtocol.SHUTDOWN);
+			out.flush();
+			out.close();
+		} catch (IOException ex) {
+			// the host is already gone
+		}
+		process.ifPresent(process -> {
+			try {
+				process.waitFor();
+			} catch (InterruptedException ex) {
+				Thread.currentThread().interrupt();
+			}
+		});
+	}
+
+}
@@ -0,0 +1,12 @@
+package org.codefx.java_after_eight.host;
+
+/**
+ * Thrown when a {@link GenealogistHost} didn't answer a request in time or is gone.
+ */
+class HostFailedException extends RuntimeException {
+
+	HostFailedException(String message, Throwable cause) {
+		super(message, cause);
+	}
+
+}
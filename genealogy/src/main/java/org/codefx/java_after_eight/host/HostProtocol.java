@@ -0,0 +1,49 @@
+package org.codefx.java_after_eight.host;
+
+import org.codefx.java_after_eight.post.Post;
+
+import java.util.Collection;
+import java.util.List;
+
+import static java.util.Comparator.comparing;
+import static java.util.stream.Collectors.toList;
+
+/**
+ * The protocol between {@link RemoteGenealogists} and a {@link GenealogistHost} (all values big-endian):
+ *
+ * <pre>
+ * host:    int magic number, int number of posts, int fingerprint of the posts,
+ *          int number of genealogists (g), g times the UTF-encoded relation type
+ * client:  int number of pairs (p, 0 to shut down), p times int post1 and int post2
+ * host:    g times p bytes, the scores of each genealogist for the pairs
+ * </pre>
+ *
+ * Posts are identified by their index in the list of posts sorted by slug.
+ */
+final class HostProtocol {
+
+	static final int MAGIC_NUMBER = 0x47454e48;
+	static final int SHUTDOWN = 0;
+
+	private HostProtocol() {
+		// private constructor to prevent accidental instantiation of utility class
+	}
+
+	static List<Post> sortedBySlug(Collection<Post> posts) {
+		return posts.stream()
+				.sorted(comparing(Post::slug))
+				.collect(toList());
+	}
+
+	/**
+	 * @return a fingerprint of the posts, so client and host can verify that they identify them the same way
+	 */
+	static int fingerprint(List<Post> sortedPosts) {
+		// `String::hashCode` is specified, so this is stable across JVMs
+		return sortedPosts.stream()
+				.map(post -> post.slug().value())
+				.collect(toList())
+				.hashCode();
+	}
+
+}
@@ -0,0 +1,25 @@
+package org.codefx.java_after_eight.host;
+
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+/**
+ * Creates the executor that sends inference requests to genealogist hosts, whose threads mostly wait for
+ * answers. On Java 17 and later, the multi-release JAR replaces this class with one that uses virtual threads
+ * where they're available (see {@code src/main/java17}).
+ */
+class InferenceExecutors {
+
+	static ExecutorService create(int threads, String name) {
+		return fixedPool(threads, name);
+	}
+
+	static ExecutorService fixedPool(int threads, String name) {
+		return Executors.newFixedThreadPool(threads, runnable -> {
+			Thread thread = new Thread(runnable, name);
+			thread.setDaemon(true);
+			return thread;
+		});
+	}
+
+}
@@ -0,0 +1,240 @@
+package org.codefx.java_after_eight.host;
+
+import org.codefx.java_after_eight.genealogist.Genealogist;
+import org.codefx.java_after_eight.genealogist.RelationType;
+import org.codefx.java_after_eight.genealogist.TypedRelation;
+import org.codefx.java_after_eight.post.Post;
+import org.codefx.java_after_eight.post.PostIds;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.net.URISyntaxException;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static java.util.concurrent.TimeUnit.MILLISECONDS;
+
+/**
+ * Genealogists that run in {@link GenealogistHost} processes, so a slow or memory-hungry genealogist
+ * can't stall or kill the main process.
+ *
+ * <p>Scores are requested one row (i.e. one {@code post1} with all other posts) at a time and rows
+ * are prefetched in the order in which they'll be inferred, so several hosts can work in parallel.
+ *
+ * <p>A host that doesn't answer in time or crashes is killed and its requests are made to the remaining
+ * hosts. Once all hosts failed, all remote genealogists score 0.
+ */
+public class RemoteGenealogists implements AutoCloseable {
+
+	// the hosts address posts by their position in slug order, which is their ID
+	private final PostIds posts;
+	// indexed by post ID, the position of the post's row in `rowOrder` (or -1 if it isn't in there)
+	private final int[] rowPositions;
+	private final List<Post> rowOrder;
+	private final List<HostConnection> connections;
+	private final BlockingQueue<HostConnection> idleConnections;
+	private final AtomicInteger liveConnections;
+	private final ExecutorService executor;
+	private final List<RelationType> types;
+	// the rows that were requested (and not yet passed), guarded by `this`
+	private final Map<Post, CompletableFuture<byte[][]>> rows;
+
+	RemoteGenealogists(Collection<Post> posts, List<Post> rowOrder, List<HostConnection> connections) {
+		if (connections.isEmpty())
+			throw new IllegalArgumentException("At least one genealogist host is required.");
+		this.posts = PostIds.of(posts);
+		this.rowOrder = new ArrayList<>(rowOrder);
+		this.rowPositions = new int[posts.size()];
+		Arrays.fill(rowPositions, -1);
+		for (int position = 0; position < this.rowOrder.size(); position++)
+			rowPositions[this.posts.idOf(this.rowOrder.get(position))] = position;
+		this.connections = new ArrayList<>(connections);
+		this.idleConnections = new LinkedBlockingQueue<>(connections);
+		this.liveConnections = new AtomicInteger(connections.size());
+		this.executor = InferenceExecutors.create(connections.size(), "genealogist-host-client");
+		this.types = connections.get(0).types();
+		connections.forEach(connection -> {
+			if (!connection.types().equals(types))
+				throw new IllegalStateException("Genealogist hosts have different genealogists.");
+		});
+		this.rows = new HashMap<>();
+	}
+
+	/**
+	 * Starts the specified number of host processes.
+	 *
+	 * @param hostClassPath the class path from which the hosts load their genealogists
+	 * @param folders the article, talk, and video folders the posts were loaded from
+	 * @param rowOrder the posts in the order in which their relations (as {@code post1}) will be inferred
+	 * @param timeout how long to wait for a host to answer a request before it is killed
+	 */
+	public static RemoteGenealogists start(
+			String hostClassPath,
+			int workers,
+			List<Path> folders,
+			Collection<Post> posts,
+			List<Post> rowOrder,
+			Duration timeout) {
+		if (workers < 1)
+			throw new IllegalArgumentException("Number of genealogist hosts must be greater zero: " + workers);
+		List<Post> sortedPosts = HostProtocol.sortedBySlug(posts);
+		int fingerprint = HostProtocol.fingerprint(sortedPosts);
+
+		List<String> command = new ArrayList<>();
+		command.add(Paths.get(System.getProperty("java.home"), "bin", "java").toString());
+		command.add("-cp");
+		command.add(hostClassPath + File.pathSeparator + ownClassPath());
+		command.add(GenealogistHost.class.getName());
+		folders.forEach(folder -> command.add(folder.toAbsolutePath().toString()));
+
+		List<HostConnection> connections = new ArrayList<>();
+		try {
+			for (int worker = 0; worker < workers; worker++) {
+				Process process = new ProcessBuilder(command)
+						.redirectError(ProcessBuilder.Redirect.INHERIT)
+						.start();
+				connections.add(new HostConnection(
+						process.getInputStream(),
+						process.getOutputStream(),
+						posts.size(),
+						fingerprint,
+						timeout,
+						Optional.of(process)));
+			}
+		} catch (IOException ex) {
+			connections.forEach(HostConnection::close);
+			throw new UncheckedIOException(ex);
+		}
+		return new RemoteGenealogists(sortedPosts, rowOrder, connections);
+	}
+
+	private static String ownClassPath() {
+		try {
+			return Paths.get(GenealogistHost.class.getProtectionDomain().getCodeSource().getLocation().toURI()).toString();
+		} catch (URISyntaxException ex) {
+			throw new IllegalStateException(ex);
+		}
+	}
+
+	public Collection<Genealogist> genealogists() {
+		List<Genealogist> genealogists = new ArrayList<>();
+		for (int type = 0; type < types.size(); type++)
+			genealogists.add(new RemoteGenealogist(type));
+		return genealogists;
+	}
+
+	private byte[][] scoresOf(Post post1) {
+		CompletableFuture<byte[][]> row;
+		synchronized (this) {
+			row = rows.computeIfAbsent(post1, this::requestRow);
+			int position = rowPositions[posts.idOf(post1)];
+			if (position != -1) {
+				// rows are inferred in order, so earlier ones are no longer needed...
+				Iterator<Post> requested = rows.keySet().iterator();
+				while (requested.hasNext()) {
+					int requestedPosition = rowPositions[posts.idOf(requested.next())];
+					if (requestedPosition == -1 || requestedPosition < position)
+						requested.remove();
+				}
+				// ... and later ones can already be computed
+				int prefetchEnd = Math.min(rowOrder.size(), position + 1 + 2 * connections.size());
+				for (int next = position + 1; next < prefetchEnd; next++)
+					rows.computeIfAbsent(rowOrder.get(next), this::requestRow);
+			}
+		}
+		return row.join();
+	}
+
+	private CompletableFuture<byte[][]> requestRow(Post post1) {
+		int id = posts.idOf(post1);
+		int[] posts1 = new int[posts.size() - 1];
+		int[] posts2 = new int[posts.size() - 1];
+		for (int post2 = 0, pair = 0; post2 < posts.size(); post2++) {
+			// no need to compare posts with themselves
+			if (post2 == id)
+				continue;
+			posts1[pair] = id;
+			posts2[pair] = post2;
+			pair++;
+		}
+		return CompletableFuture.supplyAsync(() -> {
+			// the executor may have more threads than there are connections
+			Optional<HostConnection> connection;
+			while ((connection = takeIdleConnection()).isPresent())
+				try {
+					byte[][] scores = connection.get().infer(posts1, posts2);
+					idleConnections.add(connection.get());
+					return scores;
+				} catch (HostFailedException ex) {
+					// the failed connection is dropped and the request is made to another one
+					int left = liveConnections.decrementAndGet();
+					System.err.println(ex.getMessage() + " " + (left == 0
+							? "All genealogist hosts failed, so remote relations score 0."
+							: left + " genealogist host(s) left."));
+				}
+			return new byte[types.size()][posts1.length];
+		}, executor);
+	}
+
+	private Optional<HostConnection> takeIdleConnection() {
+		try {
+			// poll instead of take, so waiting threads notice when the last host failed
+			while (liveConnections.get() > 0) {
+				HostConnection connection = idleConnections.poll(100, MILLISECONDS);
+				if (connection != null)
+					return Optional.of(connection);
+			}
+			return Optional.empty();
+		} catch (InterruptedException ex) {
+			Thread.currentThread().interrupt();
+			throw new IllegalStateException("Interrupted while waiting for a genealogist host.", ex);
+		}
+	}
+
+	public List<RelationType> types() {
+		return types;
+	}
+
+	@Override
+	public void close() {
+		executor.shutdownNow();
+		connections.forEach(HostConnection::close);
+	}
+
+	private class RemoteGenealogist implements Genealogist {
+
+		private final int type;
+
+		RemoteGenealogist(int type) {
+			this.type = type;
+		}
+
+		@Override
+		public TypedRelation infer(Post post1, Post post2) {
+			if (post1 == post2)
+				throw new IllegalArgumentException("Remote genealogists don't compare posts with themselves.");
+			int id1 = posts.idOf(post1);
+			int id2 = posts.idOf(post2);
+			// the row skips `post1` itself
+			int column = id2 < id1 ? id2 : id2 - 1;
+			return new TypedRelation(post1, post2, types.get(type), scoresOf(post1)[type][column]);
+		}
+
+	}
+
+}
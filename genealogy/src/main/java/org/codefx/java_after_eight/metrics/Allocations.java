@@ -0,0 +1,45 @@
+package org.codefx.java_after_eight.metrics;
+
+import java.lang.management.ManagementFactory;
+import java.lang.management.ThreadMXBean;
+import java.util.Arrays;
+
+/**
+ * Measures allocated bytes with HotSpot's {@code com.sun.management.ThreadMXBean}, which other VMs may lack.
+ */
+class Allocations {
+
+	private static final ThreadMXBean THREADS = ManagementFactory.getThreadMXBean();
+	private static final boolean SUPPORTED = isSupported(THREADS);
+
+	private static boolean isSupported(ThreadMXBean threads) {
+		try {
+			if (!(threads instanceof com.sun.management.ThreadMXBean))
+				return false;
+			com.sun.management.ThreadMXBean hotSpotThreads = (com.sun.management.ThreadMXBean) threads;
+			return hotSpotThreads.isThreadAllocatedMemorySupported() && hotSpotThreads.isThreadAllocatedMemoryEnabled();
+		} catch (LinkageError | UnsupportedOperationException ex) {
+			return false;
+		}
+	}
+
+	static boolean supported() {
+		return SUPPORTED;
+	}
+
+	/**
+	 * @return the bytes allocated by all live threads so far (or 0 if that can't be measured)
+	 */
+	static long allocatedBytes() {
+		if (!SUPPORTED)
+			return 0;
+		// phases may run in parallel streams, so the current thread alone would miss most allocations;
+		// threads that end during a phase take their allocations with them, though
+		long[] allocated = ((com.sun.management.ThreadMXBean) THREADS).getThreadAllocatedBytes(THREADS.getAllThreadIds());
+		return Arrays.stream(allocated)
+				// threads that ended since their ID was returned are reported as -1
+				.filter(bytes -> bytes > 0)
+				.sum();
+	}
+
+}
@@ -0,0 +1,26 @@
+package org.codefx.java_after_eight.metrics;
+
+import java.util.concurrent.atomic.LongAdder;
+
+public class Counter {
+
+	private final LongAdder count = new LongAdder();
+
+	Counter() {
+	}
+
+	public void increment() {
+		count.increment();
+	}
+
+	public void add(long amount) {
+		if (amount < 0)
+			throw new IllegalArgumentException("Counters can only increase, but amount is " + amount);
+		count.add(amount);
+	}
+
+	public long count() {
+		return count.sum();
+	}
+
+}
@@ -0,0 +1,21 @@
+package org.codefx.java_after_eight.metrics;
+
+/**
+ * A value that is set rather than accumulated, e.g. a rate that was computed from other metrics.
+ */
+public class Gauge {
+
+	private volatile double value;
+
+	Gauge() {
+	}
+
+	public void set(double value) {
+		this.value = value;
+	}
+
+	public double value() {
+		return value;
+	}
+
+}
@@ -0,0 +1,87 @@
+package org.codefx.java_after_eight.metrics;
+
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.LongAccumulator;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Records non-negative values into buckets of powers of two, so recording is a few atomic increments and
+ * quantiles are precise up to a factor of two.
+ */
+public class Histogram {
+
+	// bucket `i` counts values in [2^(i-1), 2^i), bucket 0 counts zeros
+	static final int BUCKETS = Long.SIZE;
+
+	private final AtomicLongArray buckets = new AtomicLongArray(BUCKETS);
+	private final LongAdder count = new LongAdder();
+	private final LongAdder sum = new LongAdder();
+	private final LongAccumulator max = new LongAccumulator(Math::max, 0);
+
+	Histogram() {
+	}
+
+	public void record(long value) {
+		if (value < 0)
+			throw new IllegalArgumentException("Histograms can only record non-negative values, but value is " + value);
+		buckets.incrementAndGet(bucketOf(value));
+		count.increment();
+		sum.add(value);
+		max.accumulate(value);
+	}
+
+	private static int bucketOf(long value) {
+		return Long.SIZE - Long.numberOfLeadingZeros(value);
+	}
+
+	/**
+	 * @return the exclusive upper bound of the specified bucket (saturated at {@code Long.MAX_VALUE})
+	 */
+	static long upperBoundOf(int bucket) {
+		return bucket >= Long.SIZE - 1 ? Long.MAX_VALUE : 1L << bucket;
+	}
+
+	long bucketCount(int bucket) {
+		return buckets.get(bucket);
+	}
+
+	public long count() {
+		return count.sum();
+	}
+
+	public long sum() {
+		return sum.sum();
+	}
+
+	public long max() {
+		return max.get();
+	}
+
+	public double mean() {
+		long count = count();
+		return count == 0 ? 0 : (double) sum() / count;
+	}
+
+	/**
+	 * @param quantile a value in [0; 1]
+	 * @return an upper bound for the quantile that is at most twice as large as the recorded value
+	 */
+	public long quantile(double quantile) {
+		if (quantile < 0 || 1 < quantile)
+			throw new IllegalArgumentException("Quantile must be in [0; 1]: " + quantile);
+		long count = count();
+		if (count == 0)
+			return 0;
+
+		long rank = Math.max(1, (long) Math.ceil(quantile * count));
+		long seen = 0;
+		for (int bucket = 0; bucket < BUCKETS; bucket++) {
+			seen += buckets.get(bucket);
+			if (seen >= rank)
+				// the bucket's largest value can't be larger than the largest recorded value
+				return Math.min(bucket == 0 ? 0 : upperBoundOf(bucket) - 1, max());
+		}
+		return max();
+	}
+
+}
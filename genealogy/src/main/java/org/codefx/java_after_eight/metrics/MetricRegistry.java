@@ -0,0 +1,278 @@
+package org.codefx.java_after_eight.metrics;
+
+import java.util.AbstractMap;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Optional;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Supplier;
+import java.util.regex.Pattern;
+import java.util.stream.IntStream;
+
+import static java.lang.String.format;
+import static java.util.Comparator.comparing;
+import static java.util.Locale.ROOT;
+import static java.util.Objects.requireNonNull;
+import static java.util.stream.Collectors.joining;
+import static java.util.stream.Collectors.toList;
+
+/**
+ * Keeps all metrics in memory and exports them in the Prometheus text format or as a JSON run report.
+ */
+public class MetricRegistry implements Metrics {
+
+	private static final Pattern NAME = Pattern.compile("[a-zA-Z_][a-zA-Z0-9_]*");
+	private static final String PROMETHEUS_PREFIX = "genealogy_";
+	private static final double[] QUANTILES = { 0.5, 0.9, 0.99 };
+
+	private final Map<MetricId, Object> metrics = new ConcurrentHashMap<>();
+
+	@Override
+	public Counter counter(String name, String... labels) {
+		return register(name, labels, Counter.class, Counter::new);
+	}
+
+	@Override
+	public Gauge gauge(String name, String... labels) {
+		return register(name, labels, Gauge.class, Gauge::new);
+	}
+
+	@Override
+	public Histogram histogram(String name, String... labels) {
+		return register(name, labels, Histogram.class, Histogram::new);
+	}
+
+	@Override
+	public Timer timer(String name, String... labels) {
+		return register(name, labels, Timer.class, Timer::new);
+	}
+
+	/**
+	 * @param name the name of the timers
+	 * @param label the name of the label by which to key the timers
+	 * @return the timers with the specified name that have the specified label, by that label's value
+	 */
+	public Map<String, Timer> timers(String name, String label) {
+		Map<String, Timer> timers = new TreeMap<>();
+		sorted(Timer.class).stream()
+				.filter(timer -> timer.getKey().name.equals(name))
+				.forEach(timer -> timer.getKey().labelValue(label)
+						.ifPresent(value -> timers.put(value, timer.getValue())));
+		return timers;
+	}
+
+	private <M> M register(String name, String[] labels, Class<M> type, Supplier<M> create) {
+		MetricId id = new MetricId(name, labels);
+		Object metric = metrics.computeIfAbsent(id, __ -> create.get());
+		if (!type.isInstance(metric))
+			throw new IllegalArgumentException(format(
+					"Metric %s is a %s, not a %s.", id, metric.getClass().getSimpleName(), type.getSimpleName()));
+		return type.cast(metric);
+	}
+
+	private <M> List<Map.Entry<MetricId, M>> sorted(Class<M> type) {
+		return metrics.entrySet().stream()
+				.filter(entry -> type.isInstance(entry.getValue()))
+				.sorted(comparing(entry -> entry.getKey().toString()))
+				.map(entry -> new AbstractMap.SimpleImmutableEntry<>(entry.getKey(), type.cast(entry.getValue())))
+				.collect(toList());
+	}
+
+	// PROMETHEUS
+
+	/**
+	 * @return all metrics in the Prometheus text exposition format, where timers are summaries in seconds
+	 * 		(plus a counter of their allocated bytes)
+	 */
+	public String toPrometheus() {
+		List<String> lines = new ArrayList<>();
+		String lastType = "";
+		for (Map.Entry<MetricId, Counter> counter : sorted(Counter.class)) {
+			String name = PROMETHEUS_PREFIX + counter.getKey().name + "_total";
+			lastType = addType(lines, lastType, name, "counter");
+			lines.add(name + counter.getKey().labels() + " " + counter.getValue().count());
+		}
+		for (Map.Entry<MetricId, Gauge> gauge : sorted(Gauge.class)) {
+			String name = PROMETHEUS_PREFIX + gauge.getKey().name;
+			lastType = addType(lines, lastType, name, "gauge");
+			lines.add(name + gauge.getKey().labels() + " " + number(gauge.getValue().value()));
+		}
+		for (Map.Entry<MetricId, Histogram> histogram : sorted(Histogram.class)) {
+			String name = PROMETHEUS_PREFIX + histogram.getKey().name;
+			lastType = addType(lines, lastType, name, "histogram");
+			addBuckets(lines, name, histogram.getKey(), histogram.getValue());
+		}
+		for (Map.Entry<MetricId, Timer> timer : sorted(Timer.class)) {
+			String name = PROMETHEUS_PREFIX + timer.getKey().name + "_seconds";
+			lastType = addType(lines, lastType, name, "summary");
+			addSummary(lines, name, timer.getKey(), timer.getValue().nanos());
+		}
+		for (Map.Entry<MetricId, Timer> timer : sorted(Timer.class))
+			if (timer.getValue().measuresAllocations()) {
+				String name = PROMETHEUS_PREFIX + timer.getKey().name + "_allocated_bytes_total";
+				lastType = addType(lines, lastType, name, "counter");
+				lines.add(name + timer.getKey().labels() + " " + timer.getValue().allocatedBytes());
+			}
+		return lines.stream().map(line -> line + "\n").collect(joining());
+	}
+
+	private static String addType(List<String> lines, String lastType, String name, String type) {
+		// each metric name gets one type line, followed by all its label combinations
+		if (!lastType.equals(name))
+			lines.add("# TYPE " + name + " " + type);
+		return name;
+	}
+
+	private static void addBuckets(List<String> lines, String name, MetricId id, Histogram histogram) {
+		long cumulative = 0;
+		int lastBucket = Histogram.BUCKETS - 1;
+		while (lastBucket > 0 && histogram.bucketCount(lastBucket) == 0)
+			lastBucket--;
+		for (int bucket = 0; bucket <= lastBucket; bucket++) {
+			cumulative += histogram.bucketCount(bucket);
+			// buckets hold integers below their upper bound, so `le` is the bound minus one
+			long le = bucket == 0 ? 0 : Histogram.upperBoundOf(bucket) - 1;
+			lines.add(name + "_bucket" + id.labels("le", String.valueOf(le)) + " " + cumulative);
+		}
+		lines.add(name + "_bucket" + id.labels("le", "+Inf") + " " + histogram.count());
+		lines.add(name + "_sum" + id.labels() + " " + histogram.sum());
+		lines.add(name + "_count" + id.labels() + " " + histogram.count());
+	}
+
+	private static void addSummary(List<String> lines, String name, MetricId id, Histogram nanos) {
+		for (double quantile : QUANTILES)
+			lines.add(name + id.labels("quantile", number(quantile)) + " " + seconds(nanos.quantile(quantile)));
+		lines.add(name + "_sum" + id.labels() + " " + seconds(nanos.sum()));
+		lines.add(name + "_count" + id.labels() + " " + nanos.count());
+	}
+
+	private static String seconds(long nanos) {
+		return number(nanos / 1_000_000_000.0);
+	}
+
+	private static String number(double value) {
+		if (value == Math.rint(value) && Math.abs(value) < 1e15)
+			return String.valueOf((long) value);
+		return format(ROOT, "%.9g", value).replaceFirst("0+(e|$)", "$1").replaceFirst("\\.(e|$)", "$1");
+	}
+
+	// JSON
+
+	/**
+	 * @return all metrics as a JSON object, where durations are in milliseconds and quantiles are upper bounds
+	 */
+	public String toJson() {
+		String counters = sorted(Counter.class).stream()
+				.map(counter -> jsonEntry(counter.getKey(), "\"value\": " + counter.getValue().count()))
+				.collect(joining(",\n"));
+		String gauges = sorted(Gauge.class).stream()
+				.map(gauge -> jsonEntry(gauge.getKey(), "\"value\": " + number(gauge.getValue().value())))
+				.collect(joining(",\n"));
+		String histograms = sorted(Histogram.class).stream()
+				.map(histogram -> jsonEntry(histogram.getKey(), jsonStatistics(histogram.getValue(), 1, "")))
+				.collect(joining(",\n"));
+		String timers = sorted(Timer.class).stream()
+				.map(timer -> jsonEntry(timer.getKey(), jsonStatistics(timer.getValue().nanos(), 1_000_000, "_ms")
+						+ (timer.getValue().measuresAllocations() ? ", \"allocated_bytes\": " + timer.getValue().allocatedBytes() : "")))
+				.collect(joining(",\n"));
+		return "{\n" +
+				"\t\"allocations_measured\": " + Allocations.supported() + ",\n" +
+				"\t\"counters\": " + jsonArray(counters) + ",\n" +
+				"\t\"gauges\": " + jsonArray(gauges) + ",\n" +
+				"\t\"histograms\": " + jsonArray(histograms) + ",\n" +
+				"\t\"timers\": " + jsonArray(timers) + "\n" +
+				"}";
+	}
+
+	private static String jsonArray(String entries) {
+		return entries.isEmpty() ? "[]" : "[\n" + entries + "\n\t]";
+	}
+
+	private static String jsonEntry(MetricId id, String values) {
+		String labels = IntStream.range(0, id.labels.length / 2)
+				.mapToObj(label -> jsonString(id.labels[2 * label]) + ": " + jsonString(id.labels[2 * label + 1]))
+				.collect(joining(", "));
+		return "\t\t{ \"name\": " + jsonString(id.name)
+				+ ", \"labels\": " + (labels.isEmpty() ? "{}" : "{ " + labels + " }")
+				+ ", " + values + " }";
+	}
+
+	private static String jsonStatistics(Histogram histogram, double unit, String suffix) {
+		return "\"count\": " + histogram.count()
+				+ ", \"sum" + suffix + "\": " + number(histogram.sum() / unit)
+				+ ", \"mean" + suffix + "\": " + number(histogram.mean() / unit)
+				+ ", \"p50" + suffix + "\": " + number(histogram.quantile(0.5) / unit)
+				+ ", \"p90" + suffix + "\": " + number(histogram.quantile(0.9) / unit)
+				+ ", \"p99" + suffix + "\": " + number(histogram.quantile(0.99) / unit)
+				+ ", \"max" + suffix + "\": " + number(histogram.max() / unit);
+	}
+
+	private static String jsonString(String text) {
+		return "\"" + text.replace("\\", "\\\\").replace("\"", "\\\"") + "\"";
+	}
+
+	private static class MetricId {
+
+		final String name;
+		final String[] labels;
+
+		MetricId(String name, String[] labels) {
+			if (!NAME.matcher(requireNonNull(name)).matches())
+				throw new IllegalArgumentException("Invalid metric name: " + name);
+			if (labels.length % 2 != 0)
+				throw new IllegalArgumentException("Labels must be pairs of names and values: " + Arrays.toString(labels));
+			for (int label = 0; label < labels.length; label += 2)
+				if (!NAME.matcher(requireNonNull(labels[label])).matches())
+					throw new IllegalArgumentException("Invalid label name: " + labels[label]);
+			this.name = name;
+			this.labels = labels.clone();
+		}
+
+		Optional<String> labelValue(String label) {
+			for (int index = 0; index < labels.length; index += 2)
+				if (labels[index].equals(label))
+					return Optional.of(labels[index + 1]);
+			return Optional.empty();
+		}
+
+		String labels(String... additionalLabels) {
+			String[] all = Arrays.copyOf(labels, labels.length + additionalLabels.length);
+			System.arraycopy(additionalLabels, 0, all, labels.length, additionalLabels.length);
+			if (all.length == 0)
+				return "";
+			return IntStream.range(0, all.length / 2)
+					.mapToObj(label -> all[2 * label] + "=\"" + escapeLabelValue(all[2 * label + 1]) + "\"")
+					.collect(joining(",", "{", "}"));
+		}
+
+		private static String escapeLabelValue(String value) {
+			return requireNonNull(value).replace("\\", "\\\\").replace("\"", "\\\"").replace("\n", "\\n");
+		}
+
+		@Override
+		public boolean equals(Object o) {
+			if (this == o)
+				return true;
+			if (o == null || getClass() != o.getClass())
+				return false;
+			MetricId metricId = (MetricId) o;
+			return name.equals(metricId.name) && Arrays.equals(labels, metricId.labels);
+		}
+
+		@Override
+		public int hashCode() {
+			return Objects.hash(name, Arrays.hashCode(labels));
+		}
+
+		@Override
+		public String toString() {
+			return name + labels();
+		}
+
+	}
+
+}
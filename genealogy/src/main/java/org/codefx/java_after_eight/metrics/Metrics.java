@@ -0,0 +1,26 @@
+package org.codefx.java_after_eight.metrics;
+
+/**
+ * Creates (or looks up) the metrics the pipeline records into. Labels are given as alternating names and
+ * values, e.g. {@code timer("phase", "phase", "load")}, and the same name and labels always yield the same metric.
+ *
+ * <p>Recording should be cheap, so callers look metrics up once and keep them around.
+ */
+public interface Metrics {
+
+	Counter counter(String name, String... labels);
+
+	Gauge gauge(String name, String... labels);
+
+	Histogram histogram(String name, String... labels);
+
+	Timer timer(String name, String... labels);
+
+	/**
+	 * @return metrics that are recorded but never exported
+	 */
+	static Metrics none() {
+		return new MetricRegistry();
+	}
+
+}
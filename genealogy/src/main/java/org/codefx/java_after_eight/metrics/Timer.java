@@ -0,0 +1,87 @@
+package org.codefx.java_after_eight.metrics;
+
+import java.util.function.Supplier;
+
+/**
+ * Records durations (in nanoseconds) and, for samples, the bytes that were allocated in the meantime.
+ */
+public class Timer {
+
+	private final Histogram nanos = new Histogram();
+	private final Counter allocatedBytes = new Counter();
+	private volatile boolean sampled;
+
+	Timer() {
+	}
+
+	public void record(long nanos) {
+		this.nanos.record(nanos);
+	}
+
+	/**
+	 * Starts a sample, which measures allocations of all threads until it is {@link Sample#stop() stopped},
+	 * so it should be used for coarse phases rather than for individual calls.
+	 */
+	public Sample start() {
+		return new Sample();
+	}
+
+	public <T> T time(Supplier<T> action) {
+		Sample sample = start();
+		try {
+			return action.get();
+		} finally {
+			sample.stop();
+		}
+	}
+
+	public void time(Runnable action) {
+		Sample sample = start();
+		try {
+			action.run();
+		} finally {
+			sample.stop();
+		}
+	}
+
+	public Histogram nanos() {
+		return nanos;
+	}
+
+	/**
+	 * @return the bytes allocated during all samples (0 if the VM can't measure allocations)
+	 */
+	public long allocatedBytes() {
+		return allocatedBytes.count();
+	}
+
+	/**
+	 * @return whether {@link #allocatedBytes()} is meaningful, i.e. the VM measures allocations and
+	 * 		at least one sample was taken (as opposed to only {@link #record(long) recording} durations)
+	 */
+	public boolean measuresAllocations() {
+		return sampled && Allocations.supported();
+	}
+
+	public class Sample {
+
+		private final long startNanos = System.nanoTime();
+		private final long startBytes = Allocations.allocatedBytes();
+
+		private Sample() {
+		}
+
+		/**
+		 * @return the nanoseconds since the sample was started
+		 */
+		public long stop() {
+			long elapsed = System.nanoTime() - startNanos;
+			record(elapsed);
+			allocatedBytes.add(Math.max(0, Allocations.allocatedBytes() - startBytes));
+			sampled = true;
+			return elapsed;
+		}
+
+	}
+
+}
@@ -1,6 +1,7 @@
 package org.codefx.java_after_eight.post;
 
 import java.time.LocalDate;
+import java.util.Optional;
 import java.util.stream.Stream;
 
 public interface Post {
@@ -15,4 +16,18 @@ public interface Post {
 
 	Slug slug();
 
+	/**
+	 * @return the kind of this post; by default, the kind named after the lower-cased simple name of its class
+	 */
+	default PostKind kind() {
+		return PostKind.ofClass(getClass());
+	}
+
+	/**
+	 * @return the repository that accompanies this post (always empty for kinds of posts that have none)
+	 */
+	default Optional<Repository> repository() {
+		return Optional.empty();
+	}
+
 }
@@ -0,0 +1,114 @@
+package org.codefx.java_after_eight.post;
+
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.List;
+import java.util.Optional;
+
+import static java.util.Comparator.comparing;
+
+/**
+ * Dense {@code int} IDs in the interval [0; {@link #size()}) for a corpus of posts. IDs are assigned in the
+ * order of the posts' slugs, so comparing two posts' IDs is the same as comparing their slugs.
+ *
+ * <p>Posts can be looked up by ID, {@link Slug}, and {@link VideoSlug} in constant time without hashing them
+ * (the lookup tables are indexed by the {@link Slug#id() slugs'} and {@link VideoSlug#id() video slugs'} IDs).
+ */
+public class PostIds {
+
+	private static final int UNKNOWN = -1;
+
+	private final List<Post> posts;
+	// indexed by `Slug::id` and `VideoSlug::id`, respectively
+	private final int[] idsBySlug;
+	private final int[] idsByVideo;
+
+	private PostIds(List<Post> posts, int[] idsBySlug, int[] idsByVideo) {
+		this.posts = posts;
+		this.idsBySlug = idsBySlug;
+		this.idsByVideo = idsByVideo;
+	}
+
+	/**
+	 * @param posts the posts of the corpus
+	 * @return the IDs of the posts, which are assigned in the order of the posts' slugs
+	 * @throws IllegalArgumentException if several posts have the same slug
+	 */
+	public static PostIds of(Collection<Post> posts) {
+		Post[] sorted = posts.toArray(new Post[0]);
+		Arrays.sort(sorted, comparing(Post::slug));
+
+		int[] idsBySlug = newTable(Arrays.stream(sorted).mapToInt(post -> post.slug().id()).max().orElse(-1));
+		int[] idsByVideo = newTable(Arrays.stream(sorted)
+				.filter(post -> post instanceof Video)
+				.mapToInt(post -> ((Video) post).video().id())
+				.max()
+				.orElse(-1));
+		for (int id = 0; id < sorted.length; id++) {
+			Post post = sorted[id];
+			if (idsBySlug[post.slug().id()] != UNKNOWN)
+				throw new IllegalArgumentException("Several posts have the slug " + post.slug().value());
+			idsBySlug[post.slug().id()] = id;
+			if (post instanceof Video)
+				idsByVideo[((Video) post).video().id()] = id;
+		}
+		return new PostIds(Collections.unmodifiableList(Arrays.asList(sorted)), idsBySlug, idsByVideo);
+	}
+
+	private static int[] newTable(int maxIndex) {
+		int[] table = new int[maxIndex + 1];
+		Arrays.fill(table, UNKNOWN);
+		return table;
+	}
+
+	public int size() {
+		return posts.size();
+	}
+
+	/**
+	 * @return all posts, indexed by their IDs
+	 */
+	public List<Post> posts() {
+		return posts;
+	}
+
+	public Post post(int id) {
+		return posts.get(id);
+	}
+
+	/**
+	 * @param post a post of this corpus
+	 * @return the post's ID
+	 * @throws IllegalArgumentException if the post is not part of this corpus
+	 */
+	public int idOf(Post post) {
+		int id = lookUp(idsBySlug, post.slug().id());
+		if (id == UNKNOWN)
+			throw new IllegalArgumentException("Unknown post: " + post.slug().value());
+		return id;
+	}
+
+	public boolean contains(Post post) {
+		return lookUp(idsBySlug, post.slug().id()) != UNKNOWN;
+	}
+
+	public Optional<Post> bySlug(Slug slug) {
+		int id = lookUp(idsBySlug, slug.id());
+		return id == UNKNOWN ? Optional.empty() : Optional.of(posts.get(id));
+	}
+
+	/**
+	 * @param video the slug of a video (not of a post)
+	 * @return the video with the specified video slug
+	 */
+	public Optional<Post> byVideo(VideoSlug video) {
+		int id = lookUp(idsByVideo, video.id());
+		return id == UNKNOWN ? Optional.empty() : Optional.of(posts.get(id));
+	}
+
+	private static int lookUp(int[] table, int index) {
+		return index < table.length ? table[index] : UNKNOWN;
+	}
+
+}
@@ -0,0 +1,89 @@
+package org.codefx.java_after_eight.post;
+
+import org.codefx.java_after_eight.Interner;
+
+import static java.util.Locale.ROOT;
+
+/**
+ * The kind of a {@link Post} (e.g. article or video).
+ */
+public class PostKind {
+
+	// `PostKind` is a string (and not an enum), so new kinds of posts can be added without changing it.
+
+	// Each kind is interned and gets a dense ordinal when it is first created, so per-kind data
+	// (e.g. scores) can be kept in arrays that are indexed by ordinal instead of switching over classes.
+	private static final Interner<PostKind> INSTANCES = new Interner<>(PostKind::new);
+
+	// the kinds of post classes, so they're derived from the class names only once per class
+	private static final ClassValue<PostKind> KINDS_BY_CLASS = new ClassValue<PostKind>() {
+		@Override
+		protected PostKind computeValue(Class<?> type) {
+			String name = type.getSimpleName();
+			// anonymous classes have no simple name
+			return of(name.isEmpty() ? type.getName() : name.toLowerCase(ROOT));
+		}
+	};
+
+	public static final PostKind ARTICLE = of("article");
+	public static final PostKind TALK = of("talk");
+	public static final PostKind VIDEO = of("video");
+
+	private final String name;
+	private final int ordinal;
+
+	private PostKind(String name, int ordinal) {
+		if (name.isEmpty())
+			throw new IllegalArgumentException("Post kinds can't have an empty name.");
+		this.name = name;
+		this.ordinal = ordinal;
+	}
+
+	public static PostKind of(String name) {
+		return INSTANCES.intern(name);
+	}
+
+	/**
+	 * @param type the class of the posts
+	 * @return the kind named after the lower-cased simple name of the specified class (e.g. "article" for {@link Article})
+	 */
+	public static PostKind ofClass(Class<? extends Post> type) {
+		return KINDS_BY_CLASS.get(type);
+	}
+
+	/**
+	 * @return the number of kinds that were created so far, which is an upper bound for their ordinals
+	 */
+	public static int registeredKinds() {
+		return INSTANCES.size();
+	}
+
+	public String name() {
+		return name;
+	}
+
+	/**
+	 * @return an ordinal in the interval [0; {@link #registeredKinds()})
+	 */
+	public int ordinal() {
+		return ordinal;
+	}
+
+	@Override
+	public boolean equals(Object o) {
+		return this == o;
+	}
+
+	@Override
+	public int hashCode() {
+		return ordinal;
+	}
+
+	@Override
+	public String toString() {
+		return "PostKind{" +
+				"name='" + name + '\'' +
+				'}';
+	}
+
+}
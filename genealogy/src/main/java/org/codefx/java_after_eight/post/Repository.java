@@ -1,36 +1,63 @@
 package org.codefx.java_after_eight.post;
 
-import java.util.Objects;
-
-import static java.util.Objects.requireNonNull;
+import org.codefx.java_after_eight.Interner;
 
 public class Repository {
 
+	// instances are interned, so equal repositories share an ID and can be compared and hashed cheaply
+	private static final Interner<Repository> INSTANCES = new Interner<>(Repository::new);
+
 	private final String identifier;
+	private final int id;
+	private final int hash;
 
-	public Repository(String identifier) {
-		this.identifier = requireNonNull(identifier);
+	private Repository(String identifier, int id) {
 		if (identifier.isEmpty())
 			throw new IllegalArgumentException("Repositories can't have an empty identifier.");
+		this.identifier = identifier;
+		this.id = id;
+		this.hash = identifier.hashCode();
+	}
+
+	/**
+	 * @param identifier the identifier of the new instance
+	 * @deprecated use {@link #of(String)}, which returns the canonical instance instead of a copy of it
+	 */
+	@Deprecated
+	public Repository(String identifier) {
+		this(of(identifier));
+	}
+
+	private Repository(Repository canonical) {
+		this.identifier = canonical.identifier;
+		this.id = canonical.id;
+		this.hash = canonical.hash;
+	}
+
+	public static Repository of(String identifier) {
+		return INSTANCES.intern(identifier);
 	}
 
 	public String identifier() {
 		return identifier;
 	}
 
+	/**
+	 * @return a dense ID that is unique among all repositories
+	 */
+	public int id() {
+		return id;
+	}
+
 	@Override
 	public boolean equals(Object o) {
-		if (this == o)
-			return true;
-		if (o == null || getClass() != o.getClass())
-			return false;
-		Repository that = (Repository) o;
-		return identifier.equals(that.identifier);
+		// copies of the canonical instance (see the deprecated constructor) have the same ID
+		return this == o || o instanceof Repository && ((Repository) o).id == id;
 	}
 
 	@Override
 	public int hashCode() {
-		return Objects.hash(identifier);
+		return hash;
 	}
 
 	@Override
@@ -1,23 +1,54 @@
 package org.codefx.java_after_eight.post;
 
-import java.util.Objects;
-
-import static java.util.Objects.requireNonNull;
+import org.codefx.java_after_eight.Interner;
 
 public class Slug implements Comparable<Slug> {
 
+	// instances are interned, so equal slugs share an ID and can be compared and hashed cheaply
+	private static final Interner<Slug> INSTANCES = new Interner<>(Slug::new);
+
 	private final String value;
+	private final int id;
+	private final int hash;
 
-	public Slug(String value) {
-		this.value = requireNonNull(value);
+	private Slug(String value, int id) {
 		if (value.isEmpty())
 			throw new IllegalArgumentException("Slugs can't have an empty value.");
+		this.value = value;
+		this.id = id;
+		this.hash = value.hashCode();
+	}
+
+	/**
+	 * @param value the text of the new instance
+	 * @deprecated use {@link #of(String)}, which returns the canonical instance instead of a copy of it
+	 */
+	@Deprecated
+	public Slug(String value) {
+		this(of(value));
+	}
+
+	private Slug(Slug canonical) {
+		this.value = canonical.value;
+		this.id = canonical.id;
+		this.hash = canonical.hash;
+	}
+
+	public static Slug of(String value) {
+		return INSTANCES.intern(value);
 	}
 
 	public String value() {
 		return value;
 	}
 
+	/**
+	 * @return a dense ID that is unique among all slugs
+	 */
+	public int id() {
+		return id;
+	}
+
 	@Override
 	public int compareTo(Slug right) {
 		return this.value.compareTo(right.value);
@@ -25,17 +56,13 @@ public class Slug implements Comparable<Slug> {
 
 	@Override
 	public boolean equals(Object o) {
-		if (this == o)
-			return true;
-		if (o == null || getClass() != o.getClass())
-			return false;
-		Slug slug = (Slug) o;
-		return value.equals(slug.value);
+		// copies of the canonical instance (see the deprecated constructor) have the same ID
+		return this == o || o instanceof Slug && ((Slug) o).id == id;
 	}
 
 	@Override
 	public int hashCode() {
-		return Objects.hash(value);
+		return hash;
 	}
 
 	@Override
@@ -1,31 +1,47 @@
 package org.codefx.java_after_eight.post;
 
+import org.codefx.java_after_eight.Interner;
+
 import java.util.Collections;
-import java.util.Objects;
+import java.util.HashSet;
 import java.util.Set;
-import java.util.stream.Stream;
-
-import static java.util.Objects.requireNonNull;
-import static java.util.stream.Collectors.toSet;
 
 public class Tag {
 
+	// instances are interned, so equal tags are identical and can be compared and hashed cheaply
+	private static final Interner<Tag> INSTANCES = new Interner<>(Tag::new);
+
 	private final String text;
+	private final int id;
+	private final int hash;
 
-	private Tag(String text) {
-		this.text = requireNonNull(text);
+	private Tag(String text, int id) {
 		if (text.isEmpty())
 			throw new IllegalArgumentException("Tags can't have an empty text.");
+		this.text = text;
+		this.id = id;
+		this.hash = text.hashCode();
 	}
 
+	public static Tag of(String text) {
+		return INSTANCES.intern(text);
+	}
+
+	/**
+	 * @param tagsText comma-separated tags, optionally enclosed in square brackets
+	 */
 	public static Set<Tag> from(String tagsText) {
-		Set<Tag> tags = Stream.of(tagsText
-				.replaceAll("^\\[|\\]$", "")
-				.split(","))
-				.map(String::trim)
-				.filter(tag -> !tag.isEmpty())
-				.map(Tag::new)
-				.collect(toSet());
+		int start = tagsText.startsWith("[") ? 1 : 0;
+		int end = tagsText.length() > start && tagsText.endsWith("]") ? tagsText.length() - 1 : tagsText.length();
+		Set<Tag> tags = new HashSet<>();
+		while (start <= end) {
+			int comma = tagsText.indexOf(',', start);
+			int tagEnd = comma == -1 || comma > end ? end : comma;
+			String tag = tagsText.substring(start, tagEnd).trim();
+			if (!tag.isEmpty())
+				tags.add(of(tag));
+			start = tagEnd + 1;
+		}
 		return Collections.unmodifiableSet(tags);
 	}
 
@@ -33,19 +49,21 @@ public class Tag {
 		return text;
 	}
 
+	/**
+	 * @return a dense ID that is unique among all tags
+	 */
+	public int id() {
+		return id;
+	}
+
 	@Override
 	public boolean equals(Object o) {
-		if (this == o)
-			return true;
-		if (o == null || getClass() != o.getClass())
-			return false;
-		Tag tag = (Tag) o;
-		return text.equals(tag.text);
+		return this == o;
 	}
 
 	@Override
 	public int hashCode() {
-		return Objects.hash(text);
+		return hash;
 	}
 
 	@Override
@@ -2,7 +2,6 @@ package org.codefx.java_after_eight.post;
 
 import java.net.URI;
 import java.time.LocalDate;
-import java.util.Objects;
 import java.util.Optional;
 import java.util.Set;
 import java.util.stream.Stream;
@@ -55,6 +54,11 @@ public class Talk implements Post {
 		return slug;
 	}
 
+	@Override
+	public PostKind kind() {
+		return PostKind.TALK;
+	}
+
 	public URI slides() {
 		return slides;
 	}
@@ -75,7 +79,7 @@ public class Talk implements Post {
 
 	@Override
 	public int hashCode() {
-		return Objects.hash(slug);
+		return slug.hashCode();
 	}
 
 	@Override
@@ -1,7 +1,6 @@
 package org.codefx.java_after_eight.post;
 
 import java.time.LocalDate;
-import java.util.Objects;
 import java.util.Optional;
 import java.util.Set;
 import java.util.stream.Stream;
@@ -54,10 +53,16 @@ public class Video implements Post {
 		return slug;
 	}
 
+	@Override
+	public PostKind kind() {
+		return PostKind.VIDEO;
+	}
+
 	public VideoSlug video() {
 		return video;
 	}
 
+	@Override
 	public Optional<Repository> repository() {
 		return repository;
 	}
@@ -74,7 +79,7 @@ public class Video implements Post {
 
 	@Override
 	public int hashCode() {
-		return Objects.hash(slug);
+		return slug.hashCode();
 	}
 
 	@Override
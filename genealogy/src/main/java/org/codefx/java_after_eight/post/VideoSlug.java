@@ -1,23 +1,54 @@
 package org.codefx.java_after_eight.post;
 
-import java.util.Objects;
-
-import static java.util.Objects.requireNonNull;
+import org.codefx.java_after_eight.Interner;
 
 public class VideoSlug implements Comparable<VideoSlug> {
 
+	// instances are interned, so equal video slugs share an ID and can be compared and hashed cheaply
+	private static final Interner<VideoSlug> INSTANCES = new Interner<>(VideoSlug::new);
+
 	private final String value;
+	private final int id;
+	private final int hash;
 
-	public VideoSlug(String value) {
-		this.value = requireNonNull(value);
+	private VideoSlug(String value, int id) {
 		if (value.isEmpty())
 			throw new IllegalArgumentException("Slugs can't have an empty value.");
+		this.value = value;
+		this.id = id;
+		this.hash = value.hashCode();
+	}
+
+	/**
+	 * @param value the text of the new instance
+	 * @deprecated use {@link #of(String)}, which returns the canonical instance instead of a copy of it
+	 */
+	@Deprecated
+	public VideoSlug(String value) {
+		this(of(value));
+	}
+
+	private VideoSlug(VideoSlug canonical) {
+		this.value = canonical.value;
+		this.id = canonical.id;
+		this.hash = canonical.hash;
+	}
+
+	public static VideoSlug of(String value) {
+		return INSTANCES.intern(value);
 	}
 
 	public String value() {
 		return value;
 	}
 
+	/**
+	 * @return a dense ID that is unique among all video slugs
+	 */
+	public int id() {
+		return id;
+	}
+
 	@Override
 	public int compareTo(VideoSlug right) {
 		return this.value.compareTo(right.value);
@@ -25,17 +56,13 @@ public class VideoSlug implements Comparable<VideoSlug> {
 
 	@Override
 	public boolean equals(Object o) {
-		if (this == o)
-			return true;
-		if (o == null || getClass() != o.getClass())
-			return false;
-		VideoSlug slug = (VideoSlug) o;
-		return value.equals(slug.value);
+		// copies of the canonical instance (see the deprecated constructor) have the same ID
+		return this == o || o instanceof VideoSlug && ((VideoSlug) o).id == id;
 	}
 
 	@Override
 	public int hashCode() {
-		return Objects.hash(value);
+		return hash;
 	}
 
 	@Override
@@ -45,8 +45,8 @@ public final class ArticleFactory {
 				Tag.from(frontMatter.requiredValueOf(TAGS)),
 				LocalDate.parse(frontMatter.requiredValueOf(DATE)),
 				new Description(frontMatter.requiredValueOf(DESCRIPTION)),
-				new Slug(frontMatter.requiredValueOf(SLUG)),
-				frontMatter.valueOf(REPOSITORY).map(Repository::new),
+				Slug.of(frontMatter.requiredValueOf(SLUG)),
+				frontMatter.valueOf(REPOSITORY).map(Repository::of),
 				post.content());
 	}
 
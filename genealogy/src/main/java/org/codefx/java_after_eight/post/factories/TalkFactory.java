@@ -43,9 +43,9 @@ public final class TalkFactory {
 					Tag.from(frontMatter.requiredValueOf(TAGS)),
 					LocalDate.parse(frontMatter.requiredValueOf(DATE)),
 					new Description(frontMatter.requiredValueOf(DESCRIPTION)),
-					new Slug(frontMatter.requiredValueOf(SLUG)),
+					Slug.of(frontMatter.requiredValueOf(SLUG)),
 					new URI(frontMatter.requiredValueOf(SLIDES)),
-					frontMatter.valueOf(VIDEO).map(VideoSlug::new));
+					frontMatter.valueOf(VIDEO).map(VideoSlug::of));
 		} catch (URISyntaxException ex) {
 			throw new IllegalArgumentException(ex);
 		}
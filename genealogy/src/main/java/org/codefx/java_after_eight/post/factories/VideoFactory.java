@@ -41,9 +41,9 @@ public final class VideoFactory {
 				Tag.from(frontMatter.requiredValueOf(TAGS)),
 				LocalDate.parse(frontMatter.requiredValueOf(DATE)),
 				new Description(frontMatter.requiredValueOf(DESCRIPTION)),
-				new Slug(frontMatter.requiredValueOf(SLUG)),
-				new VideoSlug(frontMatter.requiredValueOf(VIDEO)),
-				frontMatter.valueOf(REPOSITORY).map(Repository::new));
+				Slug.of(frontMatter.requiredValueOf(SLUG)),
+				VideoSlug.of(frontMatter.requiredValueOf(VIDEO)),
+				frontMatter.valueOf(REPOSITORY).map(Repository::of));
 	}
 
 }
@@ -0,0 +1,53 @@
+package org.codefx.java_after_eight.recommendation;
+
+import org.codefx.java_after_eight.post.Post;
+import org.codefx.java_after_eight.post.Tag;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import static java.util.Comparator.comparing;
+import static java.util.Comparator.reverseOrder;
+import static java.util.stream.Collectors.toList;
+
+/**
+ * Cheaply recommends the posts that share the most tags (newer posts first on ties) - without any genealogists.
+ * Its recommendations are marked as {@link Recommendation#isExact() approximate}.
+ */
+public class BaselineRecommender {
+
+	private final Map<Tag, List<Post>> postsByTag;
+
+	public BaselineRecommender(Collection<Post> posts) {
+		this.postsByTag = new HashMap<>();
+		posts.forEach(post -> post.tags()
+				.forEach(tag -> postsByTag.computeIfAbsent(tag, __ -> new ArrayList<>()).add(post)));
+	}
+
+	public Recommendation recommend(Post post, int perPost) {
+		if (perPost < 1)
+			throw new IllegalArgumentException(
+					"Number of recommendations per post must be greater zero: " + perPost);
+
+		Map<Post, Integer> sharedTags = new HashMap<>();
+		post.tags()
+				.flatMap(tag -> postsByTag.getOrDefault(tag, new ArrayList<>()).stream())
+				.filter(other -> other != post)
+				.forEach(other -> sharedTags.merge(other, 1, Integer::sum));
+		Comparator<Map.Entry<Post, Integer>> byMostSharedTagsThenNewest =
+				comparing((Map.Entry<Post, Integer> entry) -> entry.getValue(), reverseOrder())
+						.thenComparing(entry -> entry.getKey().date(), reverseOrder())
+						.thenComparing(entry -> entry.getKey().slug());
+		List<Post> recommendations = sharedTags.entrySet().stream()
+				.sorted(byMostSharedTagsThenNewest)
+				.limit(perPost)
+				.map(Map.Entry::getKey)
+				.collect(toList());
+		return new Recommendation(post, recommendations, false);
+	}
+
+}
@@ -0,0 +1,86 @@
+package org.codefx.java_after_eight.recommendation;
+
+import org.codefx.java_after_eight.genealogy.Relation;
+import org.codefx.java_after_eight.post.Post;
+import org.codefx.java_after_eight.post.Slug;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.function.Function;
+import java.util.stream.Stream;
+
+import static java.util.Comparator.comparing;
+import static java.util.Comparator.reverseOrder;
+import static java.util.Objects.requireNonNull;
+import static java.util.function.Function.identity;
+import static java.util.stream.Collectors.toMap;
+
+/**
+ * Recommends posts in priority order until a wall-clock budget runs out - the remaining posts get
+ * approximate recommendations from a {@link BaselineRecommender}.
+ *
+ * <p>The budget is checked before each post, so a post that started in time is finished even if
+ * that takes longer (to bound that, use genealogist budgets).
+ */
+public class DeadlineRecommender {
+
+	private final Recommender recommender;
+	private final BaselineRecommender baseline;
+	private final Duration budget;
+
+	public DeadlineRecommender(Recommender recommender, BaselineRecommender baseline, Duration budget) {
+		this.recommender = requireNonNull(recommender);
+		this.baseline = requireNonNull(baseline);
+		this.budget = requireNonNull(budget);
+		if (budget.isNegative())
+			throw new IllegalArgumentException("Budget must not be negative: " + budget);
+	}
+
+	/**
+	 * @param posts the posts to order
+	 * @param first the slugs of the posts that go first
+	 * @return the posts with the specified slugs first (in that order), followed by all others, newest first
+	 * @throws IllegalArgumentException if a slug doesn't belong to any of the posts
+	 */
+	public static List<Post> priorityOrder(Collection<Post> posts, List<Slug> first) {
+		Map<Slug, Post> postsBySlug = posts.stream().collect(toMap(Post::slug, identity()));
+		Set<Post> ordered = new LinkedHashSet<>();
+		first.forEach(slug -> {
+			Post post = postsBySlug.get(slug);
+			if (post == null)
+				throw new IllegalArgumentException("Unknown post in priority list: " + slug.value());
+			ordered.add(post);
+		});
+		posts.stream()
+				.sorted(comparing(Post::date, reverseOrder()).thenComparing(Post::slug))
+				.forEach(ordered::add);
+		return new ArrayList<>(ordered);
+	}
+
+	/**
+	 * @param inferRelations infers the relations of one post (as {@code post1}) with all others
+	 * @param posts the posts in priority order
+	 * @param perPost the maximum number of recommendations per post
+	 * @return the recommendations of all posts - those reached after the deadline get baseline recommendations
+	 */
+	public Stream<Recommendation> recommend(
+			Function<Post, Stream<Relation>> inferRelations, List<Post> posts, int perPost) {
+		long deadline = System.nanoTime() + budget.toNanos();
+		List<Recommendation> recommendations = new ArrayList<>();
+		for (Post post : posts) {
+			if (System.nanoTime() - deadline < 0)
+				recommender
+						.recommend(inferRelations.apply(post), perPost)
+						.forEach(recommendations::add);
+			else
+				recommendations.add(baseline.recommend(post, perPost));
+		}
+		return recommendations.stream();
+	}
+
+}
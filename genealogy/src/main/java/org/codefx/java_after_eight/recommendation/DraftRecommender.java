@@ -0,0 +1,45 @@
+package org.codefx.java_after_eight.recommendation;
+
+import org.codefx.java_after_eight.genealogy.Genealogy;
+import org.codefx.java_after_eight.post.Post;
+import org.codefx.java_after_eight.post.factories.ArticleFactory;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static java.util.Objects.requireNonNull;
+
+/**
+ * Recommends posts for drafts, using a genealogy whose posts were already parsed and whose
+ * genealogists were already procured. Drafts are never added to it, so it can be reused for
+ * any number of drafts (also concurrently).
+ */
+public class DraftRecommender {
+
+	private final Genealogy genealogy;
+	private final Recommender recommender;
+
+	public DraftRecommender(Genealogy genealogy) {
+		this.genealogy = requireNonNull(genealogy);
+		// page rank needs the whole graph, which doesn't contain the draft, so it wouldn't help
+		this.recommender = new Recommender();
+	}
+
+	/**
+	 * @param draftLines the lines of an article's Markdown file (including front matter)
+	 * @param perPost the maximum number of recommended posts
+	 * @return the recommendation for the draft, which never recommends the draft's published version
+	 */
+	public Recommendation recommend(List<String> draftLines, int perPost) {
+		return recommend(ArticleFactory.createArticle(draftLines), perPost);
+	}
+
+	public Recommendation recommend(Post draft, int perPost) {
+		return recommender
+				.recommend(genealogy.inferRelationsOfDraft(draft), perPost)
+				.findFirst()
+				// without other posts, there are no relations
+				.orElseGet(() -> new Recommendation(draft, new ArrayList<>()));
+	}
+
+}
@@ -0,0 +1,43 @@
+package org.codefx.java_after_eight.recommendation;
+
+import org.codefx.java_after_eight.post.PostIds;
+
+/**
+ * Encodes relations as {@code long}s that sort by post, decreasing score and recommended post (i.e. like
+ * {@code Recommender} sorts), where posts are represented by their {@link PostIds IDs} (which sort like slugs).
+ */
+final class EncodedRelations {
+
+	private static final int POST_BITS = 28;
+	private static final long POST_MASK = (1L << POST_BITS) - 1;
+	private static final int SCORE_BITS = 7;
+	private static final long SCORE_MASK = (1L << SCORE_BITS) - 1;
+
+	private EncodedRelations() {
+		// private constructor to prevent accidental instantiation of utility class
+	}
+
+	static void checkPostCount(int posts) {
+		if (posts > POST_MASK)
+			throw new IllegalArgumentException("Too many posts: " + posts);
+	}
+
+	static long encode(int post1, long score, int post2) {
+		// higher scores must sort first, so the score is inverted
+		long invertedScore = 100 - score;
+		return ((long) post1 << (SCORE_BITS + POST_BITS)) | (invertedScore << POST_BITS) | post2;
+	}
+
+	static int post1Of(long relation) {
+		return (int) (relation >>> (SCORE_BITS + POST_BITS));
+	}
+
+	static long scoreOf(long relation) {
+		return 100 - ((relation >>> POST_BITS) & SCORE_MASK);
+	}
+
+	static int post2Of(long relation) {
+		return (int) (relation & POST_MASK);
+	}
+
+}
@@ -0,0 +1,305 @@
+package org.codefx.java_after_eight.recommendation;
+
+import org.codefx.java_after_eight.genealogy.Relation;
+import org.codefx.java_after_eight.post.Post;
+import org.codefx.java_after_eight.post.PostIds;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.List;
+import java.util.stream.IntStream;
+import java.util.stream.Stream;
+
+import static java.util.stream.Collectors.toList;
+import static org.codefx.java_after_eight.recommendation.EncodedRelations.post1Of;
+import static org.codefx.java_after_eight.recommendation.EncodedRelations.post2Of;
+import static org.codefx.java_after_eight.recommendation.EncodedRelations.scoreOf;
+
+/**
+ * Re-ranks relations with a personalized PageRank (a.k.a. random walk with restart) from each post,
+ * so that posts that are strongly related to a post's strongest relations get recommended, too.
+ *
+ * <p>The walk only follows each post's {@code relationsPerPost} strongest relations and is truncated
+ * after {@code steps} steps, which bounds the work per post by {@code relationsPerPost ^ steps}
+ * regardless of the number of posts.
+ *
+ * <p>Posts are recommended by decreasing rank with ties broken by slug. If a walk visits fewer than
+ * {@code perPost} posts, the remaining recommendations are the post's strongest other relations (as
+ * {@code Recommender} would pick them). Posts that have no relations of their own are never recommended.
+ */
+public class PersonalizedPageRank {
+
+	private final int relationsPerPost;
+	private final int steps;
+	private final double restartProbability;
+
+	public PersonalizedPageRank(int relationsPerPost, int steps, double restartProbability) {
+		if (relationsPerPost < 1)
+			throw new IllegalArgumentException("Number of relations per post must be greater zero: " + relationsPerPost);
+		if (steps < 1)
+			throw new IllegalArgumentException("Number of steps must be greater zero: " + steps);
+		if (restartProbability <= 0 || 1 <= restartProbability)
+			throw new IllegalArgumentException("Restart probability must be in interval (0; 1): " + restartProbability);
+		this.relationsPerPost = relationsPerPost;
+		this.steps = steps;
+		this.restartProbability = restartProbability;
+	}
+
+	public static PersonalizedPageRank withDefaults() {
+		return new PersonalizedPageRank(10, 3, 0.15);
+	}
+
+	Stream<Recommendation> recommend(Stream<Relation> relations, int perPost) {
+		Graph graph = Graph.from(relations, relationsPerPost, perPost);
+		ThreadLocal<Walk> walks = ThreadLocal.withInitial(() -> new Walk(graph.posts.size(), perPost));
+		List<Recommendation> recommendations = IntStream
+				.range(0, graph.posts.size())
+				.parallel()
+				.mapToObj(source -> {
+					int[] recommended = walks.get().rank(graph, source);
+					List<Post> posts = new ArrayList<>(recommended.length);
+					for (int post : recommended)
+						posts.add(graph.posts.post(post));
+					return new Recommendation(graph.posts.post(source), posts);
+				})
+				.collect(toList());
+		return recommendations.stream();
+	}
+
+	/**
+	 * Each post's strongest relations in compressed sparse row format, where the weights
+	 * of a post's relations are its transition probabilities (i.e. they sum up to 1). Each post's
+	 * {@code perPost} strongest relations (regardless of their score) are kept in the same format as
+	 * fallbacks for walks that visit too few posts.
+	 */
+	private static class Graph {
+
+		final PostIds posts;
+		final int[] offsets;
+		final int[] targets;
+		final double[] weights;
+		final int[] fallbackOffsets;
+		final int[] fallbacks;
+
+		private Graph(PostIds posts, int[] offsets, int[] targets, double[] weights, int[] fallbackOffsets, int[] fallbacks) {
+			this.posts = posts;
+			this.offsets = offsets;
+			this.targets = targets;
+			this.weights = weights;
+			this.fallbackOffsets = fallbackOffsets;
+			this.fallbacks = fallbacks;
+		}
+
+		static Graph from(Stream<Relation> relations, int relationsPerPost, int perPost) {
+			List<Relation> collected = relations.collect(toList());
+			PostIds posts = PostIds.of(sourcesOf(collected));
+			EncodedRelations.checkPostCount(posts.size());
+			// sorting by post and decreasing score (ties broken by slug) makes the graph independent of the relations' order
+			long[] sorted = collected.stream()
+					// relations to posts that have no relations of their own would be dead ends
+					.filter(relation -> posts.contains(relation.post2()))
+					.mapToLong(relation -> EncodedRelations.encode(
+							posts.idOf(relation.post1()), relation.score(), posts.idOf(relation.post2())))
+					.sorted()
+					.toArray();
+
+			int[] offsets = new int[posts.size() + 1];
+			int[] targets = new int[posts.size() * relationsPerPost];
+			double[] weights = new double[posts.size() * relationsPerPost];
+			int[] fallbackOffsets = new int[posts.size() + 1];
+			int[] fallbacks = new int[posts.size() * perPost];
+			int edges = 0;
+			int fallbackCount = 0;
+			int index = 0;
+			for (int post = 0; post < posts.size(); post++) {
+				int end = index;
+				while (end < sorted.length && post1Of(sorted[end]) == post)
+					end++;
+				// relations that score 0 sort last and aren't followed
+				int strongestEnd = index;
+				while (strongestEnd < Math.min(end, index + relationsPerPost) && scoreOf(sorted[strongestEnd]) > 0)
+					strongestEnd++;
+				double total = 0;
+				for (int relation = index; relation < strongestEnd; relation++)
+					total += scoreOf(sorted[relation]);
+				for (int relation = index; relation < strongestEnd; relation++) {
+					targets[edges] = post2Of(sorted[relation]);
+					weights[edges] = scoreOf(sorted[relation]) / total;
+					edges++;
+				}
+				offsets[post + 1] = edges;
+				for (int relation = index; relation < Math.min(end, index + perPost); relation++)
+					fallbacks[fallbackCount++] = post2Of(sorted[relation]);
+				fallbackOffsets[post + 1] = fallbackCount;
+				index = end;
+			}
+			return new Graph(
+					posts,
+					offsets, Arrays.copyOf(targets, edges), Arrays.copyOf(weights, edges),
+					fallbackOffsets, Arrays.copyOf(fallbacks, fallbackCount));
+		}
+
+		private static List<Post> sourcesOf(List<Relation> relations) {
+			// posts are equal if their slugs are, so slug IDs identify them without hashing the posts
+			BitSet seen = new BitSet();
+			List<Post> sources = new ArrayList<>();
+			for (Relation relation : relations)
+				if (!seen.get(relation.post1().slug().id())) {
+					seen.set(relation.post1().slug().id());
+					sources.add(relation.post1());
+				}
+			return sources;
+		}
+
+	}
+
+	/**
+	 * Reusable (per thread) state for the walks. Only the entries of visited posts are touched,
+	 * so a walk's cost doesn't depend on the total number of posts.
+	 */
+	private class Walk {
+
+		// probability of being at each post after the current step
+		private double[] current;
+		private int[] currentPosts;
+		private int currentCount;
+		private double[] next;
+		private int[] nextPosts;
+		private int nextCount;
+		// the accumulated rank of each post
+		private final double[] rank;
+		private final int[] rankedPosts;
+		private int rankedCount;
+		// bounded heap of the best posts, whose root is the worst of them
+		private final int[] best;
+
+		Walk(int size, int count) {
+			current = new double[size];
+			currentPosts = new int[size];
+			next = new double[size];
+			nextPosts = new int[size];
+			rank = new double[size];
+			rankedPosts = new int[size];
+			best = new int[count];
+		}
+
+		int[] rank(Graph graph, int source) {
+			current[source] = 1;
+			currentPosts[0] = source;
+			currentCount = 1;
+			double stepWeight = restartProbability;
+			for (int step = 1; step <= steps; step++) {
+				stepWeight *= 1 - restartProbability;
+				walkOneStep(graph);
+				for (int i = 0; i < currentCount; i++) {
+					int post = currentPosts[i];
+					if (rank[post] == 0)
+						rankedPosts[rankedCount++] = post;
+					rank[post] += stepWeight * current[post];
+				}
+			}
+
+			int[] highestRanked = highestRanked(graph, source);
+			reset();
+			return highestRanked;
+		}
+
+		private void walkOneStep(Graph graph) {
+			for (int i = 0; i < currentCount; i++) {
+				int post = currentPosts[i];
+				double probability = current[post];
+				for (int edge = graph.offsets[post]; edge < graph.offsets[post + 1]; edge++) {
+					int target = graph.targets[edge];
+					if (next[target] == 0)
+						nextPosts[nextCount++] = target;
+					next[target] += probability * graph.weights[edge];
+				}
+				current[post] = 0;
+			}
+
+			double[] swapValues = current;
+			current = next;
+			next = swapValues;
+			int[] swapPosts = currentPosts;
+			currentPosts = nextPosts;
+			nextPosts = swapPosts;
+			currentCount = nextCount;
+			nextCount = 0;
+		}
+
+		private int[] highestRanked(Graph graph, int source) {
+			int size = 0;
+			for (int i = 0; i < rankedCount; i++) {
+				int post = rankedPosts[i];
+				if (post == source)
+					continue;
+				if (size < best.length)
+					siftUp(size++, post);
+				else if (isBetter(post, best[0]))
+					siftDown(size, post);
+			}
+
+			int[] highestRanked = new int[best.length];
+			int selected = size;
+			// repeatedly removing the root yields the best posts from last to first
+			while (size > 0) {
+				highestRanked[size - 1] = best[0];
+				size--;
+				siftDown(size, best[size]);
+			}
+			// all visited posts (which are the ones with a rank) are selected, so fill up with the unvisited ones
+			for (int fallback = graph.fallbackOffsets[source];
+					fallback < graph.fallbackOffsets[source + 1] && selected < highestRanked.length;
+					fallback++) {
+				int post = graph.fallbacks[fallback];
+				if (post != source && rank[post] == 0)
+					highestRanked[selected++] = post;
+			}
+			return Arrays.copyOf(highestRanked, selected);
+		}
+
+		private boolean isBetter(int post, int other) {
+			// IDs sort like slugs
+			return rank[post] > rank[other] || (rank[post] == rank[other] && post < other);
+		}
+
+		private void siftUp(int index, int post) {
+			while (index > 0) {
+				int parent = (index - 1) / 2;
+				if (isBetter(post, best[parent]))
+					break;
+				best[index] = best[parent];
+				index = parent;
+			}
+			best[index] = post;
+		}
+
+		private void siftDown(int size, int post) {
+			int index = 0;
+			while (true) {
+				int child = 2 * index + 1;
+				if (child >= size)
+					break;
+				if (child + 1 < size && isBetter(best[child], best[child + 1]))
+					child++;
+				if (isBetter(best[child], post))
+					break;
+				best[index] = best[child];
+				index = child;
+			}
+			best[index] = post;
+		}
+
+		private void reset() {
+			for (int i = 0; i < currentCount; i++)
+				current[currentPosts[i]] = 0;
+			currentCount = 0;
+			for (int i = 0; i < rankedCount; i++)
+				rank[rankedPosts[i]] = 0;
+			rankedCount = 0;
+		}
+
+	}
+
+}
@@ -9,21 +9,22 @@ import java.util.stream.Stream;
 
 import static java.util.Objects.requireNonNull;
 import static java.util.stream.Collectors.joining;
-import static java.util.stream.Collectors.toList;
 
 public class Recommendation {
 
 	private final Post post;
 	private final List<Post> recommendedPosts;
+	// approximate recommendations come from a cheap baseline instead of the genealogists
+	private final boolean exact;
 
 	Recommendation(Post post, List<Post> recommendedPosts) {
-		this.post = requireNonNull(post);
-		this.recommendedPosts = requireNonNull(recommendedPosts);
+		this(post, recommendedPosts, true);
 	}
 
-	static Recommendation from(Post post, Stream<Post> sortedRecommendations, int perPost) {
-		List<Post> recommendations = sortedRecommendations.limit(perPost).collect(toList());
-		return new Recommendation(requireNonNull(post), recommendations);
+	Recommendation(Post post, List<Post> recommendedPosts, boolean exact) {
+		this.post = requireNonNull(post);
+		this.recommendedPosts = requireNonNull(recommendedPosts);
+		this.exact = exact;
 	}
 
 	public Post post() {
@@ -34,6 +35,10 @@ public class Recommendation {
 		return recommendedPosts.stream();
 	}
 
+	public boolean isExact() {
+		return exact;
+	}
+
 	@Override
 	public boolean equals(Object o) {
 		if (this == o)
@@ -41,7 +46,8 @@ public class Recommendation {
 		if (o == null || getClass() != o.getClass())
 			return false;
 		Recommendation that = (Recommendation) o;
-		return post.equals(that.post) &&
+		return exact == that.exact &&
+				post.equals(that.post) &&
 				recommendedPosts.equals(that.recommendedPosts);
 	}
 
@@ -58,6 +64,7 @@ public class Recommendation {
 				.map(Post::slug)
 				.map(Slug::value)
 				.collect(joining(", ")) +
+				", exact=" + exact +
 				'}';
 	}
 
@@ -1,38 +1,151 @@
 package org.codefx.java_after_eight.recommendation;
 
+import org.codefx.java_after_eight.events.Stage;
+import org.codefx.java_after_eight.events.Stages;
 import org.codefx.java_after_eight.genealogy.Relation;
+import org.codefx.java_after_eight.genealogy.ScoreMatrices;
+import org.codefx.java_after_eight.genealogy.Weights;
 import org.codefx.java_after_eight.post.Post;
+import org.codefx.java_after_eight.post.PostIds;
 
-import java.util.Comparator;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.BitSet;
 import java.util.List;
-import java.util.Map;
+import java.util.Optional;
+import java.util.stream.IntStream;
 import java.util.stream.Stream;
 
 import static java.util.Comparator.comparing;
-import static java.util.stream.Collectors.groupingBy;
+import static java.util.stream.Collectors.toList;
+import static org.codefx.java_after_eight.recommendation.EncodedRelations.post1Of;
+import static org.codefx.java_after_eight.recommendation.EncodedRelations.post2Of;
 
 // Don't judge me for the name - recommend a better one (see what I did there?)
 public class Recommender {
 
+	private final Optional<PersonalizedPageRank> reRanking;
+
+	public Recommender() {
+		this.reRanking = Optional.empty();
+	}
+
+	public Recommender(PersonalizedPageRank reRanking) {
+		this.reRanking = Optional.of(reRanking);
+	}
+
 	public Stream<Recommendation> recommend(Stream<Relation> relations, int perPost) {
 		if (perPost < 1)
 			throw new IllegalArgumentException(
 					"Number of recommendations per post must be greater zero: " + perPost);
+		if (reRanking.isPresent())
+			return reRanking.get().recommend(relations, perPost);
+
+		// relations are inferred while they are collected, so ranking only starts afterwards
+		List<Relation> collected = relations.collect(toList());
+		Stage stage = Stages.ranking("relations");
+		PostIds posts = PostIds.of(postsOf(collected));
+		EncodedRelations.checkPostCount(posts.size());
+		// post IDs sort like slugs, so ties are broken by slug and the result doesn't depend on the order of the relations
+		long[] sorted = new long[collected.size()];
+		for (int index = 0; index < sorted.length; index++) {
+			Relation relation = collected.get(index);
+			sorted[index] = EncodedRelations.encode(
+					posts.idOf(relation.post1()), relation.score(), posts.idOf(relation.post2()));
+		}
+		Arrays.sort(sorted);
 
-		Comparator<Relation> byPostThenByDecreasingScore =
-				comparing((Relation relation) -> relation.post1().slug())
-						.thenComparing(Relation::score)
-						.reversed();
-		Map<Post, List<Relation>> byPost = relations
-				.sorted(byPostThenByDecreasingScore)
-				.collect(groupingBy(Relation::post1));
-		return byPost
-				.entrySet().stream()
-				.map(postWithRelations -> Recommendation.from(
-						postWithRelations.getKey(),
-						postWithRelations.getValue().stream().map(Relation::post2),
-						perPost));
+		List<Recommendation> recommendations = new ArrayList<>();
+		int index = 0;
+		while (index < sorted.length) {
+			int post1 = post1Of(sorted[index]);
+			List<Post> recommendedPosts = new ArrayList<>(perPost);
+			for (; index < sorted.length && post1Of(sorted[index]) == post1; index++)
+				if (recommendedPosts.size() < perPost)
+					recommendedPosts.add(posts.post(post2Of(sorted[index])));
+			recommendations.add(new Recommendation(posts.post(post1), recommendedPosts));
+		}
+		stage.posts(recommendations.size()).pairs(collected.size()).commit();
+		return recommendations.stream();
+	}
+
+	private static List<Post> postsOf(List<Relation> relations) {
+		// posts are equal if their slugs are, so slug IDs identify them without hashing the posts
+		BitSet seen = new BitSet();
+		List<Post> posts = new ArrayList<>();
+		for (Relation relation : relations) {
+			addIfUnseen(relation.post1(), seen, posts);
+			addIfUnseen(relation.post2(), seen, posts);
+		}
+		return posts;
+	}
+
+	private static void addIfUnseen(Post post, BitSet seen, List<Post> posts) {
+		if (!seen.get(post.slug().id())) {
+			seen.set(post.slug().id());
+			posts.add(post);
+		}
+	}
+
+	/**
+	 * Like {@link #recommend(Stream, int) recommend(scores.relations(weights), perPost)}, but without page rank,
+	 * the relations are ranked straight from the score store - one post at a time and without creating them.
+	 */
+	public Stream<Recommendation> recommend(ScoreMatrices scores, Weights weights, int perPost) {
+		if (perPost < 1)
+			throw new IllegalArgumentException(
+					"Number of recommendations per post must be greater zero: " + perPost);
+		if (reRanking.isPresent())
+			return reRanking.get().recommend(scores.relations(weights), perPost);
+
+		List<Post> posts = scores.posts();
+		int[] slugRanks = new int[posts.size()];
+		Integer[] bySlug = IntStream.range(0, posts.size()).boxed().toArray(Integer[]::new);
+		Arrays.sort(bySlug, comparing(post -> posts.get(post).slug()));
+		for (int rank = 0; rank < bySlug.length; rank++)
+			slugRanks[bySlug[rank]] = rank;
+
+		Stage stage = Stages.ranking("score matrices");
+		ThreadLocal<ScoreMatrices.Aggregation> aggregations = ThreadLocal.withInitial(() -> scores.aggregation(weights));
+		List<Recommendation> recommendations = IntStream.range(0, posts.size())
+				.parallel()
+				.mapToObj(post -> {
+					long[] postScores = aggregations.get().scoresOf(post);
+					return new Recommendation(
+							posts.get(post),
+							Arrays.stream(selectTop(post, postScores, slugRanks, perPost))
+									.mapToObj(posts::get)
+									.collect(toList()));
+				})
+				.collect(toList());
+		// each post's aggregation is a separate stage
+		stage.posts(posts.size()).pairs((long) posts.size() * (posts.size() - 1)).commit();
+		return recommendations.stream();
+	}
+
+	private static int[] selectTop(int self, long[] scores, int[] slugRanks, int perPost) {
+		int[] top = new int[Math.min(perPost, scores.length - 1)];
+		int count = 0;
+		for (int post = 0; post < scores.length; post++) {
+			if (post == self)
+				continue;
+			int position = count;
+			while (position > 0 && isBetter(post, top[position - 1], scores, slugRanks))
+				position--;
+			if (position == top.length)
+				continue;
+
+			for (int i = Math.min(count, top.length - 1); i > position; i--)
+				top[i] = top[i - 1];
+			top[position] = post;
+			count = Math.min(count + 1, top.length);
+		}
+		return top;
+	}
 
+	private static boolean isBetter(int post, int otherPost, long[] scores, int[] slugRanks) {
+		return scores[post] > scores[otherPost]
+				|| (scores[post] == scores[otherPost] && slugRanks[post] < slugRanks[otherPost]);
 	}
 
 }
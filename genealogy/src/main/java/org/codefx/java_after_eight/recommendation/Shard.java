@@ -0,0 +1,221 @@
+package org.codefx.java_after_eight.recommendation;
+
+import org.codefx.java_after_eight.Utils;
+import org.codefx.java_after_eight.post.Post;
+import org.codefx.java_after_eight.post.Slug;
+
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Function;
+import java.util.stream.Stream;
+
+import static java.lang.String.format;
+import static java.util.Comparator.comparing;
+import static java.util.Comparator.comparingInt;
+import static java.util.Objects.requireNonNull;
+import static java.util.stream.Collectors.joining;
+import static java.util.stream.Collectors.toList;
+import static java.util.stream.Collectors.toMap;
+
+/**
+ * The recommendations for the rows {@code [from, to)} of the post matrix, where rows are the posts
+ * sorted by slug. Because that order only depends on the posts, several processes (or nodes that share
+ * a file system) can each compute a shard and {@link #merge(Collection) merge} them afterwards.
+ *
+ * <p>In a file, a shard is a header line {@code rows <from> <to> <total number of posts>} followed by
+ * one line per post with its slug and the slugs of its recommendations, separated by tabs.
+ */
+public class Shard {
+
+	private static final String HEADER_PREFIX = "rows ";
+	private static final String SEPARATOR = "\t";
+
+	private final int from;
+	private final int to;
+	private final int total;
+	private final List<Recommendation> recommendations;
+
+	private Shard(int from, int to, int total, List<Recommendation> recommendations) {
+		if (from < 0 || to < from || total < to)
+			throw new IllegalArgumentException(format("Invalid rows [%d, %d) of %d posts.", from, to, total));
+		this.from = from;
+		this.to = to;
+		this.total = total;
+		this.recommendations = requireNonNull(recommendations);
+	}
+
+	/**
+	 * @param rows rows in the form {@code from:to}
+	 * @return the posts that make up the specified rows
+	 */
+	public static List<Post> rows(String rows, Collection<Post> posts) {
+		int[] range = parseRange(rows);
+		if (posts.size() < range[1])
+			throw new IllegalArgumentException(format("Rows %s exceed the number of posts %d.", rows, posts.size()));
+		return sortedBySlug(posts).subList(range[0], range[1]);
+	}
+
+	private static int[] parseRange(String rows) {
+		String[] range = rows.split(":");
+		try {
+			if (range.length == 2) {
+				int from = Integer.parseInt(range[0].trim());
+				int to = Integer.parseInt(range[1].trim());
+				if (0 <= from && from <= to)
+					return new int[] { from, to };
+			}
+		} catch (NumberFormatException ex) {
+			// fall through to the exception below
+		}
+		throw new IllegalArgumentException("Rows must have the form `from:to` with 0 <= from <= to: " + rows);
+	}
+
+	private static List<Post> sortedBySlug(Collection<Post> posts) {
+		return posts.stream()
+				.sorted(comparing(Post::slug))
+				.collect(toList());
+	}
+
+	/**
+	 * @param rows rows in the form {@code from:to}
+	 * @param recommendations the recommendations for (exactly) the posts in these rows
+	 */
+	public static Shard of(String rows, Collection<Post> posts, Stream<Recommendation> recommendations) {
+		int[] range = parseRange(rows);
+		List<Post> rowPosts = rows(rows, posts);
+		Map<Post, Recommendation> byPost = recommendations.collect(toMap(Recommendation::post, Function.identity()));
+		List<Recommendation> sorted = rowPosts.stream()
+				// the recommender skips posts without relations, so they get no recommendations
+				.map(post -> byPost.getOrDefault(post, new Recommendation(post, new ArrayList<>())))
+				.collect(toList());
+		if (!new HashSet<>(rowPosts).containsAll(byPost.keySet()))
+			throw new IllegalArgumentException("Recommendations contain posts outside of rows " + rows);
+		return new Shard(range[0], range[1], posts.size(), sorted);
+	}
+
+	public static Shard read(Path file, Collection<Post> posts) {
+		Map<Slug, Post> postsBySlug = posts.stream().collect(toMap(Post::slug, Function.identity()));
+		List<String> lines = Utils.uncheckedFilesReadAllLines(file);
+		if (lines.isEmpty() || !lines.get(0).startsWith(HEADER_PREFIX))
+			throw new IllegalArgumentException("Not a shard: " + file);
+		int[] header = Arrays.stream(lines.get(0).substring(HEADER_PREFIX.length()).split(" "))
+				.mapToInt(Integer::parseInt)
+				.toArray();
+		if (header.length != 3 || header[2] != posts.size())
+			throw new IllegalArgumentException(format(
+					"Shard was computed for other posts (expected %d): %s", posts.size(), file));
+
+		List<Recommendation> recommendations = lines.stream()
+				.skip(1)
+				.map(line -> Arrays.stream(line.split(SEPARATOR))
+						.map(Slug::of)
+						.map(slug -> {
+							Post post = postsBySlug.get(slug);
+							if (post == null)
+								throw new IllegalArgumentException(
+										format("Shard contains unknown post %s: %s", slug.value(), file));
+							return post;
+						})
+						.collect(toList()))
+				.map(linePosts -> new Recommendation(linePosts.get(0), linePosts.subList(1, linePosts.size())))
+				.collect(toList());
+		if (recommendations.size() != header[1] - header[0])
+			throw new IllegalArgumentException(format(
+					"Shard should contain %d posts, but contains %d: %s",
+					header[1] - header[0], recommendations.size(), file));
+		return new Shard(header[0], header[1], header[2], recommendations);
+	}
+
+	public void writeTo(Path file) {
+		Utils.uncheckedFilesWrite(file, toString());
+	}
+
+	/**
+	 * @param replacements recommendations that replace those of the same posts (identified by slug) in this shard
+	 * 		(recommendations of posts outside of this shard's rows are ignored)
+	 * @return a shard with the same rows and the replaced recommendations
+	 */
+	public Shard with(Collection<Recommendation> replacements) {
+		Map<Slug, Recommendation> replacementsBySlug = replacements.stream()
+				.collect(toMap(recommendation -> recommendation.post().slug(), Function.identity()));
+		List<Recommendation> replaced = recommendations.stream()
+				.map(recommendation -> replacementsBySlug.getOrDefault(recommendation.post().slug(), recommendation))
+				.collect(toList());
+		return new Shard(from, to, total, replaced);
+	}
+
+	/**
+	 * Replaces recommendations in the shards stored in the specified files and writes the changed shards back,
+	 * so later updates (and merges) start from these recommendations.
+	 *
+	 * @param files the files of shards that cover all rows exactly once
+	 * @param replacements recommendations that replace those of the same posts (identified by slug)
+	 * @return the updated shards
+	 * @throws IllegalArgumentException if the shards don't cover all rows exactly once (no file is written then)
+	 */
+	public static List<Shard> update(List<Path> files, Collection<Post> posts, Collection<Recommendation> replacements) {
+		List<Shard> shards = files.stream()
+				.map(file -> read(file, posts))
+				.collect(toList());
+		List<Shard> updated = shards.stream()
+				.map(shard -> shard.with(replacements))
+				.collect(toList());
+		// validates that the shards cover all rows before anything is written
+		merge(updated);
+		for (int index = 0; index < files.size(); index++)
+			if (!updated.get(index).toString().equals(shards.get(index).toString()))
+				updated.get(index).writeTo(files.get(index));
+		return updated;
+	}
+
+	/**
+	 * @return the recommendations of all shards, in slug order
+	 * @throws IllegalArgumentException if the shards don't cover all rows exactly once
+	 */
+	public static Stream<Recommendation> merge(Collection<Shard> shards) {
+		List<Shard> sorted = shards.stream()
+				.sorted(comparingInt((Shard shard) -> shard.from).thenComparing(shard -> shard.to))
+				.collect(toList());
+		if (sorted.isEmpty())
+			throw new IllegalArgumentException("No shards to merge.");
+
+		int total = sorted.get(0).total;
+		int next = 0;
+		for (Shard shard : sorted) {
+			if (shard.total != total)
+				throw new IllegalArgumentException("Shards were computed for different posts.");
+			if (shard.from != next)
+				throw new IllegalArgumentException(shard.from < next
+						? format("Rows [%d, %d) overlap with another shard.", shard.from, shard.to)
+						: format("Rows [%d, %d) are missing.", next, shard.from));
+			next = shard.to;
+		}
+		if (next != total)
+			throw new IllegalArgumentException(format("Rows [%d, %d) are missing.", next, total));
+
+		return sorted.stream()
+				.flatMap(shard -> shard.recommendations.stream())
+				// posts without relations aren't recommended in a single run either
+				.filter(recommendation -> recommendation.recommendedPosts().findAny().isPresent());
+	}
+
+	@Override
+	public String toString() {
+		String header = HEADER_PREFIX + from + " " + to + " " + total;
+		return Stream
+				.concat(
+						Stream.of(header),
+						recommendations.stream()
+								.map(recommendation -> Stream
+										.concat(Stream.of(recommendation.post()), recommendation.recommendedPosts())
+										.map(post -> post.slug().value())
+										.collect(joining(SEPARATOR))))
+				.collect(joining("\n"));
+	}
+
+}
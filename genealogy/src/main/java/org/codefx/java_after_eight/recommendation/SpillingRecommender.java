@@ -0,0 +1,359 @@
+package org.codefx.java_after_eight.recommendation;
+
+import org.codefx.java_after_eight.events.Stage;
+import org.codefx.java_after_eight.events.Stages;
+import org.codefx.java_after_eight.genealogy.Relation;
+import org.codefx.java_after_eight.post.Post;
+import org.codefx.java_after_eight.post.PostIds;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.List;
+import java.util.Objects;
+import java.util.function.LongConsumer;
+import java.util.stream.Stream;
+
+import static java.nio.file.StandardOpenOption.APPEND;
+import static java.nio.file.StandardOpenOption.READ;
+import static java.nio.file.StandardOpenOption.WRITE;
+import static org.codefx.java_after_eight.recommendation.EncodedRelations.post1Of;
+import static org.codefx.java_after_eight.recommendation.EncodedRelations.post2Of;
+
+/**
+ * Recommends posts like {@link Recommender}, but in bounded memory: relations are
+ * {@link EncodedRelations encoded} as {@code long}s that sort like {@code Recommender} sorts, and only the
+ * best {@code perPost} relations of each post are kept in a bounded heap per post. If the heaps of all posts
+ * don't fit into the memory budget, posts are split into ranges whose heaps do: relations of the first range
+ * are kept in memory, those of later ranges are spilled into at most {@value #MAX_SPILL_FILES} files, each
+ * with a contiguous group of ranges. Each file is then read back the same way, i.e. its first range goes into
+ * the heaps and the others are spilled into files again, until all ranges were kept in memory once.
+ *
+ * <p>The budget covers the heaps and the buffers of the spill files (of which only the ones being written
+ * and the one being read are held at a time), but never less than one post's heap and one relation per buffer.
+ */
+public class SpillingRecommender {
+
+	private static final int SPILL_BUFFER_BYTES = 8 * 1024;
+	private static final int MAX_SPILL_FILES = 16;
+
+	private final PostIds posts;
+	private final long memoryBudget;
+	private final Path spillFolder;
+
+	public SpillingRecommender(Collection<Post> posts, long memoryBudget, Path spillFolder) {
+		EncodedRelations.checkPostCount(posts.size());
+		if (memoryBudget < Long.BYTES)
+			throw new IllegalArgumentException("Memory budget must be large enough for one relation: " + memoryBudget);
+		this.posts = PostIds.of(posts);
+		this.memoryBudget = memoryBudget;
+		this.spillFolder = spillFolder;
+	}
+
+	public Stream<Recommendation> recommend(Stream<Relation> relations, int perPost) {
+		if (perPost < 1)
+			throw new IllegalArgumentException(
+					"Number of recommendations per post must be greater zero: " + perPost);
+
+		Spilling spilling = new Spilling(perPost);
+		Partition partition = spilling.partition(0, spilling.ranges);
+		try {
+			long[] total = { 0 };
+			relations.forEach(relation -> {
+				partition.add(encode(relation));
+				total[0]++;
+			});
+
+			// relations are inferred while they are kept or spilled, so only reading the spills is ranking
+			Stage stage = Stages.ranking("spilled relations");
+			List<Recommendation> recommendations = new ArrayList<>();
+			long spilledBytes = partition.finish(recommendations);
+			if (stage.isRecorded())
+				stage
+						.posts(recommendations.size())
+						.pairs(total[0])
+						.bytes(spilledBytes)
+						.commit();
+			return recommendations.stream();
+		} finally {
+			partition.delete();
+		}
+	}
+
+	private long encode(Relation relation) {
+		return EncodedRelations.encode(posts.idOf(relation.post1()), relation.score(), posts.idOf(relation.post2()));
+	}
+
+	private Path createSpillFile() {
+		try {
+			return Files.createTempFile(spillFolder, "relations-", ".run");
+		} catch (IOException ex) {
+			throw new UncheckedIOException(ex);
+		}
+	}
+
+	/**
+	 * How the budget is split between heaps and spill buffers for one call of {@code recommend}.
+	 */
+	private class Spilling {
+
+		final int rowsPerRange;
+		final int ranges;
+		final int spillFiles;
+		final int bufferBytes;
+		final Heaps heaps;
+
+		Spilling(int perPost) {
+			// a post's heap takes `perPost` relations and its size
+			long heapBytes = (long) perPost * Long.BYTES + Integer.BYTES;
+			long maxRows = (Integer.MAX_VALUE - 8) / perPost;
+			if (posts.size() * heapBytes <= memoryBudget && posts.size() <= maxRows) {
+				// everything fits into memory, so there's no need to touch the disk
+				rowsPerRange = Math.max(1, posts.size());
+				spillFiles = 0;
+				bufferBytes = 0;
+			} else {
+				// half the budget goes to the spill buffers, i.e. those of the files being written and the one being read
+				long spillBudget = memoryBudget / 2;
+				spillFiles = (int) Math.max(2, Math.min(MAX_SPILL_FILES, spillBudget / SPILL_BUFFER_BYTES - 1));
+				bufferBytes = (int) Math.max(
+						Long.BYTES,
+						Math.min(SPILL_BUFFER_BYTES, spillBudget / (spillFiles + 1) / Long.BYTES * Long.BYTES));
+				long heapBudget = memoryBudget - (long) (spillFiles + 1) * bufferBytes;
+				rowsPerRange = (int) Math.max(1, Math.min(maxRows, heapBudget / heapBytes));
+			}
+			ranges = (posts.size() + rowsPerRange - 1) / rowsPerRange;
+			heaps = new Heaps(rowsPerRange, perPost);
+		}
+
+		Partition partition(int firstRange, int endRange) {
+			return new Partition(this, firstRange, endRange);
+		}
+
+	}
+
+	/**
+	 * The relations of the posts in the ranges [{@code firstRange}; {@code endRange}): those of the first range
+	 * go into the heaps, those of later ranges are spilled into files, each with a contiguous group of ranges.
+	 */
+	private class Partition {
+
+		private final Spilling spilling;
+		private final int firstRange;
+		private final int endRange;
+		private final int rangesPerFile;
+		private final SpillFile[] files;
+
+		Partition(Spilling spilling, int firstRange, int endRange) {
+			this.spilling = spilling;
+			this.firstRange = firstRange;
+			this.endRange = endRange;
+			int spilledRanges = endRange - firstRange - 1;
+			this.rangesPerFile = spilledRanges <= 0 ? 1 : (spilledRanges + spilling.spillFiles - 1) / spilling.spillFiles;
+			this.files = new SpillFile[spilledRanges <= 0 ? 0 : (spilledRanges + rangesPerFile - 1) / rangesPerFile];
+			spilling.heaps.clear();
+		}
+
+		void add(long relation) {
+			int post1 = post1Of(relation);
+			int range = post1 / spilling.rowsPerRange;
+			if (range == firstRange)
+				spilling.heaps.add(post1 - firstRange * spilling.rowsPerRange, relation);
+			else {
+				int file = (range - firstRange - 1) / rangesPerFile;
+				if (files[file] == null)
+					files[file] = new SpillFile(createSpillFile(), spilling.bufferBytes);
+				files[file].write(relation);
+			}
+		}
+
+		/**
+		 * Collects the recommendations of all ranges (in order) and deletes the spill files.
+		 *
+		 * @return the number of bytes that were spilled
+		 */
+		long finish(List<Recommendation> recommendations) {
+			spilling.heaps.collectRecommendations(firstRange * spilling.rowsPerRange, recommendations);
+			for (SpillFile file : files)
+				if (file != null)
+					file.finishWriting();
+
+			long spilledBytes = 0;
+			try {
+				for (int file = 0; file < files.length; file++) {
+					if (files[file] == null)
+						continue;
+					int groupStart = firstRange + 1 + file * rangesPerFile;
+					Partition group = spilling.partition(groupStart, Math.min(endRange, groupStart + rangesPerFile));
+					try {
+						spilledBytes += files[file].size();
+						files[file].readAll(group::add);
+						files[file].delete();
+						spilledBytes += group.finish(recommendations);
+					} finally {
+						group.delete();
+					}
+				}
+			} finally {
+				delete();
+			}
+			return spilledBytes;
+		}
+
+		void delete() {
+			Arrays.stream(files)
+					.filter(Objects::nonNull)
+					.forEach(SpillFile::delete);
+		}
+
+	}
+
+	/**
+	 * One bounded max-heap per row of a range, so the root is the worst of a row's best relations
+	 * (relations sort like {@code Recommender} sorts, i.e. smaller is better).
+	 */
+	private class Heaps {
+
+		private final int perPost;
+		// row `r`'s heap takes the indices [r * perPost; r * perPost + sizes[r])
+		private final long[] relations;
+		private final int[] sizes;
+
+		Heaps(int rows, int perPost) {
+			this.perPost = perPost;
+			this.relations = new long[rows * perPost];
+			this.sizes = new int[rows];
+		}
+
+		void add(int row, long relation) {
+			int offset = row * perPost;
+			int size = sizes[row];
+			if (size < perPost) {
+				siftUp(offset, size, relation);
+				sizes[row]++;
+			} else if (relation < relations[offset])
+				siftDown(offset, relation);
+		}
+
+		private void siftUp(int offset, int index, long relation) {
+			while (index > 0) {
+				int parent = (index - 1) / 2;
+				if (relations[offset + parent] >= relation)
+					break;
+				relations[offset + index] = relations[offset + parent];
+				index = parent;
+			}
+			relations[offset + index] = relation;
+		}
+
+		private void siftDown(int offset, long relation) {
+			int index = 0;
+			while (true) {
+				int child = 2 * index + 1;
+				if (child >= perPost)
+					break;
+				if (child + 1 < perPost && relations[offset + child + 1] > relations[offset + child])
+					child++;
+				if (relations[offset + child] <= relation)
+					break;
+				relations[offset + index] = relations[offset + child];
+				index = child;
+			}
+			relations[offset + index] = relation;
+		}
+
+		void collectRecommendations(int firstRow, List<Recommendation> recommendations) {
+			for (int row = 0; row < sizes.length && firstRow + row < posts.size(); row++) {
+				// like `Recommender`, posts without relations get no recommendation
+				if (sizes[row] == 0)
+					continue;
+				int offset = row * perPost;
+				Arrays.sort(relations, offset, offset + sizes[row]);
+				List<Post> recommendedPosts = new ArrayList<>(sizes[row]);
+				for (int i = offset; i < offset + sizes[row]; i++)
+					recommendedPosts.add(posts.post(post2Of(relations[i])));
+				recommendations.add(new Recommendation(posts.post(firstRow + row), recommendedPosts));
+			}
+		}
+
+		void clear() {
+			Arrays.fill(sizes, 0);
+		}
+
+	}
+
+	private static class SpillFile {
+
+		private final Path file;
+		private final int bufferBytes;
+		// only allocated while the file is written
+		private ByteBuffer buffer;
+
+		SpillFile(Path file, int bufferBytes) {
+			this.file = file;
+			this.bufferBytes = bufferBytes;
+			this.buffer = ByteBuffer.allocate(bufferBytes);
+		}
+
+		void write(long relation) {
+			if (!buffer.hasRemaining())
+				flush();
+			buffer.putLong(relation);
+		}
+
+		private void flush() {
+			// the file is only opened to flush the buffer, so spill files hold no file descriptors
+			try (FileChannel channel = FileChannel.open(file, WRITE, APPEND)) {
+				buffer.flip();
+				while (buffer.hasRemaining())
+					channel.write(buffer);
+				buffer.clear();
+			} catch (IOException ex) {
+				throw new UncheckedIOException(ex);
+			}
+		}
+
+		void finishWriting() {
+			flush();
+			buffer = null;
+		}
+
+		void readAll(LongConsumer relations) {
+			ByteBuffer readBuffer = ByteBuffer.allocate(bufferBytes);
+			try (FileChannel channel = FileChannel.open(file, READ)) {
+				while (channel.read(readBuffer) >= 0) {
+					readBuffer.flip();
+					while (readBuffer.remaining() >= Long.BYTES)
+						relations.accept(readBuffer.getLong());
+					readBuffer.compact();
+				}
+			} catch (IOException ex) {
+				throw new UncheckedIOException(ex);
+			}
+		}
+
+		long size() {
+			try {
+				return Files.size(file);
+			} catch (IOException ex) {
+				throw new UncheckedIOException(ex);
+			}
+		}
+
+		void delete() {
+			try {
+				Files.deleteIfExists(file);
+			} catch (IOException ex) {
+				throw new UncheckedIOException(ex);
+			}
+		}
+
+	}
+
+}
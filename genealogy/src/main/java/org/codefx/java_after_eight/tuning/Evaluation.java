@@ -0,0 +1,75 @@
+package org.codefx.java_after_eight.tuning;
+
+import org.codefx.java_after_eight.genealogist.RelationType;
+
+import java.util.List;
+import java.util.Locale;
+import java.util.stream.IntStream;
+
+import static java.lang.String.format;
+import static java.util.stream.Collectors.joining;
+
+/**
+ * How well recommendations computed with specific weights match the {@link GroundTruth}.
+ */
+public class Evaluation {
+
+	private final List<RelationType> types;
+	private final double[] weights;
+	private final long hits;
+	private final long recommendations;
+	private final long expectedRecommendations;
+	private final long nanos;
+
+	Evaluation(List<RelationType> types, double[] weights, long hits, long recommendations, long expectedRecommendations, long nanos) {
+		this.types = types;
+		this.weights = weights;
+		this.hits = hits;
+		this.recommendations = recommendations;
+		this.expectedRecommendations = expectedRecommendations;
+		this.nanos = nanos;
+	}
+
+	/**
+	 * @return the number of recommendations that are in the ground truth
+	 */
+	public long hits() {
+		return hits;
+	}
+
+	public double precision() {
+		return recommendations == 0 ? 0 : (double) hits / recommendations;
+	}
+
+	public double recall() {
+		return expectedRecommendations == 0 ? 0 : (double) hits / expectedRecommendations;
+	}
+
+	public double weightOf(RelationType type) {
+		return weights[types.indexOf(type)];
+	}
+
+	/**
+	 * @return how long the evaluation took in nanoseconds
+	 */
+	public long nanos() {
+		return nanos;
+	}
+
+	/**
+	 * @return the weights in the format that {@link org.codefx.java_after_eight.genealogy.Weights#from(List)} parses
+	 */
+	public String weightLines() {
+		return IntStream.range(0, types.size())
+				.mapToObj(type -> format(Locale.ROOT, "%s = %.3f", types.get(type).value(), weights[type]))
+				.collect(joining("\n"));
+	}
+
+	@Override
+	public String toString() {
+		return format(Locale.ROOT,
+				"precision %.3f, recall %.3f (evaluated in %.3f ms) - %s",
+				precision(), recall(), nanos / 1_000_000.0, weightLines().replace("\n", ", "));
+	}
+
+}
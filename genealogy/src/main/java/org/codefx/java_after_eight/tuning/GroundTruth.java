@@ -0,0 +1,56 @@
+package org.codefx.java_after_eight.tuning;
+
+import org.codefx.java_after_eight.post.Slug;
+
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Curated pairs of posts, where the second post is a good recommendation for the first.
+ */
+public class GroundTruth {
+
+	private final Map<Slug, Set<Slug>> recommendations;
+
+	private GroundTruth(Map<Slug, Set<Slug>> recommendations) {
+		this.recommendations = recommendations;
+	}
+
+	/**
+	 * Parses lines with two whitespace-separated slugs each, where the second post is a good recommendation
+	 * for the first. Empty lines and lines starting with {@code #} are ignored.
+	 *
+	 * @param lines the lines to parse
+	 * @return the recommendations defined by the lines
+	 * @throws IllegalArgumentException if a non-empty line is no pair of slugs or there are no pairs at all
+	 */
+	public static GroundTruth from(List<String> lines) {
+		Map<Slug, Set<Slug>> recommendations = new HashMap<>();
+		for (String line : lines) {
+			if (line.trim().isEmpty() || line.trim().startsWith("#"))
+				continue;
+			String[] slugs = line.trim().split("\\s+");
+			if (slugs.length != 2)
+				throw new IllegalArgumentException("Line doesn't seem to be a pair of slugs: " + line);
+			recommendations
+					.computeIfAbsent(Slug.of(slugs[0]), __ -> new HashSet<>())
+					.add(Slug.of(slugs[1]));
+		}
+		if (recommendations.isEmpty())
+			throw new IllegalArgumentException("Ground truth contains no pairs.");
+		return new GroundTruth(recommendations);
+	}
+
+	public Set<Slug> posts() {
+		return Collections.unmodifiableSet(recommendations.keySet());
+	}
+
+	public Set<Slug> recommendationsFor(Slug post) {
+		return Collections.unmodifiableSet(recommendations.getOrDefault(post, Collections.emptySet()));
+	}
+
+}
@@ -0,0 +1,170 @@
+package org.codefx.java_after_eight.tuning;
+
+import org.codefx.java_after_eight.genealogist.RelationType;
+import org.codefx.java_after_eight.genealogy.ScoreMatrices;
+import org.codefx.java_after_eight.genealogy.ScoreMatrix;
+import org.codefx.java_after_eight.post.Post;
+import org.codefx.java_after_eight.post.Slug;
+
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.stream.IntStream;
+
+import static java.util.Comparator.comparing;
+import static java.util.stream.Collectors.toList;
+
+/**
+ * Evaluates candidate weights against a {@link GroundTruth} by computing the top recommendations for the
+ * posts in the ground truth straight from the {@link ScoreMatrices}, i.e. without any genealogists,
+ * relations or recommendations. Their ranking matches the one of the {@code Recommender}.
+ */
+public class WeightTuner {
+
+	private final List<RelationType> types;
+	private final int postCount;
+	private final int perPost;
+	// for each type, the scores of the posts in the ground truth (one row of `postCount` scores per post)
+	private final byte[][] scores;
+	// for each row, the index of the post it belongs to and the (sorted) indices of the expected recommendations
+	private final int[] rowPosts;
+	private final int[][] expected;
+	private final long expectedCount;
+	// for each post, its position when sorted by slug - used to break ties like `Recommender` does
+	private final int[] slugRanks;
+
+	public WeightTuner(ScoreMatrices scoreMatrices, GroundTruth truth, int perPost) {
+		if (perPost < 1)
+			throw new IllegalArgumentException(
+					"Number of recommendations per post must be greater zero: " + perPost);
+		List<Post> posts = scoreMatrices.posts();
+		Map<Slug, Integer> indices = new HashMap<>();
+		posts.forEach(post -> indices.put(post.slug(), indices.size()));
+
+		this.types = scoreMatrices.matrices().map(ScoreMatrix::type).collect(toList());
+		this.postCount = posts.size();
+		this.perPost = perPost;
+		this.rowPosts = truth.posts().stream()
+				.mapToInt(slug -> indexOf(slug, indices))
+				.sorted()
+				.toArray();
+		this.expected = Arrays.stream(rowPosts)
+				.mapToObj(post -> truth.recommendationsFor(posts.get(post).slug()).stream()
+						.mapToInt(slug -> indexOf(slug, indices))
+						.filter(recommendation -> recommendation != post)
+						.sorted()
+						.toArray())
+				.toArray(int[][]::new);
+		this.expectedCount = Arrays.stream(expected).mapToLong(recommendations -> recommendations.length).sum();
+		this.scores = scoreMatrices.matrices()
+				.map(matrix -> {
+					byte[] rows = new byte[rowPosts.length * postCount];
+					for (int row = 0; row < rowPosts.length; row++)
+						matrix.copyRow(rowPosts[row], rows, row * postCount);
+					return rows;
+				})
+				.toArray(byte[][]::new);
+		this.slugRanks = new int[postCount];
+		Integer[] bySlug = IntStream.range(0, postCount).boxed().toArray(Integer[]::new);
+		Arrays.sort(bySlug, comparing(post -> posts.get(post).slug()));
+		for (int rank = 0; rank < bySlug.length; rank++)
+			slugRanks[bySlug[rank]] = rank;
+	}
+
+	private static int indexOf(Slug slug, Map<Slug, Integer> indices) {
+		Integer index = indices.get(slug);
+		if (index == null)
+			throw new IllegalArgumentException("Ground truth contains unknown post: " + slug.value());
+		return index;
+	}
+
+	public List<RelationType> types() {
+		return types;
+	}
+
+	/**
+	 * Evaluates all weights 1 and {@code candidates - 1} random weights (drawn from [0; 1) with the given seed)
+	 * in parallel.
+	 *
+	 * @return the evaluations, best first
+	 */
+	public List<Evaluation> tune(int candidates, long seed) {
+		if (candidates < 1)
+			throw new IllegalArgumentException("Number of candidates must be greater zero: " + candidates);
+		Random random = new Random(seed);
+		double[][] weights = new double[candidates][types.size()];
+		Arrays.fill(weights[0], 1);
+		for (int candidate = 1; candidate < candidates; candidate++)
+			for (int type = 0; type < types.size(); type++)
+				weights[candidate][type] = random.nextDouble();
+
+		return Arrays.stream(weights)
+				.parallel()
+				.map(this::evaluate)
+				.sorted(Comparator.comparingLong(Evaluation::hits).reversed())
+				.collect(toList());
+	}
+
+	/**
+	 * @param weights the weights in the order of {@link #types()}
+	 */
+	public Evaluation evaluate(double[] weights) {
+		if (weights.length != types.size())
+			throw new IllegalArgumentException("Expected " + types.size() + " weights, but got " + weights.length);
+
+		long start = System.nanoTime();
+		double[] combined = new double[postCount];
+		int[] top = new int[perPost];
+		long[] topScores = new long[perPost];
+		long hits = 0;
+		for (int row = 0; row < rowPosts.length; row++) {
+			Arrays.fill(combined, 0);
+			int rowStart = row * postCount;
+			for (int type = 0; type < scores.length; type++) {
+				byte[] typeScores = scores[type];
+				double weight = weights[type];
+				// simple counted loop over primitive arrays, so the JIT can vectorize it
+				for (int post = 0; post < postCount; post++)
+					combined[post] += typeScores[rowStart + post] * weight;
+			}
+			int found = selectTop(rowPosts[row], combined, top, topScores);
+			for (int i = 0; i < found; i++)
+				if (Arrays.binarySearch(expected[row], top[i]) >= 0)
+					hits++;
+		}
+		long nanos = System.nanoTime() - start;
+		return new Evaluation(types, weights, hits, (long) rowPosts.length * perPost, expectedCount, nanos);
+	}
+
+	private int selectTop(int self, double[] combined, int[] top, long[] topScores) {
+		int count = 0;
+		for (int post = 0; post < postCount; post++) {
+			if (post == self)
+				continue;
+			// round like `Relation` does, so ties are broken the same way
+			long score = Math.round(combined[post] / scores.length);
+			int position = count;
+			while (position > 0 && isBetter(score, post, topScores[position - 1], top[position - 1]))
+				position--;
+			if (position == perPost)
+				continue;
+
+			for (int i = Math.min(count, perPost - 1); i > position; i--) {
+				top[i] = top[i - 1];
+				topScores[i] = topScores[i - 1];
+			}
+			top[position] = post;
+			topScores[position] = score;
+			count = Math.min(count + 1, perPost);
+		}
+		return count;
+	}
+
+	private boolean isBetter(long score, int post, long otherScore, int otherPost) {
+		return score > otherScore || (score == otherScore && slugRanks[post] < slugRanks[otherPost]);
+	}
+
+}
@@ -0,0 +1,159 @@
+package org.codefx.java_after_eight.events;
+
+import jdk.jfr.Category;
+import jdk.jfr.DataAmount;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+
+/**
+ * Reports stages as Flight Recorder events - only loaded (via reflection) if {@code jdk.jfr} is available.
+ */
+class FlightRecorderStages implements StageFactory {
+
+	@Override
+	public Stage begin(StageType type, String subject) {
+		PipelineEvent event = create(type);
+		// if no recording includes the event, creating it is all the overhead there is
+		if (!event.isEnabled())
+			return Stages.none();
+		event.subject = subject;
+		event.begin();
+		return new RecordedStage(event);
+	}
+
+	private static PipelineEvent create(StageType type) {
+		switch (type) {
+			case FOLDER_SCAN:
+				return new FolderScanEvent();
+			case PARSE:
+				return new ParseEvent();
+			case PROCURE:
+				return new ProcureEvent();
+			case INFERENCE:
+				return new InferenceEvent();
+			case AGGREGATION:
+				return new AggregationEvent();
+			case RANKING:
+				return new RankingEvent();
+			case OUTPUT_WRITE:
+				return new OutputWriteEvent();
+			default:
+				throw new IllegalArgumentException("Unknown stage type: " + type);
+		}
+	}
+
+	private static class RecordedStage implements Stage {
+
+		private final PipelineEvent event;
+
+		RecordedStage(PipelineEvent event) {
+			this.event = event;
+		}
+
+		@Override
+		public boolean isRecorded() {
+			return true;
+		}
+
+		@Override
+		public Stage posts(long posts) {
+			event.posts = posts;
+			return this;
+		}
+
+		@Override
+		public Stage pairs(long pairs) {
+			event.pairs = pairs;
+			return this;
+		}
+
+		@Override
+		public Stage types(String types) {
+			event.types = types;
+			return this;
+		}
+
+		@Override
+		public Stage bytes(long bytes) {
+			event.bytes = bytes;
+			return this;
+		}
+
+		@Override
+		public void commit() {
+			event.commit();
+		}
+
+	}
+
+	@Category({ "Genealogy", "Pipeline" })
+	// the stages are few and their call sites are known, so stack traces would only take space
+	@StackTrace(false)
+	abstract static class PipelineEvent extends Event {
+
+		@Label("Subject")
+		@Description("The folder, file, service, post, or output the stage works on")
+		String subject;
+
+		@Label("Posts")
+		long posts;
+
+		@Label("Pairs")
+		@Description("The number of pairs of posts")
+		long pairs;
+
+		@Label("Relation Types")
+		String types;
+
+		@Label("Size")
+		@DataAmount
+		long bytes;
+
+	}
+
+	@Name("org.codefx.genealogy.FolderScan")
+	@Label("Folder Scan")
+	@Description("Lists the post files in a folder")
+	static class FolderScanEvent extends PipelineEvent {
+	}
+
+	@Name("org.codefx.genealogy.Parse")
+	@Label("Parse")
+	@Description("Parses a file into a post")
+	static class ParseEvent extends PipelineEvent {
+	}
+
+	@Name("org.codefx.genealogy.Procure")
+	@Label("Procure")
+	@Description("Procures a genealogist from a service")
+	static class ProcureEvent extends PipelineEvent {
+	}
+
+	@Name("org.codefx.genealogy.Inference")
+	@Label("Inference")
+	@Description("Infers the typed relations of one post with all posts")
+	static class InferenceEvent extends PipelineEvent {
+	}
+
+	@Name("org.codefx.genealogy.Aggregation")
+	@Label("Aggregation")
+	@Description("Aggregates the typed relations of one post with all posts")
+	static class AggregationEvent extends PipelineEvent {
+	}
+
+	@Name("org.codefx.genealogy.Ranking")
+	@Label("Ranking")
+	@Description("Ranks relations into recommendations")
+	static class RankingEvent extends PipelineEvent {
+	}
+
+	@Name("org.codefx.genealogy.OutputWrite")
+	@Label("Output Write")
+	@Description("Writes the recommendations")
+	static class OutputWriteEvent extends PipelineEvent {
+	}
+
+}
@@ -0,0 +1,21 @@
+package org.codefx.java_after_eight.genealogy;
+
+/**
+ * Selects the fastest {@link RowAggregation} for the running JVM: the Vector API is an incubator module, so it's
+ * only used if it was added with {@code --add-modules jdk.incubator.vector}.
+ */
+class RowAggregations {
+
+	private static final String VECTOR_MODULE = "jdk.incubator.vector";
+
+	static RowAggregation fastest() {
+		if (ModuleLayer.boot().findModule(VECTOR_MODULE).isEmpty())
+			return new ScalarRowAggregation();
+		try {
+			return VectorRowAggregation.isSupported() ? new VectorRowAggregation() : new ScalarRowAggregation();
+		} catch (LinkageError error) {
+			return new ScalarRowAggregation();
+		}
+	}
+
+}
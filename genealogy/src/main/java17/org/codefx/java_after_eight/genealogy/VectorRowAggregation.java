@@ -0,0 +1,64 @@
+package org.codefx.java_after_eight.genealogy;
+
+import jdk.incubator.vector.ByteVector;
+import jdk.incubator.vector.DoubleVector;
+import jdk.incubator.vector.VectorOperators;
+import jdk.incubator.vector.VectorSpecies;
+
+import java.util.Arrays;
+import java.util.stream.Stream;
+
+import static java.lang.Math.round;
+
+/**
+ * Aggregates with explicit SIMD instructions. Each lane performs the same multiplications and additions in the
+ * same order as {@link ScalarRowAggregation} (in particular, no fused multiply-add), so the scores are identical.
+ */
+class VectorRowAggregation implements RowAggregation {
+
+	private static final VectorSpecies<Double> DOUBLES = DoubleVector.SPECIES_PREFERRED;
+	// the smallest byte vector whose lanes fill a whole number of double vectors - each
+	// byte lane becomes a double lane, so with 8 or fewer double lanes, that's the 64-bit species
+	private static final VectorSpecies<Byte> BYTES = Stream
+			.of(ByteVector.SPECIES_64, ByteVector.SPECIES_128, ByteVector.SPECIES_256, ByteVector.SPECIES_512)
+			.filter(bytes -> bytes.length() % DOUBLES.length() == 0)
+			.findFirst()
+			.orElse(ByteVector.SPECIES_MAX);
+	private static final int PARTS = BYTES.length() / DOUBLES.length();
+
+	/**
+	 * @return whether the preferred double vectors can be filled with byte vectors (if not, the scores would be wrong)
+	 */
+	static boolean isSupported() {
+		return PARTS > 0 && BYTES.length() % DOUBLES.length() == 0;
+	}
+
+	@Override
+	public void aggregate(byte[][] typedScores, double[] weights, double[] totals, long[] scores) {
+		int length = scores.length;
+		int vectorLength = BYTES.loopBound(length);
+		Arrays.fill(totals, 0);
+		for (int type = 0; type < typedScores.length; type++) {
+			byte[] typeScores = typedScores[type];
+			double weight = weights[type];
+			DoubleVector weightVector = DoubleVector.broadcast(DOUBLES, weight);
+			int post = 0;
+			for (; post < vectorLength; post += BYTES.length()) {
+				ByteVector typeScoreBytes = ByteVector.fromArray(BYTES, typeScores, post);
+				for (int part = 0; part < PARTS; part++) {
+					int offset = post + part * DOUBLES.length();
+					DoubleVector typeScoreVector = (DoubleVector) typeScoreBytes.convertShape(VectorOperators.B2D, DOUBLES, part);
+					DoubleVector
+							.fromArray(DOUBLES, totals, offset)
+							.add(typeScoreVector.mul(weightVector))
+							.intoArray(totals, offset);
+				}
+			}
+			for (; post < length; post++)
+				totals[post] += typeScores[post] * weight;
+		}
+		for (int post = 0; post < length; post++)
+			scores[post] = round(totals[post] / typedScores.length);
+	}
+
+}
@@ -0,0 +1,44 @@
+package org.codefx.java_after_eight.host;
+
+import java.util.Optional;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ThreadFactory;
+
+/**
+ * Creates the executor that sends inference requests to genealogist hosts. Its threads mostly wait for answers,
+ * so on Java 21 and later, each request gets its own virtual thread.
+ */
+class InferenceExecutors {
+
+	static ExecutorService create(int threads, String name) {
+		return virtualThreadPerTask(name).orElseGet(() -> fixedPool(threads, name));
+	}
+
+	static Optional<ExecutorService> virtualThreadPerTask(String name) {
+		if (Runtime.version().feature() < 21)
+			return Optional.empty();
+		// the JAR is built on Java 17, so the Java 21 API for
+		// `Executors.newThreadPerTaskExecutor(Thread.ofVirtual().name(name, 0).factory())` is called reflectively
+		try {
+			Class<?> builderType = Class.forName("java.lang.Thread$Builder");
+			Object builder = Thread.class.getMethod("ofVirtual").invoke(null);
+			builder = builderType.getMethod("name", String.class, long.class).invoke(builder, name + "-", 0L);
+			ThreadFactory factory = (ThreadFactory) builderType.getMethod("factory").invoke(builder);
+			return Optional.of((ExecutorService) Executors.class
+					.getMethod("newThreadPerTaskExecutor", ThreadFactory.class)
+					.invoke(null, factory));
+		} catch (ReflectiveOperationException ex) {
+			return Optional.empty();
+		}
+	}
+
+	static ExecutorService fixedPool(int threads, String name) {
+		return Executors.newFixedThreadPool(threads, runnable -> {
+			Thread thread = new Thread(runnable, name);
+			thread.setDaemon(true);
+			return thread;
+		});
+	}
+
+}
@@ -0,0 +1,60 @@
+package org.codefx.java_after_eight;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.Optional;
+import java.util.concurrent.CompletionException;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class ConfigTests {
+
+	@TempDir
+	Path folder;
+
+	private Config create(String... options) {
+		String[] args = new String[3 + options.length];
+		args[0] = args[1] = args[2] = folder.toString();
+		System.arraycopy(options, 0, args, 3, options.length);
+		return Config.create(args).join();
+	}
+
+	@Test
+	void durations_parsedWithUnits() {
+		Config config = create("--deadline=500ms", "--genealogist-host-timeout=2m");
+
+		assertThat(config.deadline()).isEqualTo(Optional.of(Duration.ofMillis(500)));
+		assertThat(config.genealogistHostTimeout()).isEqualTo(Duration.ofMinutes(2));
+	}
+
+	@Test
+	void durationWithoutUnit_messageNamesOption() {
+		assertThatThrownBy(() -> create("--deadline=30"))
+				.isInstanceOf(CompletionException.class)
+				.hasCauseInstanceOf(IllegalArgumentException.class)
+				.hasMessageContaining("--deadline needs a unit");
+		assertThatThrownBy(() -> create("--genealogist-host-timeout=30"))
+				.hasMessageContaining("--genealogist-host-timeout needs a unit");
+	}
+
+	@Test
+	void noDuration_messageNamesOption() {
+		assertThatThrownBy(() -> create("--genealogist-budget=fives"))
+				.isInstanceOf(CompletionException.class)
+				.hasCauseInstanceOf(IllegalArgumentException.class)
+				.hasMessageContaining("--genealogist-budget is no duration: fives");
+	}
+
+	@Test
+	void unknownOptions_throwsException() {
+		assertThatThrownBy(() -> create("--slug=some-post", "--page-rank", "--pagerank"))
+				.isInstanceOf(CompletionException.class)
+				.hasCauseInstanceOf(IllegalArgumentException.class)
+				.hasMessageContaining("Unknown option(s): --pagerank, --slug");
+	}
+
+}
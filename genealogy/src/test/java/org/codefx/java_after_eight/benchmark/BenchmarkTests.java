@@ -0,0 +1,85 @@
+package org.codefx.java_after_eight.benchmark;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.Arrays;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class BenchmarkTests {
+
+	private static final long MILLION = 1_000_000;
+
+	// records the phases `load` and `rank`, where rank takes 1 ms in the first, 2 ms in the second measured iteration, etc.
+	private BenchmarkResult runBenchmark(int warmup, int measured, AtomicInteger iterations) {
+		return new Benchmark(warmup, measured).run(metrics -> {
+			int iteration = iterations.incrementAndGet() - warmup;
+			metrics.timer("phase", "phase", "load").record(5 * MILLION);
+			metrics.timer("phase", "phase", "rank").record(Math.max(1, iteration) * MILLION);
+			// timers with other names or without the label aren't phases
+			metrics.timer("infer").record(MILLION);
+			metrics.timer("phase").record(MILLION);
+		});
+	}
+
+	@Test
+	void run_warmsUpAndMeasuresAllIterations() {
+		AtomicInteger iterations = new AtomicInteger();
+		BenchmarkResult result = runBenchmark(3, 10, iterations);
+
+		assertThat(iterations).hasValue(13);
+		assertThat(result.phases()).containsExactly("load", "rank", Benchmark.TOTAL);
+	}
+
+	@Test
+	void percentiles_nearestRank() {
+		BenchmarkResult result = runBenchmark(2, 10, new AtomicInteger());
+
+		assertThat(result.percentile("load", 50)).isEqualTo(5 * MILLION);
+		assertThat(result.percentile("rank", 50)).isEqualTo(5 * MILLION);
+		assertThat(result.percentile("rank", 90)).isEqualTo(9 * MILLION);
+		assertThat(result.percentile("rank", 99)).isEqualTo(10 * MILLION);
+		assertThat(result.percentile("rank", 1)).isEqualTo(MILLION);
+		assertThatThrownBy(() -> result.percentile("infer", 50)).isInstanceOf(IllegalArgumentException.class);
+	}
+
+	@Test
+	void noMeasuredIterations_throwsException() {
+		assertThatThrownBy(() -> new Benchmark(1, 0)).isInstanceOf(IllegalArgumentException.class);
+	}
+
+	@Test
+	void baselineMet_noViolations() {
+		BenchmarkResult result = runBenchmark(0, 10, new AtomicInteger());
+		Baseline baseline = Baseline.from(Arrays.asList("# limits", "load p99 5", "", "rank p90 9.5"));
+
+		assertThat(baseline.violations(result)).isEmpty();
+	}
+
+	@Test
+	void baselineExceeded_violations() {
+		BenchmarkResult result = runBenchmark(0, 10, new AtomicInteger());
+		Baseline baseline = Baseline.from(Arrays.asList("load p50 4.5", "rank p90 9.5", "rank p99 9.5"));
+
+		assertThat(baseline.violations(result)).containsExactly(
+				"load p50 is 5.000 ms, but the baseline is 4.5 ms",
+				"rank p99 is 10.000 ms, but the baseline is 9.5 ms");
+	}
+
+	@Test
+	void invalidBaseline_throwsException() {
+		assertThatThrownBy(() -> Baseline.from(Arrays.asList("load 50 4.5"))).isInstanceOf(IllegalArgumentException.class);
+		assertThatThrownBy(() -> Baseline.from(Arrays.asList("load p0 4.5"))).isInstanceOf(IllegalArgumentException.class);
+	}
+
+	@Test
+	void baselineWithUnknownPhase_throwsException() {
+		BenchmarkResult result = runBenchmark(0, 1, new AtomicInteger());
+		Baseline baseline = Baseline.from(Arrays.asList("infer p50 1"));
+
+		assertThatThrownBy(() -> baseline.violations(result)).isInstanceOf(IllegalArgumentException.class);
+	}
+
+}
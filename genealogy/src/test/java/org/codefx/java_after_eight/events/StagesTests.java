@@ -0,0 +1,56 @@
+package org.codefx.java_after_eight.events;
+
+import jdk.jfr.Recording;
+import jdk.jfr.consumer.RecordedEvent;
+import jdk.jfr.consumer.RecordingFile;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.file.Path;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class StagesTests {
+
+	@Test
+	void noRecording_stageIsNotRecorded() {
+		Stage stage = Stages.parse("post.md");
+
+		assertThat(stage.isRecorded()).isFalse();
+		// must not fail
+		stage.posts(1).bytes(42).commit();
+	}
+
+	@Test
+	void recording_stagesAreRecordedWithTheirValues(@TempDir Path folder) throws IOException {
+		Path file = folder.resolve("stages.jfr");
+		try (Recording recording = new Recording()) {
+			recording.enable("org.codefx.genealogy.Parse");
+			recording.enable("org.codefx.genealogy.Inference");
+			recording.disable("org.codefx.genealogy.Ranking");
+			recording.start();
+
+			Stages.parse("post.md").posts(1).bytes(42).commit();
+			Stages.inference("post").posts(3).pairs(2).types("tag,link").commit();
+			// disabled in the recording
+			Stages.ranking("relations").pairs(6).commit();
+
+			recording.stop();
+			recording.dump(file);
+		}
+
+		List<RecordedEvent> events = RecordingFile.readAllEvents(file);
+		assertThat(events).extracting(event -> event.getEventType().getName())
+				.containsExactly("org.codefx.genealogy.Parse", "org.codefx.genealogy.Inference");
+		RecordedEvent parse = events.get(0);
+		assertThat(parse.getString("subject")).isEqualTo("post.md");
+		assertThat(parse.getLong("posts")).isEqualTo(1);
+		assertThat(parse.getLong("bytes")).isEqualTo(42);
+		RecordedEvent inference = events.get(1);
+		assertThat(inference.getLong("pairs")).isEqualTo(2);
+		assertThat(inference.getString("types")).isEqualTo("tag,link");
+	}
+
+}
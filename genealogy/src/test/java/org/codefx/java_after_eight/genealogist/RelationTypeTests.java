@@ -0,0 +1,52 @@
+package org.codefx.java_after_eight.genealogist;
+
+import org.junit.jupiter.api.Test;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class RelationTypeTests {
+
+	@Test
+	void emptyValue_exception() {
+		assertThatThrownBy(() -> RelationType.of("")).isInstanceOf(IllegalArgumentException.class);
+	}
+
+	@Test
+	void equalValues_sameOrdinal() {
+		RelationType type = RelationType.of("equal-values");
+		RelationType otherType = RelationType.of("equal-values");
+
+		assertThat(type).isEqualTo(otherType);
+		assertThat(type.ordinal()).isEqualTo(otherType.ordinal());
+	}
+
+	@Test
+	@SuppressWarnings("deprecation")
+	void constructedInstance_equalToCanonicalInstance() {
+		RelationType type = new RelationType("constructed");
+		RelationType canonicalType = RelationType.of("constructed");
+
+		assertThat(type).isEqualTo(canonicalType);
+		assertThat(canonicalType).isEqualTo(type);
+		assertThat(type).hasSameHashCodeAs(canonicalType);
+		assertThat(type.ordinal()).isEqualTo(canonicalType.ordinal());
+	}
+
+	@Test
+	void differentValues_differentOrdinals() {
+		RelationType type = RelationType.of("different-values-1");
+		RelationType otherType = RelationType.of("different-values-2");
+
+		assertThat(type).isNotEqualTo(otherType);
+		assertThat(type.ordinal()).isNotEqualTo(otherType.ordinal());
+	}
+
+	@Test
+	void ordinals_lessThanRegisteredTypes() {
+		RelationType type = RelationType.of("registered");
+
+		assertThat(type.ordinal()).isBetween(0, RelationType.registeredTypes() - 1);
+	}
+
+}
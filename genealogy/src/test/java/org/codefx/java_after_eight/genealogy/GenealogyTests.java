@@ -2,18 +2,27 @@ package org.codefx.java_after_eight.genealogy;
 
 import org.codefx.java_after_eight.post.Post;
 import org.codefx.java_after_eight.post.PostTestHelper;
+import org.codefx.java_after_eight.post.Slug;
 import org.codefx.java_after_eight.genealogist.Genealogist;
 import org.codefx.java_after_eight.genealogist.RelationType;
+import org.codefx.java_after_eight.genealogist.SelectiveGenealogist;
 import org.codefx.java_after_eight.genealogist.TypedRelation;
 import org.junit.jupiter.api.Test;
 
+import java.time.Duration;
+import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.HashMap;
+import java.util.List;
 import java.util.Map;
+import java.util.Objects;
+import java.util.Optional;
 import java.util.stream.Stream;
 
 import static java.lang.Math.round;
+import static java.util.stream.Collectors.toList;
 import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
 
 class GenealogyTests {
 
@@ -38,8 +47,8 @@ class GenealogyTests {
 	private final Post postB = PostTestHelper.createWithSlug("b");
 	private final Post postC = PostTestHelper.createWithSlug("c");
 
-	private final RelationType tagRelation = new RelationType("tag");
-	private final RelationType linkRelation = new RelationType("link");
+	private final RelationType tagRelation = RelationType.of("tag");
+	private final RelationType linkRelation = RelationType.of("link");
 
 	private final Genealogist tagGenealogist = (Post1, Post2) ->
 			new TypedRelation(Post1, Post2, tagRelation, tagScore(Post1, Post2));
@@ -140,6 +149,44 @@ class GenealogyTests {
 		);
 	}
 
+	@Test
+	void selectiveGenealogist_nonCandidatesNotInferredAndScoredZero() {
+		List<Posts> inferred = new ArrayList<>();
+		Genealogist selectiveGenealogist = new SelectiveGenealogist() {
+			@Override
+			public RelationType type() {
+				return tagRelation;
+			}
+
+			@Override
+			public Stream<Post> candidates(Post post) {
+				return post == postA ? Stream.of(postB) : Stream.empty();
+			}
+
+			@Override
+			public TypedRelation infer(Post post1, Post post2) {
+				inferred.add(new Posts(post1, post2));
+				return tagGenealogist.infer(post1, post2);
+			}
+		};
+		Genealogy genealogy = new Genealogy(
+				Arrays.asList(postA, postB, postC),
+				Arrays.asList(selectiveGenealogist, linkGenealogist),
+				weights);
+
+		Stream<Relation> relations = genealogy.inferRelations();
+
+		assertThat(relations).containsExactlyInAnyOrder(
+				new Relation(postA, postB, round((TAG_SCORE_A_B * TAG_WEIGHT + LINK_SCORE_A_B * LINK_WEIGHT) / 2)),
+				new Relation(postA, postC, round(LINK_SCORE_A_C * LINK_WEIGHT / 2)),
+				new Relation(postB, postA, round(LINK_SCORE_B_A * LINK_WEIGHT / 2)),
+				new Relation(postB, postC, round(LINK_SCORE_B_C * LINK_WEIGHT / 2)),
+				new Relation(postC, postA, round(LINK_SCORE_C_A * LINK_WEIGHT / 2)),
+				new Relation(postC, postB, round(LINK_SCORE_C_B * LINK_WEIGHT / 2))
+		);
+		assertThat(inferred).containsExactly(new Posts(postA, postB));
+	}
+
 	@Test
 	void twoGenealogists_threePosts() {
 		Genealogy genealogy = new Genealogy(
@@ -159,4 +206,112 @@ class GenealogyTests {
 		);
 	}
 
+	@Test
+	void twoGenealogists_selectedSlugs_onlyTheirRelations() {
+		Genealogy genealogy = new Genealogy(
+				Arrays.asList(postA, postB, postC),
+				Arrays.asList(tagGenealogist, linkGenealogist),
+				weights);
+
+		Stream<Relation> relations = genealogy.inferRelationsOf(Arrays.asList(postC.slug()));
+
+		assertThat(relations).containsExactlyInAnyOrder(
+				new Relation(postC, postA, round((TAG_SCORE_C_A * TAG_WEIGHT + LINK_SCORE_C_A * LINK_WEIGHT) / 2)),
+				new Relation(postC, postB, round((TAG_SCORE_C_B * TAG_WEIGHT + LINK_SCORE_C_B * LINK_WEIGHT) / 2))
+		);
+	}
+
+	@Test
+	void unknownSlug_throwsException() {
+		Genealogy genealogy = new Genealogy(Arrays.asList(postA, postB), Arrays.asList(tagGenealogist), weights);
+
+		assertThatThrownBy(() -> genealogy.inferRelationsOf(Arrays.asList(Slug.of("c"))))
+				.isInstanceOf(IllegalArgumentException.class);
+	}
+
+	@Test
+	void genealogistExceedsCallBudget_trippedAndScoredZeroInLaterRelations() {
+		Genealogist slowLinkGenealogist = (post1, post2) -> {
+			if (post1 == postB && post2 == postA)
+				sleep(50);
+			return linkGenealogist.infer(post1, post2);
+		};
+		Genealogy genealogy = new Genealogy(
+				Arrays.asList(postA, postB, postC),
+				Arrays.asList(tagGenealogist, slowLinkGenealogist),
+				weights,
+				new GenealogistBudget(Optional.of(Duration.ofMillis(10)), Optional.empty()));
+
+		List<Relation> relations = genealogy.inferRelations().collect(toList());
+
+		assertThat(relations).containsExactly(
+				new Relation(postA, postB, round((TAG_SCORE_A_B * TAG_WEIGHT + LINK_SCORE_A_B * LINK_WEIGHT) / 2)),
+				new Relation(postA, postC, round((TAG_SCORE_A_C * TAG_WEIGHT + LINK_SCORE_A_C * LINK_WEIGHT) / 2)),
+				// the call that exceeded the budget still counts...
+				new Relation(postB, postA, round((TAG_SCORE_B_A * TAG_WEIGHT + LINK_SCORE_B_A * LINK_WEIGHT) / 2)),
+				// ... but later ones are not made and score 0
+				new Relation(postB, postC, round(TAG_SCORE_B_C * TAG_WEIGHT / 2)),
+				new Relation(postC, postA, round(TAG_SCORE_C_A * TAG_WEIGHT / 2)),
+				new Relation(postC, postB, round(TAG_SCORE_C_B * TAG_WEIGHT / 2))
+		);
+		assertThat(genealogy.report()).extracting(GenealogistMonitor::isTripped).containsExactly(false, true);
+		assertThat(genealogy.report()).extracting(GenealogistMonitor::calls).containsExactly(6L, 3L);
+		assertThat(genealogy.report().get(1).name()).isEqualTo(linkRelation.value());
+	}
+
+	@Test
+	void allGenealogistsExceedTotalBudget_relationsScoredZero() {
+		Genealogist slowTagGenealogist = (post1, post2) -> {
+			sleep(20);
+			return tagGenealogist.infer(post1, post2);
+		};
+		Genealogy genealogy = new Genealogy(
+				Arrays.asList(postA, postB),
+				Arrays.asList(slowTagGenealogist),
+				weights,
+				new GenealogistBudget(Optional.empty(), Optional.of(Duration.ofMillis(1))));
+
+		Stream<Relation> relations = genealogy.inferRelations();
+
+		assertThat(relations).containsExactly(
+				new Relation(postA, postB, round(TAG_SCORE_A_B * TAG_WEIGHT)),
+				new Relation(postB, postA, 0)
+		);
+	}
+
+	private static void sleep(long millis) {
+		try {
+			Thread.sleep(millis);
+		} catch (InterruptedException ex) {
+			Thread.currentThread().interrupt();
+		}
+	}
+
+	private static class Posts {
+
+		final Post post1;
+		final Post post2;
+
+		Posts(Post post1, Post post2) {
+			this.post1 = post1;
+			this.post2 = post2;
+		}
+
+		@Override
+		public boolean equals(Object o) {
+			if (this == o)
+				return true;
+			if (o == null || getClass() != o.getClass())
+				return false;
+			Posts posts = (Posts) o;
+			return post1.equals(posts.post1) && post2.equals(posts.post2);
+		}
+
+		@Override
+		public int hashCode() {
+			return Objects.hash(post1, post2);
+		}
+
+	}
+
 }
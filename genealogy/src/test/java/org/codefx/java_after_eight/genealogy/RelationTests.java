@@ -21,8 +21,8 @@ class RelationTests {
 	private final Post postA = PostTestHelper.createWithSlug("a");
 	private final Post postB = PostTestHelper.createWithSlug("b");
 
-	private final RelationType tagRelation = new RelationType("tag");
-	private final RelationType linkRelation = new RelationType("link");
+	private final RelationType tagRelation = RelationType.of("tag");
+	private final RelationType linkRelation = RelationType.of("link");
 
 	private final Weights weights;
 
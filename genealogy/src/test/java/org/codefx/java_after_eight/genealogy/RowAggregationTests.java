@@ -0,0 +1,79 @@
+package org.codefx.java_after_eight.genealogy;
+
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.MethodSource;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.stream.Stream;
+
+import static java.lang.Math.round;
+import static org.assertj.core.api.Assertions.assertThat;
+
+class RowAggregationTests {
+
+	/**
+	 * The Java 8 variant and, if the Java 17 classes and the Vector API are available (as they are in the
+	 * Maven build), the vectorized variant from {@code src/main/java17}.
+	 */
+	static Stream<RowAggregation> variants() {
+		List<RowAggregation> variants = new ArrayList<>();
+		variants.add(new ScalarRowAggregation());
+		try {
+			variants.add((RowAggregation) Class
+					.forName("org.codefx.java_after_eight.genealogy.VectorRowAggregation")
+					.getDeclaredConstructor()
+					.newInstance());
+		} catch (ReflectiveOperationException | LinkageError ex) {
+			// the test runs outside of the Maven build, so only the Java 8 variant can be tested
+		}
+		return variants.stream();
+	}
+
+	@ParameterizedTest
+	@MethodSource("variants")
+	void singleType_weightOne_sameScores(RowAggregation aggregation) {
+		byte[][] typedScores = { { 0, 10, 55, 100, 3 } };
+		long[] scores = new long[5];
+
+		aggregation.aggregate(typedScores, new double[] { 1 }, new double[5], scores);
+
+		assertThat(scores).containsExactly(0, 10, 55, 100, 3);
+	}
+
+	@ParameterizedTest
+	@MethodSource("variants")
+	void randomScoresAndWeights_sameAsPairwiseAggregation(RowAggregation aggregation) {
+		Random random = new Random(0);
+		// cover lengths below, at, and above the vector sizes with all possible remainders
+		for (int length = 0; length < 70; length++)
+			for (int types = 1; types <= 4; types++) {
+				byte[][] typedScores = new byte[types][length];
+				double[] weights = new double[types];
+				for (int type = 0; type < types; type++) {
+					weights[type] = random.nextDouble();
+					for (int post = 0; post < length; post++)
+						typedScores[type][post] = (byte) random.nextInt(101);
+				}
+				long[] scores = new long[length];
+
+				// `totals` may be longer than necessary and dirty
+				double[] totals = new double[length + 3];
+				totals[0] = 42;
+				aggregation.aggregate(typedScores, weights, totals, scores);
+
+				for (int post = 0; post < length; post++)
+					assertThat(scores[post]).isEqualTo(aggregatePair(typedScores, weights, post));
+			}
+	}
+
+	// like `Relation.aggregate(Stream<TypedRelation>, Weights)`
+	private static long aggregatePair(byte[][] typedScores, double[] weights, int post) {
+		double total = typedScores[0][post] * weights[0];
+		for (int type = 1; type < typedScores.length; type++)
+			total += typedScores[type][post] * weights[type];
+		return round(total / typedScores.length);
+	}
+
+}
@@ -0,0 +1,202 @@
+package org.codefx.java_after_eight.genealogy;
+
+import org.codefx.java_after_eight.genealogist.Genealogist;
+import org.codefx.java_after_eight.genealogist.RelationType;
+import org.codefx.java_after_eight.genealogist.SelectiveGenealogist;
+import org.codefx.java_after_eight.genealogist.TypedRelation;
+import org.codefx.java_after_eight.post.Post;
+import org.codefx.java_after_eight.post.PostTestHelper;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.stream.Stream;
+
+import static java.util.stream.Collectors.toList;
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class ScoreMatricesTests {
+
+	private final Post postA = PostTestHelper.createWithSlug("a");
+	private final Post postB = PostTestHelper.createWithSlug("b");
+	private final Post postC = PostTestHelper.createWithSlug("c");
+	private final List<Post> posts = Arrays.asList(postA, postB, postC);
+
+	private final RelationType tagRelation = RelationType.of("tag");
+	private final RelationType linkRelation = RelationType.of("link");
+
+	private final Genealogist tagGenealogist = (post1, post2) ->
+			new TypedRelation(post1, post2, tagRelation, post1.slug().compareTo(post2.slug()) < 0 ? 90 : 35);
+	private final Genealogist linkGenealogist = (post1, post2) ->
+			new TypedRelation(post1, post2, linkRelation, post1 == postA || post2 == postA ? 70 : 15);
+
+	private final Weights weights;
+	private final Weights otherWeights;
+
+	ScoreMatricesTests() {
+		Map<RelationType, Double> weights = new HashMap<>();
+		weights.put(tagRelation, 1.0);
+		weights.put(linkRelation, 0.75);
+		this.weights = new Weights(weights, 0.5);
+		weights.put(tagRelation, 0.25);
+		this.otherWeights = new Weights(weights, 0.5);
+	}
+
+	@Test
+	void inferredScores_sameRelationsAsInferredRelations() {
+		Genealogy genealogy = new Genealogy(posts, Arrays.asList(tagGenealogist, linkGenealogist), weights);
+
+		List<Relation> relations = genealogy.inferScores().relations(weights).collect(toList());
+
+		assertThat(relations).containsExactlyInAnyOrderElementsOf(genealogy.inferRelations().collect(toList()));
+	}
+
+	@Test
+	void selectiveGenealogist_sameRelationsAsInferredRelations() {
+		// `a` is the only candidate and only for `b`, so all other pairs are never inferred
+		SelectiveGenealogist selectiveLinkGenealogist = new SelectiveGenealogist() {
+			@Override
+			public RelationType type() {
+				return linkRelation;
+			}
+
+			@Override
+			public Stream<Post> candidates(Post post) {
+				return post == postB ? Stream.of(postA) : Stream.empty();
+			}
+
+			@Override
+			public TypedRelation infer(Post post1, Post post2) {
+				return linkGenealogist.infer(post1, post2);
+			}
+		};
+		Genealogy genealogy = new Genealogy(posts, Arrays.asList(tagGenealogist, selectiveLinkGenealogist), weights);
+
+		List<Relation> relations = genealogy.inferScores().relations(weights).collect(toList());
+
+		assertThat(relations).containsExactlyInAnyOrderElementsOf(genealogy.inferRelations().collect(toList()));
+	}
+
+	@Test
+	void genealogistTripped_sameRelationsAsInferredRelations() {
+		Genealogist slowLinkGenealogist = (post1, post2) -> {
+			if (post1 == postB && post2 == postA)
+				sleep(50);
+			return linkGenealogist.infer(post1, post2);
+		};
+		GenealogistBudget budget = new GenealogistBudget(Optional.of(Duration.ofMillis(10)), Optional.empty());
+		// each genealogy monitors (and trips) the genealogists on its own
+		Genealogy genealogy = new Genealogy(posts, Arrays.asList(tagGenealogist, slowLinkGenealogist), weights, budget);
+		Genealogy otherGenealogy = new Genealogy(posts, Arrays.asList(tagGenealogist, slowLinkGenealogist), weights, budget);
+
+		List<Relation> relations = genealogy.inferScores().relations(weights).collect(toList());
+
+		assertThat(genealogy.report().get(1).isTripped()).isTrue();
+		assertThat(relations).containsExactlyInAnyOrderElementsOf(otherGenealogy.inferRelations().collect(toList()));
+	}
+
+	@Test
+	void genealogistTrippedBeforeInferringRelations_sameRelationsAsInferredRelations() {
+		SelectiveGenealogist slowLinkGenealogist = new SelectiveGenealogist() {
+			@Override
+			public RelationType type() {
+				return linkRelation;
+			}
+
+			@Override
+			public Stream<Post> candidates(Post post) {
+				sleep(50);
+				return posts.stream();
+			}
+
+			@Override
+			public TypedRelation infer(Post post1, Post post2) {
+				return linkGenealogist.infer(post1, post2);
+			}
+		};
+		GenealogistBudget budget = new GenealogistBudget(Optional.of(Duration.ofMillis(10)), Optional.empty());
+		Genealogy genealogy = new Genealogy(posts, Arrays.asList(tagGenealogist, slowLinkGenealogist), weights, budget);
+		Genealogy otherGenealogy = new Genealogy(posts, Arrays.asList(tagGenealogist, slowLinkGenealogist), weights, budget);
+
+		List<Relation> relations = genealogy.inferScores().relations(weights).collect(toList());
+
+		assertThat(genealogy.report().get(1).calls()).isEqualTo(1);
+		assertThat(relations).containsExactlyInAnyOrderElementsOf(otherGenealogy.inferRelations().collect(toList()));
+	}
+
+	@Test
+	void inferredScoresWithOtherWeights_sameRelationsAsInferredRelationsWithOtherWeights() {
+		Genealogy genealogy = new Genealogy(posts, Arrays.asList(tagGenealogist, linkGenealogist), weights);
+		Genealogy otherGenealogy = new Genealogy(posts, Arrays.asList(tagGenealogist, linkGenealogist), otherWeights);
+
+		List<Relation> relations = genealogy.inferScores().relations(otherWeights).collect(toList());
+
+		assertThat(relations).containsExactlyInAnyOrderElementsOf(otherGenealogy.inferRelations().collect(toList()));
+	}
+
+	@Test
+	void storedAndLoaded_sameRelations(@TempDir Path folder) {
+		Genealogy genealogy = new Genealogy(posts, Arrays.asList(tagGenealogist, linkGenealogist), weights);
+		ScoreMatrices scores = genealogy.inferScores();
+
+		scores.store(folder);
+		ScoreMatrices loaded = ScoreMatrices.load(folder, Arrays.asList(postC, postB, postA));
+
+		assertThat(loaded.matrices()).extracting(ScoreMatrix::type).containsExactly(tagRelation, linkRelation);
+		assertThat(loaded.relations(otherWeights))
+				.containsExactlyInAnyOrderElementsOf(scores.relations(otherWeights).collect(toList()));
+	}
+
+	@Test
+	void inferredIntoFolderAndLoaded_sameRelations(@TempDir Path folder) {
+		Genealogy genealogy = new Genealogy(posts, Arrays.asList(tagGenealogist, linkGenealogist), weights);
+		ScoreMatrices scores = genealogy.inferScores(folder);
+
+		scores.store(folder);
+		ScoreMatrices loaded = ScoreMatrices.load(folder, posts);
+
+		assertThat(loaded.relations(weights))
+				.containsExactlyInAnyOrderElementsOf(genealogy.inferRelations().collect(toList()));
+	}
+
+	@Test
+	void aggregation_sameScoresAsRelations() {
+		Genealogy genealogy = new Genealogy(posts, Arrays.asList(tagGenealogist, linkGenealogist), weights);
+		ScoreMatrices scores = genealogy.inferScores();
+
+		long[] scoresOfB = scores.aggregation(otherWeights).scoresOf(1);
+
+		assertThat(scores.relations(otherWeights).filter(relation -> relation.post1() == postB))
+				.containsExactlyInAnyOrder(
+						new Relation(postB, postA, scoresOfB[0]),
+						new Relation(postB, postC, scoresOfB[2]));
+	}
+
+	@Test
+	void loadedWithOtherPosts_throwsException(@TempDir Path folder) {
+		Genealogy genealogy = new Genealogy(posts, Arrays.asList(tagGenealogist), weights);
+		genealogy.inferScores().store(folder);
+
+		Post postD = PostTestHelper.createWithSlug("d");
+		assertThatThrownBy(() -> ScoreMatrices.load(folder, Arrays.asList(postA, postB, postD)))
+				.isInstanceOf(IllegalArgumentException.class);
+		assertThatThrownBy(() -> ScoreMatrices.load(folder, Arrays.asList(postA, postB, postC, postD)))
+				.isInstanceOf(IllegalArgumentException.class);
+	}
+
+	private static void sleep(long millis) {
+		try {
+			Thread.sleep(millis);
+		} catch (InterruptedException ex) {
+			Thread.currentThread().interrupt();
+		}
+	}
+
+}
@@ -3,6 +3,7 @@ package org.codefx.java_after_eight.genealogy;
 import org.codefx.java_after_eight.genealogist.RelationType;
 import org.junit.jupiter.api.Test;
 
+import java.util.Arrays;
 import java.util.HashMap;
 import java.util.Map;
 
@@ -11,8 +12,8 @@ import static org.assertj.core.api.Assertions.assertThatThrownBy;
 
 class WeightsTests {
 
-	public static final RelationType TAG_TYPE = new RelationType("tag");
-	public static final RelationType LIST_TYPE = new RelationType("list");
+	public static final RelationType TAG_TYPE = RelationType.of("tag");
+	public static final RelationType LIST_TYPE = RelationType.of("list");
 
 	@Test
 	void nullRelationType_throwsException() {
@@ -46,4 +47,39 @@ class WeightsTests {
 		assertThat(weights.weightOf(LIST_TYPE)).isEqualTo(0.5);
 	}
 
+	@Test
+	void fromLines_weightsAndDefaultWeight() {
+		Weights weights = Weights.from(Arrays.asList(
+				"# weights for testing",
+				"tag = 0.42",
+				"",
+				"default=0.25"));
+
+		assertThat(weights.weightOf(TAG_TYPE)).isEqualTo(0.42);
+		assertThat(weights.weightOf(LIST_TYPE)).isEqualTo(0.25);
+	}
+
+	@Test
+	void fromLinesWithoutDefault_defaultWeightOne() {
+		Weights weights = Weights.from(Arrays.asList("tag = 0.42"));
+
+		assertThat(weights.weightOf(LIST_TYPE)).isEqualTo(1);
+	}
+
+	@Test
+	void fromLinesWithoutEqualsSign_throwsException() {
+		assertThatThrownBy(() -> Weights.from(Arrays.asList("tag 0.42"))).isInstanceOf(IllegalArgumentException.class);
+	}
+
+	@Test
+	void relationTypeCreatedAfterWeights_returnsDefaultWeight() {
+		Map<RelationType, Double> weightMap = new HashMap<>();
+		weightMap.put(TAG_TYPE, 0.42);
+		Weights weights = new Weights(weightMap, 0.5);
+
+		RelationType newType = RelationType.of("created-after-weights");
+
+		assertThat(weights.weightOf(newType)).isEqualTo(0.5);
+	}
+
 }
@@ -0,0 +1,77 @@
+package org.codefx.java_after_eight.host;
+
+import org.junit.jupiter.api.Test;
+
+import java.lang.reflect.Method;
+import java.net.URL;
+import java.net.URLClassLoader;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Future;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.junit.jupiter.api.Assumptions.assumeTrue;
+
+class InferenceExecutorsTests {
+
+	// where Maven puts the classes from `src/main/java17`
+	private static final Path JAVA_17_CLASSES = Paths.get("target", "classes", "META-INF", "versions", "17");
+
+	@Test
+	void java8Variant_runsTasksOnNamedPlatformThreads() throws Exception {
+		ExecutorService executor = InferenceExecutors.create(2, "inference");
+		try {
+			assertThreadName(executor, "inference");
+		} finally {
+			executor.shutdownNow();
+		}
+	}
+
+	@Test
+	void java17Variant_runsTasksOnNamedThreads() throws Exception {
+		assumeTrue(Files.isDirectory(JAVA_17_CLASSES), "The Java 17 classes were not compiled.");
+		try (URLClassLoader java17Classes = new Java17ClassLoader(JAVA_17_CLASSES.toUri().toURL())) {
+			Method create = java17Classes
+					.loadClass(InferenceExecutors.class.getName())
+					.getDeclaredMethod("create", int.class, String.class);
+			create.setAccessible(true);
+			ExecutorService executor = (ExecutorService) create.invoke(null, 2, "inference");
+			try {
+				// virtual threads (Java 21+) get numbered names
+				assertThreadName(executor, "inference");
+			} finally {
+				executor.shutdownNow();
+			}
+		}
+	}
+
+	private static void assertThreadName(ExecutorService executor, String name) throws Exception {
+		Future<String> threadName = executor.submit(() -> Thread.currentThread().getName());
+		assertThat(threadName.get()).startsWith(name);
+	}
+
+	/**
+	 * Loads the classes from the Java 17 folder before asking its parent (i.e. the test's class loader),
+	 * which would otherwise return the Java 8 variant.
+	 */
+	private static class Java17ClassLoader extends URLClassLoader {
+
+		Java17ClassLoader(URL java17Classes) {
+			super(new URL[] { java17Classes }, InferenceExecutorsTests.class.getClassLoader());
+		}
+
+		@Override
+		protected Class<?> loadClass(String name, boolean resolve) throws ClassNotFoundException {
+			synchronized (getClassLoadingLock(name)) {
+				Class<?> loaded = findLoadedClass(name);
+				if (loaded == null && name.equals(InferenceExecutors.class.getName()))
+					loaded = findClass(name);
+				return loaded != null ? loaded : super.loadClass(name, resolve);
+			}
+		}
+
+	}
+
+}
@@ -0,0 +1,208 @@
+package org.codefx.java_after_eight.host;
+
+import org.codefx.java_after_eight.genealogist.Genealogist;
+import org.codefx.java_after_eight.genealogist.RelationType;
+import org.codefx.java_after_eight.genealogist.TypedRelation;
+import org.codefx.java_after_eight.genealogy.Genealogy;
+import org.codefx.java_after_eight.genealogy.Weights;
+import org.codefx.java_after_eight.post.Post;
+import org.codefx.java_after_eight.post.PostTestHelper;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.PipedInputStream;
+import java.io.PipedOutputStream;
+import java.io.UncheckedIOException;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.ToLongBiFunction;
+import java.util.stream.Stream;
+
+import static java.util.Comparator.comparing;
+import static java.util.stream.Collectors.toList;
+import static org.assertj.core.api.Assertions.assertThat;
+
+class RemoteGenealogistsTests {
+
+	private final Post postA = PostTestHelper.createWithSlug("a");
+	private final Post postB = PostTestHelper.createWithSlug("b");
+	private final Post postC = PostTestHelper.createWithSlug("c");
+	private final List<Post> posts = Arrays.asList(postC, postA, postB);
+
+	private final RelationType tagRelation = RelationType.of("tag");
+	private final RelationType linkRelation = RelationType.of("link");
+
+	private final Genealogist tagGenealogist = genealogist(
+			tagRelation, (post1, post2) -> post1.slug().compareTo(post2.slug()) < 0 ? 90 : 35);
+	private final Genealogist linkGenealogist = genealogist(
+			linkRelation, (post1, post2) -> post1 == postA ? 70 : post2 == postC ? 15 : 0);
+
+	private final List<Thread> hosts = new ArrayList<>();
+	// genealogists that hang wait for this latch, so their hosts can end after the test
+	private final CountDownLatch hung = new CountDownLatch(1);
+
+	@AfterEach
+	void awaitHosts() throws InterruptedException {
+		hung.countDown();
+		for (Thread host : hosts)
+			host.join();
+	}
+
+	private static Genealogist genealogist(RelationType type, ToLongBiFunction<Post, Post> score) {
+		return new Genealogist() {
+			@Override
+			public TypedRelation infer(Post post1, Post post2) {
+				return new TypedRelation(post1, post2, type, score.applyAsLong(post1, post2));
+			}
+
+			@Override
+			public RelationType type() {
+				return type;
+			}
+		};
+	}
+
+	@Test
+	void oneHost_sameRelationsAsLocalGenealogists() {
+		try (RemoteGenealogists remote = new RemoteGenealogists(posts, posts, Arrays.asList(connectToHost()))) {
+			assertThat(remote.types()).containsExactly(tagRelation, linkRelation);
+			assertSameRelations(remote);
+		}
+	}
+
+	@Test
+	void severalHosts_sameRelationsAsLocalGenealogists() {
+		List<HostConnection> connections = Arrays.asList(connectToHost(), connectToHost(), connectToHost());
+		try (RemoteGenealogists remote = new RemoteGenealogists(posts, posts, connections)) {
+			assertSameRelations(remote);
+		}
+	}
+
+	@Test
+	void rowsOutOfOrder_sameRelationsAsLocalGenealogists() {
+		List<Post> rowOrder = Arrays.asList(postA, postB);
+		try (RemoteGenealogists remote = new RemoteGenealogists(posts, rowOrder, Arrays.asList(connectToHost()))) {
+			assertSameRelations(remote);
+		}
+	}
+
+	@Test
+	void singlePost_typesAreKnown() {
+		List<Post> singlePost = Collections.singletonList(postA);
+		HostConnection connection = connectToHost(
+				singlePost, Arrays.asList(tagGenealogist, linkGenealogist), Duration.ofSeconds(10));
+		try (RemoteGenealogists remote = new RemoteGenealogists(singlePost, singlePost, Arrays.asList(connection))) {
+			assertThat(remote.types()).containsExactly(tagRelation, linkRelation);
+		}
+	}
+
+	@Test
+	void oneOfSeveralHostsHangs_otherHostsTakeOver() {
+		List<HostConnection> connections = Arrays.asList(connectToHangingHost(), connectToHost(), connectToHost());
+		try (RemoteGenealogists remote = new RemoteGenealogists(posts, posts, connections)) {
+			assertSameRelations(remote);
+		}
+	}
+
+	@Test
+	void allHostsHang_relationsScoreZero() {
+		List<HostConnection> connections = Arrays.asList(connectToHangingHost(), connectToHangingHost());
+		try (RemoteGenealogists remote = new RemoteGenealogists(posts, posts, connections)) {
+			for (Genealogist genealogist : remote.genealogists())
+				assertThat(genealogist.infer(postA, postB).score()).isZero();
+		}
+	}
+
+	@Test
+	void fullGenealogyRunInRowOrder_eachRowRequestedOnce() {
+		// posts are loaded in another order than the genealogy infers them in
+		List<Post> manyPosts = Stream.of("h", "c", "f", "a", "j", "e", "b", "i", "g", "d")
+				.map(PostTestHelper::createWithSlug)
+				.collect(toList());
+		Map<Post, AtomicInteger> rowRequests = new ConcurrentHashMap<>();
+		Genealogist countingGenealogist = genealogist(tagRelation, (post1, post2) -> {
+			// the host infers a row's relations in slug order, so the first pair of a row is known
+			Post firstPost2 = manyPosts.stream().filter(post -> post != post1).min(comparing(Post::slug)).get();
+			if (post2 == firstPost2)
+				rowRequests.computeIfAbsent(post1, __ -> new AtomicInteger()).incrementAndGet();
+			return 50;
+		});
+		List<HostConnection> connections = Arrays.asList(
+				connectToHost(manyPosts, Arrays.asList(countingGenealogist), Duration.ofSeconds(10)),
+				connectToHost(manyPosts, Arrays.asList(countingGenealogist), Duration.ofSeconds(10)));
+
+		try (RemoteGenealogists remote = new RemoteGenealogists(manyPosts, Genealogy.rowOrder(manyPosts), connections)) {
+			Genealogy genealogy = new Genealogy(manyPosts, remote.genealogists(), Weights.allEqual());
+			assertThat(genealogy.inferRelations()).hasSize(manyPosts.size() * (manyPosts.size() - 1));
+		}
+
+		assertThat(rowRequests).hasSize(manyPosts.size());
+		assertThat(rowRequests.values()).allMatch(requests -> requests.get() == 1);
+	}
+
+	private void assertSameRelations(RemoteGenealogists remote) {
+		List<Genealogist> genealogists = new ArrayList<>(remote.genealogists());
+		for (Post post1 : posts)
+			for (Post post2 : posts) {
+				if (post1 == post2)
+					continue;
+				assertThat(genealogists.get(0).infer(post1, post2)).isEqualTo(tagGenealogist.infer(post1, post2));
+				assertThat(genealogists.get(1).infer(post1, post2)).isEqualTo(linkGenealogist.infer(post1, post2));
+			}
+	}
+
+	private HostConnection connectToHost() {
+		return connectToHost(posts, Arrays.asList(tagGenealogist, linkGenealogist), Duration.ofSeconds(10));
+	}
+
+	private HostConnection connectToHangingHost() {
+		Genealogist hangingGenealogist = genealogist(tagRelation, (post1, post2) -> {
+			try {
+				hung.await();
+			} catch (InterruptedException ex) {
+				Thread.currentThread().interrupt();
+			}
+			return 0;
+		});
+		return connectToHost(posts, Arrays.asList(hangingGenealogist, linkGenealogist), Duration.ofMillis(100));
+	}
+
+	private HostConnection connectToHost(List<Post> posts, List<Genealogist> genealogists, Duration timeout) {
+		try {
+			PipedOutputStream toHost = new PipedOutputStream();
+			PipedInputStream hostIn = new PipedInputStream(toHost);
+			PipedOutputStream hostOut = new PipedOutputStream();
+			PipedInputStream fromHost = new PipedInputStream(hostOut);
+
+			Thread host = new Thread(() -> {
+				try (DataOutputStream out = new DataOutputStream(hostOut)) {
+					GenealogistHost.serve(posts, genealogists, new DataInputStream(hostIn), out);
+				} catch (IOException ex) {
+					// a host whose client gave up can't reach it anymore
+					if (hung.getCount() > 0)
+						throw new UncheckedIOException(ex);
+				}
+			});
+			host.start();
+			hosts.add(host);
+
+			List<Post> sortedPosts = HostProtocol.sortedBySlug(posts);
+			return new HostConnection(
+					fromHost, toHost, posts.size(), HostProtocol.fingerprint(sortedPosts), timeout, Optional.empty());
+		} catch (IOException ex) {
+			throw new UncheckedIOException(ex);
+		}
+	}
+
+}
@@ -0,0 +1,88 @@
+package org.codefx.java_after_eight.metrics;
+
+import org.junit.jupiter.api.Test;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class MetricRegistryTests {
+
+	private final MetricRegistry metrics = new MetricRegistry();
+
+	@Test
+	void sameNameAndLabels_sameMetric() {
+		metrics.counter("posts", "kind", "article").add(2);
+		metrics.counter("posts", "kind", "article").increment();
+		metrics.counter("posts", "kind", "talk").increment();
+
+		assertThat(metrics.counter("posts", "kind", "article").count()).isEqualTo(3);
+		assertThat(metrics.counter("posts", "kind", "talk").count()).isEqualTo(1);
+	}
+
+	@Test
+	void sameNameAndLabelsOfOtherType_throwsException() {
+		metrics.counter("posts");
+
+		assertThatThrownBy(() -> metrics.timer("posts")).isInstanceOf(IllegalArgumentException.class);
+	}
+
+	@Test
+	void invalidNameOrLabels_throwsException() {
+		assertThatThrownBy(() -> metrics.counter("pairs per second")).isInstanceOf(IllegalArgumentException.class);
+		assertThatThrownBy(() -> metrics.counter("posts", "kind")).isInstanceOf(IllegalArgumentException.class);
+	}
+
+	@Test
+	void histogram_quantilesAreUpperBoundsWithinFactorTwo() {
+		Histogram histogram = metrics.histogram("sizes");
+		for (int value = 1; value <= 100; value++)
+			histogram.record(value);
+
+		assertThat(histogram.count()).isEqualTo(100);
+		assertThat(histogram.sum()).isEqualTo(5050);
+		assertThat(histogram.max()).isEqualTo(100);
+		assertThat(histogram.quantile(0.5)).isBetween(50L, 100L);
+		assertThat(histogram.quantile(0.99)).isEqualTo(100);
+		assertThat(histogram.quantile(0)).isEqualTo(1);
+	}
+
+	@Test
+	void timer_recordsSamples() {
+		Timer timer = metrics.timer("phase", "phase", "load");
+		String result = timer.time(() -> "done");
+		timer.record(1_000);
+
+		assertThat(result).isEqualTo("done");
+		assertThat(timer.nanos().count()).isEqualTo(2);
+		assertThat(timer.nanos().sum()).isGreaterThanOrEqualTo(1_000);
+	}
+
+	@Test
+	void prometheus_containsAllMetrics() {
+		metrics.counter("posts", "kind", "article").add(3);
+		metrics.gauge("pairs_per_second").set(1.5);
+		metrics.histogram("sizes").record(3);
+		metrics.timer("phase", "phase", "load").record(2_000_000_000L);
+
+		assertThat(metrics.toPrometheus()).contains(
+				"# TYPE genealogy_posts_total counter\ngenealogy_posts_total{kind=\"article\"} 3\n",
+				"# TYPE genealogy_pairs_per_second gauge\ngenealogy_pairs_per_second 1.5\n",
+				"genealogy_sizes_bucket{le=\"3\"} 1\n",
+				"genealogy_sizes_bucket{le=\"+Inf\"} 1\n",
+				"genealogy_sizes_count 1\n",
+				"# TYPE genealogy_phase_seconds summary\n",
+				"genealogy_phase_seconds_sum{phase=\"load\"} 2\n",
+				"genealogy_phase_seconds_count{phase=\"load\"} 1\n");
+	}
+
+	@Test
+	void json_containsAllMetrics() {
+		metrics.counter("posts", "kind", "article").add(3);
+		metrics.timer("phase", "phase", "load").record(2_000_000);
+
+		assertThat(metrics.toJson()).contains(
+				"{ \"name\": \"posts\", \"labels\": { \"kind\": \"article\" }, \"value\": 3 }",
+				"{ \"name\": \"phase\", \"labels\": { \"phase\": \"load\" }, \"count\": 1, \"sum_ms\": 2,");
+	}
+
+}
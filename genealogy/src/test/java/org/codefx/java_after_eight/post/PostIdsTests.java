@@ -0,0 +1,77 @@
+package org.codefx.java_after_eight.post;
+
+import org.junit.jupiter.api.Test;
+
+import java.time.LocalDate;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Optional;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class PostIdsTests {
+
+	private final Post c = PostTestHelper.createWithSlug("post-ids-c");
+	private final Post a = PostTestHelper.createWithSlug("post-ids-a");
+	private final Post b = PostTestHelper.createWithSlug("post-ids-b");
+
+	@Test
+	void posts_idsInSlugOrder() {
+		PostIds ids = PostIds.of(Arrays.asList(c, a, b));
+
+		assertThat(ids.posts()).containsExactly(a, b, c);
+		assertThat(ids.idOf(a)).isEqualTo(0);
+		assertThat(ids.idOf(b)).isEqualTo(1);
+		assertThat(ids.idOf(c)).isEqualTo(2);
+		assertThat(ids.post(2)).isSameAs(c);
+	}
+
+	@Test
+	void knownSlug_post() {
+		PostIds ids = PostIds.of(Arrays.asList(c, a, b));
+
+		assertThat(ids.bySlug(Slug.of("post-ids-b"))).contains(b);
+	}
+
+	@Test
+	void unknownSlug_empty() {
+		PostIds ids = PostIds.of(Arrays.asList(c, a));
+
+		assertThat(ids.bySlug(Slug.of("post-ids-b"))).isEmpty();
+		assertThat(ids.contains(b)).isFalse();
+		assertThatThrownBy(() -> ids.idOf(b)).isInstanceOf(IllegalArgumentException.class);
+	}
+
+	@Test
+	void videoSlug_video() {
+		Post video = new Video(
+				new Title("Title"),
+				Tag.from("[Tag]"),
+				LocalDate.now(),
+				new Description("description"),
+				Slug.of("post-ids-video"),
+				VideoSlug.of("post-ids-video-slug"),
+				Optional.empty());
+		PostIds ids = PostIds.of(Arrays.asList(a, video));
+
+		assertThat(ids.byVideo(VideoSlug.of("post-ids-video-slug"))).contains(video);
+		assertThat(ids.byVideo(VideoSlug.of("post-ids-other-video-slug"))).isEmpty();
+	}
+
+	@Test
+	void duplicateSlugs_exception() {
+		Post otherA = PostTestHelper.createWithSlug("post-ids-a");
+
+		assertThatThrownBy(() -> PostIds.of(Arrays.asList(a, otherA))).isInstanceOf(IllegalArgumentException.class);
+	}
+
+	@Test
+	void noPosts_empty() {
+		PostIds ids = PostIds.of(Collections.emptyList());
+
+		assertThat(ids.size()).isZero();
+		assertThat(ids.bySlug(Slug.of("post-ids-a"))).isEmpty();
+	}
+
+}
@@ -0,0 +1,85 @@
+package org.codefx.java_after_eight.post;
+
+import org.junit.jupiter.api.Test;
+
+import java.time.LocalDate;
+import java.util.Optional;
+import java.util.stream.Stream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class PostKindTests {
+
+	@Test
+	void emptyName_exception() {
+		assertThatThrownBy(() -> PostKind.of("")).isInstanceOf(IllegalArgumentException.class);
+	}
+
+	@Test
+	void equalNames_sameInstance() {
+		assertThat(PostKind.of("article")).isSameAs(PostKind.ARTICLE);
+	}
+
+	@Test
+	void newKind_ordinalLessThanRegisteredKinds() {
+		PostKind kind = PostKind.of("podcast");
+
+		assertThat(kind).isNotIn(PostKind.ARTICLE, PostKind.TALK, PostKind.VIDEO);
+		assertThat(kind.ordinal()).isBetween(0, PostKind.registeredKinds() - 1);
+	}
+
+	@Test
+	void article_kindAndRepository() {
+		Post article = PostTestHelper.createWithSlug("post-kind-article");
+
+		assertThat(article.kind()).isSameAs(PostKind.ARTICLE);
+		assertThat(article.repository()).isEqualTo(Optional.empty());
+	}
+
+	@Test
+	void postWithoutKind_kindNamedAfterClass() {
+		Post podcast = new Podcast();
+
+		assertThat(podcast.kind()).isSameAs(PostKind.of("podcast"));
+		assertThat(podcast.kind()).isSameAs(new Podcast().kind());
+	}
+
+	@Test
+	void builtInPosts_kindsNamedAfterClasses() {
+		assertThat(PostKind.ofClass(Article.class)).isSameAs(PostKind.ARTICLE);
+		assertThat(PostKind.ofClass(Talk.class)).isSameAs(PostKind.TALK);
+		assertThat(PostKind.ofClass(Video.class)).isSameAs(PostKind.VIDEO);
+	}
+
+	// a post implementation from before `Post::kind` existed
+	private static class Podcast implements Post {
+
+		@Override
+		public Title title() {
+			return null;
+		}
+
+		@Override
+		public Stream<Tag> tags() {
+			return Stream.empty();
+		}
+
+		@Override
+		public LocalDate date() {
+			return null;
+		}
+
+		@Override
+		public Description description() {
+			return null;
+		}
+
+		@Override
+		public Slug slug() {
+			return Slug.of("podcast");
+		}
+
+	}
+
+}
@@ -7,12 +7,16 @@ import java.util.stream.Stream;
 public class PostTestHelper {
 
 	public static Post createWithSlug(String slug) {
+		return create(slug, "[Tag]", LocalDate.now());
+	}
+
+	public static Post create(String slug, String tags, LocalDate date) {
 		return new Article(
-				new Title("Title"),
-				Tag.from("[Tag]"),
-				LocalDate.now(),
+				new Title("Title of " + slug),
+				Tag.from(tags),
+				date,
 				new Description("description"),
-				new Slug(slug),
+				Slug.of(slug),
 				Optional.empty(),
 				() -> Stream.of(""));
 	}
@@ -2,13 +2,43 @@ package org.codefx.java_after_eight.post;
 
 import org.junit.jupiter.api.Test;
 
+import static org.assertj.core.api.Assertions.assertThat;
 import static org.assertj.core.api.Assertions.assertThatThrownBy;
 
 class SlugTests {
 
 	@Test
 	void emptyText_exception() {
-		assertThatThrownBy(() -> new Slug("")).isInstanceOf(IllegalArgumentException.class);
+		assertThatThrownBy(() -> Slug.of("")).isInstanceOf(IllegalArgumentException.class);
+	}
+
+	@Test
+	void equalValues_sameInstance() {
+		Slug slug = Slug.of("equal-values");
+		Slug otherSlug = Slug.of(new String("equal-values"));
+
+		assertThat(slug).isSameAs(otherSlug);
+	}
+
+	@Test
+	@SuppressWarnings("deprecation")
+	void constructedInstance_equalToCanonicalInstance() {
+		Slug slug = new Slug("constructed");
+		Slug canonicalSlug = Slug.of("constructed");
+
+		assertThat(slug).isEqualTo(canonicalSlug);
+		assertThat(canonicalSlug).isEqualTo(slug);
+		assertThat(slug).hasSameHashCodeAs(canonicalSlug);
+		assertThat(slug.id()).isEqualTo(canonicalSlug.id());
+	}
+
+	@Test
+	void differentValues_differentIds() {
+		Slug slug = Slug.of("different-values-1");
+		Slug otherSlug = Slug.of("different-values-2");
+
+		assertThat(slug).isNotEqualTo(otherSlug);
+		assertThat(slug.id()).isNotEqualTo(otherSlug.id());
 	}
 
 }
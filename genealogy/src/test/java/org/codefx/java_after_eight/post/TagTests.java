@@ -94,4 +94,28 @@ class TagTests {
 				.containsExactlyInAnyOrder(expectedTags);
 	}
 
+	@Test
+	void elementsWithoutBrackets_multipleTags() {
+		String tagsText = "$TAG, $TOG";
+		String[] expectedTags = { "$TAG", "$TOG" };
+
+		Set<Tag> tags = Tag.from(tagsText);
+
+		Assertions.assertThat(tags)
+				.extracting(Tag::text)
+				.containsExactlyInAnyOrder(expectedTags);
+	}
+
+	@Test
+	void equalTagsInDifferentTexts_sameInstance() {
+		Tag tag = Tag.from("[$TAG, $TOG]").stream()
+				.filter(t -> t.text().equals("$TAG"))
+				.findAny()
+				.get();
+
+		Set<Tag> tags = Tag.from("[$TUG, $TAG]");
+
+		assertThat(tags).anySatisfy(t -> assertThat(t).isSameAs(tag));
+	}
+
 }
@@ -0,0 +1,79 @@
+package org.codefx.java_after_eight.recommendation;
+
+import org.codefx.java_after_eight.genealogy.Relation;
+import org.codefx.java_after_eight.genealogy.RelationTestHelper;
+import org.codefx.java_after_eight.post.Post;
+import org.codefx.java_after_eight.post.PostTestHelper;
+import org.codefx.java_after_eight.post.Slug;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.time.LocalDate;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.function.Function;
+import java.util.stream.Stream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class DeadlineRecommenderTests {
+
+	private final Post postA = PostTestHelper.create("a", "[Java, Streams]", LocalDate.of(2020, 1, 1));
+	private final Post postB = PostTestHelper.create("b", "[Java]", LocalDate.of(2020, 3, 1));
+	private final Post postC = PostTestHelper.create("c", "[Java, Streams, JUnit]", LocalDate.of(2020, 2, 1));
+	private final List<Post> posts = Arrays.asList(postA, postB, postC);
+
+	private final Function<Post, Stream<Relation>> inferRelations = post -> posts.stream()
+			.filter(other -> other != post)
+			// unlike the baseline, this prefers posts with earlier slugs
+			.map(other -> RelationTestHelper.create(post, other, 100 - other.slug().value().charAt(0)));
+
+	@Test
+	void priorityOrder_newestFirst() {
+		assertThat(DeadlineRecommender.priorityOrder(posts, Collections.emptyList()))
+				.containsExactly(postB, postC, postA);
+	}
+
+	@Test
+	void priorityOrder_givenSlugsFirst() {
+		assertThat(DeadlineRecommender.priorityOrder(posts, Arrays.asList(Slug.of("a"))))
+				.containsExactly(postA, postB, postC);
+	}
+
+	@Test
+	void priorityOrderWithUnknownSlug_throwsException() {
+		assertThatThrownBy(() -> DeadlineRecommender.priorityOrder(posts, Arrays.asList(Slug.of("d"))))
+				.isInstanceOf(IllegalArgumentException.class);
+	}
+
+	@Test
+	void enoughTime_allExact() {
+		DeadlineRecommender recommender = new DeadlineRecommender(
+				new Recommender(), new BaselineRecommender(posts), Duration.ofHours(1));
+
+		Stream<Recommendation> recommendations = recommender.recommend(inferRelations, posts, 1);
+
+		assertThat(recommendations).containsExactly(
+				new Recommendation(postA, Arrays.asList(postB), true),
+				new Recommendation(postB, Arrays.asList(postA), true),
+				new Recommendation(postC, Arrays.asList(postA), true));
+	}
+
+	@Test
+	void noTime_allApproximate() {
+		DeadlineRecommender recommender = new DeadlineRecommender(
+				new Recommender(), new BaselineRecommender(posts), Duration.ZERO);
+
+		Stream<Recommendation> recommendations = recommender.recommend(inferRelations, posts, 1);
+
+		assertThat(recommendations).containsExactly(
+				// C shares two tags with A, B only one
+				new Recommendation(postA, Arrays.asList(postC), false),
+				// A and C share one tag with B, C is newer
+				new Recommendation(postB, Arrays.asList(postC), false),
+				new Recommendation(postC, Arrays.asList(postA), false));
+	}
+
+}
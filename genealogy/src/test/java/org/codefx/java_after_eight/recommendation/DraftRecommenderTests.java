@@ -0,0 +1,86 @@
+package org.codefx.java_after_eight.recommendation;
+
+import org.codefx.java_after_eight.genealogist.Genealogist;
+import org.codefx.java_after_eight.genealogist.RelationType;
+import org.codefx.java_after_eight.genealogist.TypedRelation;
+import org.codefx.java_after_eight.genealogy.Genealogy;
+import org.codefx.java_after_eight.genealogy.Weights;
+import org.codefx.java_after_eight.post.Post;
+import org.codefx.java_after_eight.post.PostTestHelper;
+import org.junit.jupiter.api.Test;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+import static java.util.stream.Collectors.toSet;
+import static org.assertj.core.api.Assertions.assertThat;
+
+class DraftRecommenderTests {
+
+	private final Post postA = PostTestHelper.create("a", "[Java, Streams]", LocalDate.of(2020, 1, 1));
+	private final Post postB = PostTestHelper.create("b", "[JUnit]", LocalDate.of(2020, 2, 1));
+	private final Post postC = PostTestHelper.create("c", "[Java]", LocalDate.of(2020, 3, 1));
+	private final List<Post> posts = Arrays.asList(postA, postB, postC);
+
+	private final RelationType tagRelation = RelationType.of("tag");
+	private final List<Post> inferredPosts = new ArrayList<>();
+	private final Genealogist sharedTagsGenealogist = (post1, post2) -> {
+		inferredPosts.add(post1);
+		long sharedTags = post1.tags().filter(post2.tags().collect(toSet())::contains).count();
+		return new TypedRelation(post1, post2, tagRelation, Math.min(100, sharedTags * 40));
+	};
+
+	private final DraftRecommender recommender = new DraftRecommender(
+			new Genealogy(posts, Arrays.asList(sharedTagsGenealogist), Weights.allEqual()));
+
+	@Test
+	void draft_recommendationsFromCorpus() {
+		List<String> draft = Arrays.asList(
+				"---",
+				"title: Java Streams in depth",
+				"tags: [Java, Streams]",
+				"date: 2020-04-01",
+				"description: \"All about streams\"",
+				"slug: streams-in-depth",
+				"---",
+				""
+		);
+
+		Recommendation recommendation = recommender.recommend(draft, 2);
+
+		assertThat(recommendation.post().slug().value()).isEqualTo("streams-in-depth");
+		assertThat(recommendation.recommendedPosts()).containsExactly(postA, postC);
+		// the draft is only ever compared as `post1`, so it's not part of the genealogy
+		assertThat(inferredPosts).allMatch(post -> post == recommendation.post());
+	}
+
+	@Test
+	void draftOfPublishedPost_doesNotRecommendItself() {
+		Post draftOfA = PostTestHelper.create("a", "[Java, Streams, Tag]", LocalDate.of(2020, 1, 1));
+
+		Recommendation recommendation = recommender.recommend(draftOfA, 3);
+
+		assertThat(recommendation.recommendedPosts()).containsExactly(postC, postB);
+	}
+
+	@Test
+	void draftOfPublishedPostWithOtherSlug_doesNotRecommendItself() {
+		List<String> draftOfA = Arrays.asList(
+				"---",
+				"title: TITLE OF A",
+				"tags: [Java, Streams, Tag]",
+				"date: 2020-04-01",
+				"description: \"Same post, new slug\"",
+				"slug: renamed-a",
+				"---",
+				""
+		);
+
+		Recommendation recommendation = recommender.recommend(draftOfA, 3);
+
+		assertThat(recommendation.recommendedPosts()).containsExactly(postC, postB);
+	}
+
+}
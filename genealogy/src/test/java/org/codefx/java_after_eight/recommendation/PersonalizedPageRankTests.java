@@ -0,0 +1,123 @@
+package org.codefx.java_after_eight.recommendation;
+
+import org.codefx.java_after_eight.genealogy.Relation;
+import org.codefx.java_after_eight.genealogy.RelationTestHelper;
+import org.codefx.java_after_eight.post.Post;
+import org.codefx.java_after_eight.post.PostTestHelper;
+import org.junit.jupiter.api.Test;
+
+import java.util.Arrays;
+import java.util.stream.Stream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class PersonalizedPageRankTests {
+
+	private final Post postA = PostTestHelper.createWithSlug("a");
+	private final Post postB = PostTestHelper.createWithSlug("b");
+	private final Post postC = PostTestHelper.createWithSlug("c");
+	private final Post postD = PostTestHelper.createWithSlug("d");
+
+	// A is strongly related to B, which is strongly related to D - A and C are only weakly related
+	private final Relation relation_AB = RelationTestHelper.create(postA, postB, 100L);
+	private final Relation relation_AC = RelationTestHelper.create(postA, postC, 10L);
+	private final Relation relation_AD = RelationTestHelper.create(postA, postD, 0L);
+	private final Relation relation_BA = RelationTestHelper.create(postB, postA, 50L);
+	private final Relation relation_BD = RelationTestHelper.create(postB, postD, 100L);
+	private final Relation relation_CA = RelationTestHelper.create(postC, postA, 10L);
+	private final Relation relation_DB = RelationTestHelper.create(postD, postB, 100L);
+
+	private final Recommender recommender = new Recommender(PersonalizedPageRank.withDefaults());
+
+	@Test
+	void invalidParameters_throwsException() {
+		assertThatThrownBy(() -> new PersonalizedPageRank(0, 3, 0.15)).isInstanceOf(IllegalArgumentException.class);
+		assertThatThrownBy(() -> new PersonalizedPageRank(10, 0, 0.15)).isInstanceOf(IllegalArgumentException.class);
+		assertThatThrownBy(() -> new PersonalizedPageRank(10, 3, 1)).isInstanceOf(IllegalArgumentException.class);
+	}
+
+	@Test
+	void forOnePost_strongestRelationFirst() {
+		Stream<Recommendation> recommendations = recommender.recommend(
+				Stream.of(relation_AB, relation_AC, relation_BA, relation_CA),
+				1);
+
+		assertThat(recommendations).contains(
+				new Recommendation(postA, Arrays.asList(postB)));
+	}
+
+	@Test
+	void forOnePost_strongSecondDegreeRelationBeatsWeakDirectRelation() {
+		Stream<Recommendation> recommendations = recommender.recommend(
+				Stream.of(relation_AB, relation_AC, relation_AD, relation_BA, relation_BD, relation_CA, relation_DB),
+				2);
+
+		assertThat(recommendations).contains(
+				new Recommendation(postA, Arrays.asList(postB, postD)));
+	}
+
+	@Test
+	void forManyPosts_recommendationForEachPost() {
+		Stream<Recommendation> recommendations = recommender.recommend(
+				Stream.of(relation_AB, relation_AC, relation_AD, relation_BA, relation_BD, relation_CA, relation_DB),
+				1);
+
+		assertThat(recommendations).containsExactlyInAnyOrder(
+				new Recommendation(postA, Arrays.asList(postB)),
+				new Recommendation(postB, Arrays.asList(postD)),
+				new Recommendation(postC, Arrays.asList(postA)),
+				new Recommendation(postD, Arrays.asList(postB))
+		);
+	}
+
+	@Test
+	void forOnePost_tiesBrokenBySlugNotByVisitOrder() {
+		// the walk from A visits B and C, then E (via B) before D (via C) - both with the same rank
+		Post postE = PostTestHelper.createWithSlug("e");
+		Relation relation_AB = RelationTestHelper.create(postA, postB, 50L);
+		Relation relation_AC = RelationTestHelper.create(postA, postC, 50L);
+		Relation relation_BE = RelationTestHelper.create(postB, postE, 100L);
+		Relation relation_CD = RelationTestHelper.create(postC, postD, 100L);
+		Relation relation_DA = RelationTestHelper.create(postD, postA, 100L);
+		Relation relation_EA = RelationTestHelper.create(postE, postA, 100L);
+
+		Stream<Recommendation> recommendations = recommender.recommend(
+				Stream.of(relation_EA, relation_DA, relation_CD, relation_BE, relation_AC, relation_AB),
+				3);
+
+		assertThat(recommendations).contains(
+				new Recommendation(postA, Arrays.asList(postB, postC, postD)));
+	}
+
+	@Test
+	void walkVisitsTooFewPosts_filledWithStrongestUnvisitedRelations() {
+		// the walk from A only visits B and A itself because C and D score 0
+		Relation relation_AD = RelationTestHelper.create(postA, postD, 0L);
+		Relation relation_AC = RelationTestHelper.create(postA, postC, 0L);
+		Relation relation_CA = RelationTestHelper.create(postC, postA, 0L);
+		Relation relation_DA = RelationTestHelper.create(postD, postA, 0L);
+
+		Stream<Recommendation> recommendations = recommender.recommend(
+				Stream.of(relation_AD, relation_AC, relation_AB, relation_BA, relation_CA, relation_DA),
+				3);
+
+		assertThat(recommendations).containsExactlyInAnyOrder(
+				new Recommendation(postA, Arrays.asList(postB, postC, postD)),
+				new Recommendation(postB, Arrays.asList(postA)),
+				new Recommendation(postC, Arrays.asList(postA)),
+				new Recommendation(postD, Arrays.asList(postA))
+		);
+	}
+
+	@Test
+	void fewerRelationsThanRecommendations_onlyThoseRelations() {
+		Stream<Recommendation> recommendations = recommender.recommend(
+				Stream.of(relation_AB, relation_AC, relation_BA, relation_CA),
+				3);
+
+		assertThat(recommendations).contains(
+				new Recommendation(postA, Arrays.asList(postB, postC)));
+	}
+
+}
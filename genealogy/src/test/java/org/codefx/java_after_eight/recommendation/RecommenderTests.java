@@ -1,5 +1,11 @@
 package org.codefx.java_after_eight.recommendation;
 
+import org.codefx.java_after_eight.genealogist.Genealogist;
+import org.codefx.java_after_eight.genealogist.RelationType;
+import org.codefx.java_after_eight.genealogist.TypedRelation;
+import org.codefx.java_after_eight.genealogy.Genealogy;
+import org.codefx.java_after_eight.genealogy.ScoreMatrices;
+import org.codefx.java_after_eight.genealogy.Weights;
 import org.codefx.java_after_eight.post.Post;
 import org.codefx.java_after_eight.post.PostTestHelper;
 import org.codefx.java_after_eight.genealogy.Relation;
@@ -7,8 +13,10 @@ import org.codefx.java_after_eight.genealogy.RelationTestHelper;
 import org.junit.jupiter.api.Test;
 
 import java.util.Arrays;
+import java.util.List;
 import java.util.stream.Stream;
 
+import static java.util.stream.Collectors.toList;
 import static org.assertj.core.api.Assertions.assertThat;
 
 class RecommenderTests {
@@ -46,6 +54,18 @@ class RecommenderTests {
 				new Recommendation(postA, Arrays.asList(postB)));
 	}
 
+	@Test
+	void forOnePost_tiedRelations_orderedBySlug() {
+		Relation relation_AB_tied = RelationTestHelper.create(postA, postB, 40L);
+
+		Stream<Recommendation> recommendations = recommender.recommend(
+				Stream.of(relation_AC, relation_AB_tied),
+				2);
+
+		assertThat(recommendations).containsExactlyInAnyOrder(
+				new Recommendation(postA, Arrays.asList(postB, postC)));
+	}
+
 	@Test
 	void forManyPosts_oneRelationEach() {
 		Stream<Recommendation> recommendations = recommender.recommend(
@@ -72,4 +92,19 @@ class RecommenderTests {
 		);
 	}
 
+	@Test
+	void fromScoreStore_sameAsFromRelations() {
+		RelationType type = RelationType.of("test");
+		// many ties, so they need to be broken by slug
+		Genealogist genealogist = (post1, post2) ->
+				new TypedRelation(post1, post2, type, post1 == postA || post2 == postA ? 50 : 20);
+		List<Post> posts = Arrays.asList(postC, postA, postB);
+		ScoreMatrices scores = new Genealogy(posts, Arrays.asList(genealogist), Weights.allEqual()).inferScores();
+
+		Stream<Recommendation> recommendations = recommender.recommend(scores, Weights.allEqual(), 2);
+
+		assertThat(recommendations).containsExactlyInAnyOrderElementsOf(
+				recommender.recommend(scores.relations(Weights.allEqual()), 2).collect(toList()));
+	}
+
 }
@@ -0,0 +1,110 @@
+package org.codefx.java_after_eight.recommendation;
+
+import org.codefx.java_after_eight.post.Post;
+import org.codefx.java_after_eight.post.PostTestHelper;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.nio.file.Path;
+import java.util.Arrays;
+import java.util.List;
+import java.util.stream.Stream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class ShardTests {
+
+	private final Post postA = PostTestHelper.createWithSlug("a");
+	private final Post postB = PostTestHelper.createWithSlug("b");
+	private final Post postC = PostTestHelper.createWithSlug("c");
+	private final List<Post> posts = Arrays.asList(postC, postA, postB);
+
+	private final Recommendation recommendationA = new Recommendation(postA, Arrays.asList(postB, postC));
+	private final Recommendation recommendationB = new Recommendation(postB, Arrays.asList(postA));
+	private final Recommendation recommendationC = new Recommendation(postC, Arrays.asList(postB, postA));
+
+	@Test
+	void rows_sortedBySlug() {
+		assertThat(Shard.rows("0:2", posts)).containsExactly(postA, postB);
+		assertThat(Shard.rows("2:3", posts)).containsExactly(postC);
+	}
+
+	@Test
+	void rowsOutOfBounds_throwsException() {
+		assertThatThrownBy(() -> Shard.rows("1:4", posts)).isInstanceOf(IllegalArgumentException.class);
+		assertThatThrownBy(() -> Shard.rows("2:1", posts)).isInstanceOf(IllegalArgumentException.class);
+		assertThatThrownBy(() -> Shard.rows("1", posts)).isInstanceOf(IllegalArgumentException.class);
+	}
+
+	@Test
+	void writtenReadAndMerged_allRecommendationsInSlugOrder(@TempDir Path folder) {
+		Shard.of("1:3", posts, Stream.of(recommendationC, recommendationB)).writeTo(folder.resolve("1"));
+		Shard.of("0:1", posts, Stream.of(recommendationA)).writeTo(folder.resolve("0"));
+
+		Stream<Recommendation> merged = Shard.merge(Arrays.asList(
+				Shard.read(folder.resolve("1"), posts),
+				Shard.read(folder.resolve("0"), posts)));
+
+		assertThat(merged).containsExactly(recommendationA, recommendationB, recommendationC);
+	}
+
+	@Test
+	void withReplacements_replacedBySlugWithinRows() {
+		Shard shard = Shard.of("1:3", posts, Stream.of(recommendationB, recommendationC));
+		Recommendation newA = new Recommendation(postA, Arrays.asList(postC));
+		Recommendation newC = new Recommendation(postC, Arrays.asList(postA));
+
+		Shard replaced = shard.with(Arrays.asList(newC, newA));
+
+		assertThat(Shard.merge(Arrays.asList(Shard.of("0:1", posts, Stream.of(recommendationA)), replaced)))
+				.containsExactly(recommendationA, recommendationB, newC);
+	}
+
+	@Test
+	void updatedTwice_bothUpdatesSurvive(@TempDir Path folder) {
+		List<Path> files = Arrays.asList(folder.resolve("0"), folder.resolve("1"));
+		Shard.of("0:1", posts, Stream.of(recommendationA)).writeTo(files.get(0));
+		Shard.of("1:3", posts, Stream.of(recommendationB, recommendationC)).writeTo(files.get(1));
+		Recommendation newA = new Recommendation(postA, Arrays.asList(postC));
+		Recommendation newB = new Recommendation(postB, Arrays.asList(postC, postA));
+
+		Shard.update(files, posts, Arrays.asList(newA));
+		List<Shard> updated = Shard.update(files, posts, Arrays.asList(newB));
+
+		assertThat(Shard.merge(updated)).containsExactly(newA, newB, recommendationC);
+		assertThat(Shard.merge(Arrays.asList(Shard.read(files.get(0), posts), Shard.read(files.get(1), posts))))
+				.containsExactly(newA, newB, recommendationC);
+	}
+
+	@Test
+	void updateWithMissingRows_nothingWritten(@TempDir Path folder) {
+		Path file = folder.resolve("0");
+		Shard.of("0:1", posts, Stream.of(recommendationA)).writeTo(file);
+		Recommendation newA = new Recommendation(postA, Arrays.asList(postC));
+
+		assertThatThrownBy(() -> Shard.update(Arrays.asList(file), posts, Arrays.asList(newA)))
+				.isInstanceOf(IllegalArgumentException.class);
+		assertThat(Shard.read(file, posts).toString())
+				.isEqualTo(Shard.of("0:1", posts, Stream.of(recommendationA)).toString());
+	}
+
+	@Test
+	void missingRows_throwsException() {
+		Shard first = Shard.of("0:1", posts, Stream.of(recommendationA));
+		Shard last = Shard.of("2:3", posts, Stream.of(recommendationC));
+
+		assertThatThrownBy(() -> Shard.merge(Arrays.asList(first, last)))
+				.isInstanceOf(IllegalArgumentException.class);
+	}
+
+	@Test
+	void overlappingRows_throwsException() {
+		Shard first = Shard.of("0:2", posts, Stream.of(recommendationA, recommendationB));
+		Shard last = Shard.of("1:3", posts, Stream.of(recommendationB, recommendationC));
+
+		assertThatThrownBy(() -> Shard.merge(Arrays.asList(first, last)))
+				.isInstanceOf(IllegalArgumentException.class);
+	}
+
+}
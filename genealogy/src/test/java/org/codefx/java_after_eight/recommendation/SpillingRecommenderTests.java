@@ -0,0 +1,145 @@
+package org.codefx.java_after_eight.recommendation;
+
+import org.codefx.java_after_eight.genealogy.Relation;
+import org.codefx.java_after_eight.genealogy.RelationTestHelper;
+import org.codefx.java_after_eight.post.Post;
+import org.codefx.java_after_eight.post.PostTestHelper;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.Random;
+import java.util.stream.IntStream;
+import java.util.stream.Stream;
+
+import static java.util.stream.Collectors.toList;
+import static org.assertj.core.api.Assertions.assertThat;
+
+class SpillingRecommenderTests {
+
+	private final Post postA = PostTestHelper.createWithSlug("a");
+	private final Post postB = PostTestHelper.createWithSlug("b");
+	private final Post postC = PostTestHelper.createWithSlug("c");
+	private final Post postD = PostTestHelper.createWithSlug("d");
+	private final List<Post> posts = Arrays.asList(postD, postB, postA, postC);
+
+	private final List<Relation> relations = Arrays.asList(
+			RelationTestHelper.create(postA, postB, 60L),
+			RelationTestHelper.create(postA, postC, 40L),
+			RelationTestHelper.create(postA, postD, 40L),
+			RelationTestHelper.create(postB, postA, 50L),
+			RelationTestHelper.create(postB, postC, 70L),
+			RelationTestHelper.create(postB, postD, 0L),
+			RelationTestHelper.create(postC, postA, 80L),
+			RelationTestHelper.create(postC, postB, 60L),
+			RelationTestHelper.create(postC, postD, 100L),
+			RelationTestHelper.create(postD, postA, 30L),
+			RelationTestHelper.create(postD, postB, 30L),
+			RelationTestHelper.create(postD, postC, 30L));
+
+	@TempDir
+	Path spillFolder;
+
+	@Test
+	void everythingFitsIntoMemory_sameAsRecommender() {
+		SpillingRecommender recommender = new SpillingRecommender(posts, 1024, spillFolder);
+
+		assertThat(recommender.recommend(relations.stream(), 2))
+				.containsExactlyInAnyOrderElementsOf(expectedRecommendations(2));
+	}
+
+	@Test
+	void runsAreSpilled_sameAsRecommender() throws IOException {
+		// after the spill buffers, there's only room for the heap of one post, so three posts are spilled
+		SpillingRecommender recommender = new SpillingRecommender(posts, 3 * Long.BYTES, spillFolder);
+
+		assertThat(recommender.recommend(relations.stream(), 2))
+				.containsExactlyInAnyOrderElementsOf(expectedRecommendations(2));
+		try (Stream<Path> runs = Files.list(spillFolder)) {
+			assertThat(runs).isEmpty();
+		}
+	}
+
+	@Test
+	void heapsOfAllPostsFitIntoMemory_nothingSpilled() {
+		// room for the heaps of all four posts, but not for all twelve relations
+		SpillingRecommender recommender = new SpillingRecommender(posts, 4 * (2 * Long.BYTES + Integer.BYTES), spillFolder);
+		List<Long> spillFiles = new ArrayList<>();
+
+		assertThat(recommender.recommend(relations.stream().peek(__ -> spillFiles.add(countSpillFiles())), 2))
+				.containsExactlyInAnyOrderElementsOf(expectedRecommendations(2));
+		assertThat(spillFiles).containsOnly(0L);
+	}
+
+	@Test
+	void heapsOfSomePostsFitIntoMemory_onlyOtherPostsSpilled() {
+		// room for the heaps of two posts and three one-relation spill buffers (two to write, one to read),
+		// so relations of the other two posts are spilled into one file
+		long budget = 2 * (2 * Long.BYTES + Integer.BYTES) + 3 * Long.BYTES;
+		SpillingRecommender recommender = new SpillingRecommender(posts, budget, spillFolder);
+		List<Long> spillFiles = new ArrayList<>();
+
+		assertThat(recommender.recommend(relations.stream().peek(__ -> spillFiles.add(countSpillFiles())), 2))
+				.containsExactlyInAnyOrderElementsOf(expectedRecommendations(2));
+		// files are counted before each relation is recommended, so the first spilled relation (C->A) still sees none
+		assertThat(spillFiles).containsExactly(0L, 0L, 0L, 0L, 0L, 0L, 0L, 1L, 1L, 1L, 1L, 1L);
+	}
+
+	@Test
+	void runsAreSpilled_tiesOrderedBySlug() {
+		SpillingRecommender recommender = new SpillingRecommender(posts, Long.BYTES, spillFolder);
+
+		assertThat(recommender.recommend(relations.stream(), 3))
+				.contains(new Recommendation(postD, Arrays.asList(postA, postB, postC)))
+				.containsExactlyInAnyOrderElementsOf(expectedRecommendations(3));
+	}
+
+	@Test
+	void tinyBudgetAndManyPosts_sameAsRecommenderWithFewSpillFiles() {
+		List<Post> manyPosts = IntStream.range(0, 200)
+				.mapToObj(index -> PostTestHelper.createWithSlug(String.format("post-%03d", index)))
+				.collect(toList());
+		Random random = new Random(42);
+		List<Relation> manyRelations = new ArrayList<>();
+		for (Post post1 : manyPosts)
+			for (Post post2 : manyPosts)
+				if (post1 != post2)
+					manyRelations.add(RelationTestHelper.create(post1, post2, random.nextInt(101)));
+		Collections.shuffle(manyRelations, random);
+		SpillingRecommender recommender = new SpillingRecommender(manyPosts, Long.BYTES, spillFolder);
+		long[] maxSpillFiles = { 0 };
+		int[] relationCount = { 0 };
+		Stream<Relation> countingRelations = manyRelations.stream().peek(__ -> {
+			if (relationCount[0]++ % 1000 == 0)
+				maxSpillFiles[0] = Math.max(maxSpillFiles[0], countSpillFiles());
+		});
+
+		assertThat(recommender.recommend(countingRelations, 3))
+				.containsExactlyElementsOf(new Recommender().recommend(manyRelations.stream(), 3).collect(toList()));
+		// with the smallest budget, relations of all but the first post are spilled into two files
+		assertThat(maxSpillFiles[0]).isEqualTo(2);
+		assertThat(countSpillFiles()).isZero();
+	}
+
+	private long countSpillFiles() {
+		try (Stream<Path> files = Files.list(spillFolder)) {
+			return files.count();
+		} catch (IOException ex) {
+			throw new UncheckedIOException(ex);
+		}
+	}
+
+	private List<Recommendation> expectedRecommendations(int perPost) {
+		return new Recommender()
+				.recommend(relations.stream(), perPost)
+				.collect(toList());
+	}
+
+}
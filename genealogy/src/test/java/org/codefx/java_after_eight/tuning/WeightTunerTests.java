@@ -0,0 +1,103 @@
+package org.codefx.java_after_eight.tuning;
+
+import org.codefx.java_after_eight.genealogist.Genealogist;
+import org.codefx.java_after_eight.genealogist.RelationType;
+import org.codefx.java_after_eight.genealogist.TypedRelation;
+import org.codefx.java_after_eight.genealogy.Genealogy;
+import org.codefx.java_after_eight.genealogy.ScoreMatrices;
+import org.codefx.java_after_eight.genealogy.Weights;
+import org.codefx.java_after_eight.post.Post;
+import org.codefx.java_after_eight.post.PostTestHelper;
+import org.junit.jupiter.api.Test;
+
+import java.util.Arrays;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class WeightTunerTests {
+
+	private final Post postA = PostTestHelper.createWithSlug("a");
+	private final Post postB = PostTestHelper.createWithSlug("b");
+	private final Post postC = PostTestHelper.createWithSlug("c");
+	private final Post postD = PostTestHelper.createWithSlug("d");
+
+	private final RelationType tagRelation = RelationType.of("tag");
+	private final RelationType linkRelation = RelationType.of("link");
+
+	// tags point to the ground truth (A -> B, B -> C), links point elsewhere and are stronger
+	private final Genealogist tagGenealogist = (post1, post2) -> new TypedRelation(post1, post2, tagRelation,
+			(post1 == postA && post2 == postB) || (post1 == postB && post2 == postC) ? 60 : 0);
+	private final Genealogist linkGenealogist = (post1, post2) -> new TypedRelation(post1, post2, linkRelation,
+			(post1 == postA && post2 == postD) || (post1 == postB && post2 == postA) ? 100 : 0);
+
+	private final GroundTruth truth = GroundTruth.from(Arrays.asList(
+			"# A -> B and B -> C are good recommendations",
+			"a b",
+			"b  c"));
+
+	private final ScoreMatrices scores = new Genealogy(
+			Arrays.asList(postA, postB, postC, postD),
+			Arrays.asList(tagGenealogist, linkGenealogist),
+			Weights.allEqual())
+			.inferScores();
+
+	@Test
+	void groundTruthWithSingleSlug_throwsException() {
+		assertThatThrownBy(() -> GroundTruth.from(Arrays.asList("a"))).isInstanceOf(IllegalArgumentException.class);
+	}
+
+	@Test
+	void groundTruthWithUnknownSlug_throwsException() {
+		GroundTruth unknownPost = GroundTruth.from(Arrays.asList("a x"));
+
+		assertThatThrownBy(() -> new WeightTuner(scores, unknownPost, 1)).isInstanceOf(IllegalArgumentException.class);
+	}
+
+	@Test
+	void equalWeights_noHits() {
+		WeightTuner tuner = new WeightTuner(scores, truth, 1);
+
+		Evaluation evaluation = tuner.evaluate(new double[] { 1, 1 });
+
+		assertThat(evaluation.hits()).isZero();
+		assertThat(evaluation.precision()).isZero();
+		assertThat(evaluation.recall()).isZero();
+	}
+
+	@Test
+	void tagHeavyWeights_allHits() {
+		WeightTuner tuner = new WeightTuner(scores, truth, 1);
+
+		Evaluation evaluation = tuner.evaluate(new double[] { 1, 0.5 });
+
+		assertThat(evaluation.hits()).isEqualTo(2);
+		assertThat(evaluation.precision()).isEqualTo(1);
+		assertThat(evaluation.recall()).isEqualTo(1);
+	}
+
+	@Test
+	void moreRecommendationsThanExpected_lowerPrecision() {
+		WeightTuner tuner = new WeightTuner(scores, truth, 2);
+
+		Evaluation evaluation = tuner.evaluate(new double[] { 1, 1 });
+
+		assertThat(evaluation.hits()).isEqualTo(2);
+		assertThat(evaluation.precision()).isEqualTo(0.5);
+		assertThat(evaluation.recall()).isEqualTo(1);
+	}
+
+	@Test
+	void tune_bestWeightsFirst() {
+		WeightTuner tuner = new WeightTuner(scores, truth, 1);
+
+		List<Evaluation> evaluations = tuner.tune(100, 0);
+
+		assertThat(evaluations).hasSize(100);
+		Evaluation best = evaluations.get(0);
+		assertThat(best.hits()).isEqualTo(2);
+		assertThat(best.weightOf(tagRelation)).isGreaterThan(best.weightOf(linkRelation));
+	}
+
+}
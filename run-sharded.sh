@@ -0,0 +1,32 @@
+#!/bin/bash
+set -e
+
+# computes the recommendations in several local processes (one shard each) and merges the shards
+SHARDS=${1:-4}
+[ $# -gt 0 ] && shift
+CLASS_PATH=jars/genealogy.jar:jars/genealogists.jar
+FOLDERS="content/articles/ content/talks/ content/videos/"
+POSTS=$(find content/articles content/talks content/videos -maxdepth 1 -name '*.md' -type f | wc -l)
+SHARD_FOLDER=$(mktemp -d)
+trap 'rm -rf "$SHARD_FOLDER"' EXIT
+
+echo "computing $POSTS posts in $SHARDS shards..."
+PIDS=()
+SHARD_FILES=()
+for (( shard = 0; shard < SHARDS; shard++ ))
+do
+  FROM=$(( POSTS * shard / SHARDS ))
+  TO=$(( POSTS * (shard + 1) / SHARDS ))
+  FILE="$SHARD_FOLDER/$shard.shard"
+  SHARD_FILES+=("$FILE")
+  java -cp $CLASS_PATH org.codefx.java_after_eight.Main $FOLDERS "$FILE" --rows=$FROM:$TO "$@" > /dev/null &
+  PIDS+=($!)
+done
+for pid in "${PIDS[@]}"
+do
+  wait $pid
+done
+
+echo "merging shards..."
+java -cp $CLASS_PATH org.codefx.java_after_eight.Main $FOLDERS recommendations.json \
+  --merge=$(IFS=,; echo "${SHARD_FILES[*]}") > /dev/null
@@ -1 +1,15 @@
-java -cp jars/genealogy.jar:jars/genealogists.jar org.codefx.java_after_eight.Main
+#!/bin/bash
+set -e
+
+# `--cds` starts from the class data archive created by `train-cds.sh`
+JAVA_OPTIONS=""
+if [ "$1" == "--cds" ]
+then
+  JAVA_OPTIONS="-XX:SharedArchiveFile=jars/genealogy.jsa"
+fi
+# the Vector API aggregates scores faster, but it's an incubator module (Java 16+) that needs to be added explicitly
+if java --list-modules 2> /dev/null | grep -q '^jdk.incubator.vector'
+then
+  JAVA_OPTIONS="$JAVA_OPTIONS --add-modules jdk.incubator.vector"
+fi
+java $JAVA_OPTIONS -cp jars/genealogy.jar:jars/genealogists.jar org.codefx.java_after_eight.Main
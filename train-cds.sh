@@ -0,0 +1,49 @@
+#!/bin/bash
+set -e
+
+# runs the pipeline on a small corpus to dump an AppCDS archive (Java 13+) that `./run.sh --cds` starts from,
+# then measures start-up (i.e. a run on the small corpus) without and with the archive
+POSTS_PER_FOLDER=${1:-5}
+RUNS=${2:-10}
+# the archive is only valid for the exact class path (and JARs) it was created with
+CLASS_PATH=jars/genealogy.jar:jars/genealogists.jar
+ARCHIVE=jars/genealogy.jsa
+# the archive is also only valid for the same modules, so add the Vector API like `run.sh` does
+MODULES=""
+if java --list-modules 2> /dev/null | grep -q '^jdk.incubator.vector'
+then
+  MODULES="--add-modules jdk.incubator.vector"
+fi
+CORPUS=$(mktemp -d)
+trap 'rm -rf "$CORPUS"' EXIT
+
+for folder in articles talks videos
+do
+  mkdir "$CORPUS/$folder"
+  find content/$folder -maxdepth 1 -name '*.md' -type f | sort | head -n $POSTS_PER_FOLDER \
+    | xargs cp -t "$CORPUS/$folder"
+done
+FOLDERS="$CORPUS/articles/ $CORPUS/talks/ $CORPUS/videos/"
+
+echo "training on $(( 3 * POSTS_PER_FOLDER )) posts..."
+rm -f $ARCHIVE
+java $MODULES -XX:ArchiveClassesAtExit=$ARCHIVE -cp $CLASS_PATH org.codefx.java_after_eight.Main \
+  $FOLDERS "$CORPUS/recommendations.json" > /dev/null 2>&1
+
+average_startup() {
+  local total=0
+  for (( run = 0; run < RUNS; run++ ))
+  do
+    local start=$(date +%s%N)
+    java $MODULES "$@" -cp $CLASS_PATH org.codefx.java_after_eight.Main $FOLDERS "$CORPUS/recommendations.json" > /dev/null 2>&1
+    total=$(( total + $(date +%s%N) - start ))
+  done
+  echo $(( total / RUNS / 1000000 ))
+}
+
+echo "measuring start-up..."
+BEFORE=$(average_startup -Xshare:auto)
+AFTER=$(average_startup -XX:SharedArchiveFile=$ARCHIVE)
+echo ""
+echo "Average start-up without archive: $BEFORE ms"
+echo "Average start-up with archive:    $AFTER ms"